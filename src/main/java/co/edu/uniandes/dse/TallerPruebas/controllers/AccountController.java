@@ -0,0 +1,124 @@
+package co.edu.uniandes.dse.TallerPruebas.controllers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountDetailDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountSnapshot;
+import co.edu.uniandes.dse.TallerPruebas.dto.MessageDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferRequest;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferResult;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.mappers.DtoMapper;
+import co.edu.uniandes.dse.TallerPruebas.services.AccountService;
+import co.edu.uniandes.dse.TallerPruebas.services.BalanceStripeService;
+import co.edu.uniandes.dse.TallerPruebas.services.OrderedTransferService;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Controlador de las cuentas y de las transferencias entre cuentas
+ */
+@RestController
+@RequestMapping("/accounts")
+public class AccountController {
+
+    // NOTE: Encabezado con la clave de idempotencia de las transferencias
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private OrderedTransferService orderedTransferService;
+
+    @Autowired
+    private BalanceStripeService balanceStripeService;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    /**
+     * Devuelve una cuenta con sus bolsillos.
+     */
+    @GetMapping("/{accountId}")
+    @ResponseStatus(code = HttpStatus.OK)
+    public AccountDetailDTO findOne(@PathVariable Long accountId) throws EntityNotFoundException {
+        AccountEntity accountEntity = accountService.getAccount(accountId);
+        AccountDetailDTO accountDetailDTO = dtoMapper.toAccountDetailDTO(accountEntity);
+        // NOTE: El saldo de una cuenta con franjas incluye el de sus franjas
+        accountDetailDTO.setSaldo(accountService.getSaldo(accountEntity));
+        return accountDetailDTO;
+    }
+
+    /**
+     * Devuelve el estado y saldo de una cuenta con el resumen de sus bolsillos.
+     */
+    @GetMapping("/{accountId}/saldo")
+    @ResponseStatus(code = HttpStatus.OK)
+    public AccountSnapshot getSaldo(@PathVariable Long accountId) throws EntityNotFoundException {
+        return accountService.getSnapshot(accountId);
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas. Con el encabezado Idempotency-Key
+     * los reintentos con la misma clave no repiten la transferencia.
+     */
+    @PostMapping("/transfers")
+    @ResponseStatus(code = HttpStatus.OK)
+    public MessageDTO transferir(@RequestBody TransferRequest transferencia,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) throws EntityNotFoundException, BusinessLogicException {
+        return new MessageDTO(transactionService.transferirACuenta(transferencia.getCuentaOrigen(),
+                transferencia.getCuentaDestino(), transferencia.getMonto(), claveIdempotencia));
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas en el carril de sus cuentas (ver
+     * OrderedTransferService). El hilo de la petición no espera a la
+     * transferencia: la respuesta se envía cuando el futuro se completa.
+     */
+    @PostMapping("/transfers/ordered")
+    @ResponseStatus(code = HttpStatus.OK)
+    public CompletableFuture<MessageDTO> transferirEnOrden(@RequestBody TransferRequest transferencia,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        return orderedTransferService.transferirACuenta(transferencia.getCuentaOrigen(), transferencia.getCuentaDestino(),
+                transferencia.getMonto(), claveIdempotencia).thenApply(MessageDTO::new);
+    }
+
+    /**
+     * Reparte los créditos de una cuenta entre franjas de saldo (ver
+     * BalanceStripeService), para las cuentas que reciben muchas
+     * transferencias a la vez.
+     */
+    @PostMapping("/{accountId}/franjas")
+    @ResponseStatus(code = HttpStatus.OK)
+    public MessageDTO activarFranjas(@PathVariable Long accountId, @RequestParam int franjas) throws EntityNotFoundException, BusinessLogicException {
+        balanceStripeService.activarFranjas(accountId, franjas);
+        return new MessageDTO("La cuenta reparte sus créditos en " + franjas + " franjas");
+    }
+
+    /**
+     * Aplica un lote de transferencias entre cuentas en una sola transacción.
+     */
+    @PostMapping("/transfers/batch")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<TransferResult> transferirEnLote(@RequestBody List<TransferRequest> transferencias) {
+        return transactionService.transferirEnLote(transferencias);
+    }
+}
@@ -0,0 +1,73 @@
+package co.edu.uniandes.dse.TallerPruebas.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.MessageDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.PocketDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.PocketTransferRequest;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.mappers.DtoMapper;
+import co.edu.uniandes.dse.TallerPruebas.services.PocketService;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Controlador de los bolsillos de una cuenta
+ */
+@RestController
+@RequestMapping("/accounts/{accountId}/pockets")
+public class PocketController {
+
+    @Autowired
+    private PocketService pocketService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    /**
+     * Devuelve los bolsillos de una cuenta.
+     */
+    @GetMapping
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<PocketDTO> findAll(@PathVariable Long accountId) throws EntityNotFoundException {
+        return dtoMapper.toPocketDTOs(pocketService.getPockets(accountId));
+    }
+
+    /**
+     * Crea un bolsillo en una cuenta.
+     */
+    @PostMapping
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public PocketDTO create(@PathVariable Long accountId, @RequestBody PocketDTO pocketDTO) throws EntityNotFoundException, BusinessLogicException {
+        PocketEntity pocketEntity = pocketService.createPocket(accountId, dtoMapper.toPocketEntity(pocketDTO));
+        return dtoMapper.toPocketDTO(pocketEntity);
+    }
+
+    /**
+     * Transfiere dinero de la cuenta a uno de sus bolsillos. Con el encabezado
+     * Idempotency-Key los reintentos con la misma clave no repiten la
+     * transferencia.
+     */
+    @PostMapping("/{nombre}/transfers")
+    @ResponseStatus(code = HttpStatus.OK)
+    public MessageDTO transferir(@PathVariable Long accountId, @PathVariable String nombre,
+            @RequestBody PocketTransferRequest transferencia,
+            @RequestHeader(value = AccountController.IDEMPOTENCY_KEY, required = false) String claveIdempotencia) throws EntityNotFoundException, BusinessLogicException {
+        return new MessageDTO(transactionService.transferirABolsillo(accountId, nombre, transferencia.getMonto(), claveIdempotencia));
+    }
+}
@@ -0,0 +1,72 @@
+package co.edu.uniandes.dse.TallerPruebas.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.MessageDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.PocketDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.PocketTransferRequest;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferRequest;
+import co.edu.uniandes.dse.TallerPruebas.mappers.DtoMapper;
+import co.edu.uniandes.dse.TallerPruebas.services.ReactiveTransferService;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador de las transferencias y de la creación de bolsillos para
+ * clientes reactivos. Tiene las mismas rutas que AccountController y
+ * PocketController bajo /reactive, pero el hilo de la petición no espera a la
+ * operación (ver ReactiveTransferService): la respuesta se envía cuando el
+ * Mono termina.
+ */
+@RestController
+@RequestMapping("/reactive/accounts")
+public class ReactiveTransferController {
+
+    @Autowired
+    private ReactiveTransferService reactiveTransferService;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    /**
+     * Transfiere dinero entre dos cuentas. Con el encabezado Idempotency-Key
+     * los reintentos con la misma clave no repiten la transferencia.
+     */
+    @PostMapping("/transfers")
+    @ResponseStatus(code = HttpStatus.OK)
+    public Mono<MessageDTO> transferir(@RequestBody TransferRequest transferencia,
+            @RequestHeader(value = AccountController.IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        return reactiveTransferService.transferirACuenta(transferencia.getCuentaOrigen(), transferencia.getCuentaDestino(),
+                transferencia.getMonto(), claveIdempotencia).map(MessageDTO::new);
+    }
+
+    /**
+     * Crea un bolsillo en una cuenta.
+     */
+    @PostMapping("/{accountId}/pockets")
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public Mono<PocketDTO> crearBolsillo(@PathVariable Long accountId, @RequestBody PocketDTO pocketDTO) {
+        return reactiveTransferService.createPocket(accountId, dtoMapper.toPocketEntity(pocketDTO)).map(dtoMapper::toPocketDTO);
+    }
+
+    /**
+     * Transfiere dinero de la cuenta a uno de sus bolsillos. Con el encabezado
+     * Idempotency-Key los reintentos con la misma clave no repiten la
+     * transferencia.
+     */
+    @PostMapping("/{accountId}/pockets/{nombre}/transfers")
+    @ResponseStatus(code = HttpStatus.OK)
+    public Mono<MessageDTO> transferirABolsillo(@PathVariable Long accountId, @PathVariable String nombre,
+            @RequestBody PocketTransferRequest transferencia,
+            @RequestHeader(value = AccountController.IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+        return reactiveTransferService.transferirABolsillo(accountId, nombre, transferencia.getMonto(), claveIdempotencia)
+                .map(MessageDTO::new);
+    }
+}
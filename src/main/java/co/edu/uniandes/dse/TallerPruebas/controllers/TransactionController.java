@@ -0,0 +1,79 @@
+package co.edu.uniandes.dse.TallerPruebas.controllers;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.mappers.DtoMapper;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Controlador de los movimientos de las cuentas
+ */
+@RestController
+@RequestMapping("/accounts")
+public class TransactionController {
+
+    private static final int TAMANO_PAGINA = 500;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Devuelve el extracto de una cuenta como un arreglo JSON ordenado por fecha.
+     *
+     * El extracto se escribe página por página a medida que se lee, así que la
+     * memoria usada no depende de la longitud del historial de la cuenta. La
+     * primera página se lee antes de empezar a responder para poder contestar
+     * 404 si la cuenta no existe.
+     */
+    @GetMapping(value = "/{accountId}/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getExtracto(@PathVariable Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date hasta)
+            throws EntityNotFoundException {
+        List<TransactionEntity> primeraPagina = transactionService.getPrimeraPaginaExtracto(accountId, desde, hasta, TAMANO_PAGINA);
+
+        StreamingResponseBody extracto = salida -> {
+            try (JsonGenerator generador = objectMapper.createGenerator(salida)) {
+                // NOTE: El stream de la respuesta lo cierra Spring, no el generador
+                generador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generador.writeStartArray();
+                List<TransactionEntity> pagina = primeraPagina;
+                while (!pagina.isEmpty()) {
+                    for (TransactionEntity movimiento : pagina) {
+                        generador.writeObject(dtoMapper.toTransactionDTO(movimiento));
+                    }
+                    generador.flush();
+                    if (pagina.size() < TAMANO_PAGINA) {
+                        break;
+                    }
+                    pagina = transactionService.getSiguientePaginaExtracto(accountId, pagina.get(pagina.size() - 1), hasta, TAMANO_PAGINA);
+                }
+                generador.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(extracto);
+    }
+}
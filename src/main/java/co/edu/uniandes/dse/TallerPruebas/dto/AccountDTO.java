@@ -0,0 +1,15 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Data;
+
+/**
+ * Cuenta sin sus asociaciones
+ */
+@Data
+public class AccountDTO {
+    private Long id;
+    private String numeroCuenta;
+    private Money saldo;
+    private String estado;
+}
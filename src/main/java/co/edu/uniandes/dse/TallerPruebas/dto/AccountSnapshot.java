@@ -0,0 +1,17 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Value;
+
+/**
+ * Estado y saldo de una cuenta con el resumen de sus bolsillos en un momento
+ * dado. Es inmutable porque se comparte desde la caché de cuentas
+ */
+@Value
+public class AccountSnapshot {
+    Long id;
+    String estado;
+    Money saldo;
+    int bolsillos;
+    Money saldoBolsillos;
+}
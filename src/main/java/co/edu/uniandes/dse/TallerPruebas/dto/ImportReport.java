@@ -0,0 +1,17 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import lombok.Value;
+
+/**
+ * Resumen de una importación. El motivo de cada fila rechazada queda en el
+ * archivo CSV de errores
+ */
+@Value
+public class ImportReport {
+    long filas;
+    long importadas;
+    long rechazadas;
+    long duracionMillis;
+    double filasPorSegundo;
+    String archivoErrores;
+}
@@ -0,0 +1,16 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import lombok.Value;
+
+/**
+ * Resumen de una exportación del libro contable a un archivo binario
+ */
+@Value
+public class LedgerExportReport {
+    long registros;
+    long ultimoId;
+    long bytes;
+    long duracionMillis;
+    double registrosPorSegundo;
+    String archivo;
+}
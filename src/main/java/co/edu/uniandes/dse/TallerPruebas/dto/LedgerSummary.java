@@ -0,0 +1,18 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Value;
+
+/**
+ * Totales de un archivo exportado del libro contable, para conciliarlo con
+ * la base de datos
+ */
+@Value
+public class LedgerSummary {
+    long registros;
+    long ultimoId;
+    // NOTE: Suma de los movimientos entre cuentas; distinta de cero si se creó o destruyó dinero
+    Money netoEntreCuentas;
+    // NOTE: Dinero que el libro registra como transferido a bolsillos, menos el que salió de ellos
+    Money haciaBolsillos;
+}
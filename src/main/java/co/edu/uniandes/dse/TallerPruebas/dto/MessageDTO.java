@@ -0,0 +1,15 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de una operación que solo retorna un mensaje
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageDTO {
+    private String mensaje;
+}
@@ -0,0 +1,15 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Data;
+
+/**
+ * Bolsillo de una cuenta
+ */
+@Data
+public class PocketDTO {
+    private Long id;
+    private String nombre;
+    private Money saldo;
+    private Money metaAhorro;
+}
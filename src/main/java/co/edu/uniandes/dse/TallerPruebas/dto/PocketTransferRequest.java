@@ -0,0 +1,16 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monto a transferir de una cuenta a uno de sus bolsillos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PocketTransferRequest {
+    private Money monto;
+}
@@ -0,0 +1,20 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Value;
+
+/**
+ * Resumen de una conciliación de saldos. El detalle de cada discrepancia
+ * queda en el archivo CSV del reporte
+ */
+@Value
+public class ReconciliationReport {
+    long cuentas;
+    long cuentasSinFoto;
+    long discrepancias;
+    // NOTE: Suma de los movimientos entre cuentas; distinta de cero si se creó o destruyó dinero
+    Money netoEntreCuentas;
+    long duracionMillis;
+    double cuentasPorSegundo;
+    String archivo;
+}
@@ -0,0 +1,17 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import java.util.Date;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Data;
+
+/**
+ * Movimiento del extracto de una cuenta
+ */
+@Data
+public class TransactionDTO {
+    private Long id;
+    private Money monto;
+    private Date fecha;
+    private String tipo;
+}
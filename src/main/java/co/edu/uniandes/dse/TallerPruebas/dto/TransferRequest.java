@@ -0,0 +1,18 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import lombok.AllArgsConstructor;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transferencia entre cuentas que hace parte de un lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequest {
+    private Long cuentaOrigen;
+    private Long cuentaDestino;
+    private Money monto;
+}
@@ -0,0 +1,26 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una transferencia de un lote. La posición corresponde al índice
+ * de la transferencia en el lote recibido
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResult {
+    private int posicion;
+    private boolean exitosa;
+    private String mensaje;
+
+    public static TransferResult exitosa(int posicion) {
+        return new TransferResult(posicion, true, "Transferencia realizada con éxito");
+    }
+
+    public static TransferResult fallida(int posicion, String mensaje) {
+        return new TransferResult(posicion, false, mensaje);
+    }
+}
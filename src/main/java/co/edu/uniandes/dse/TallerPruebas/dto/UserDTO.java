@@ -0,0 +1,15 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import lombok.Data;
+
+/**
+ * Usuario sin sus asociaciones
+ */
+@Data
+public class UserDTO {
+    private Long id;
+    private String name;
+    private String email;
+    private String login;
+    private String cedula;
+}
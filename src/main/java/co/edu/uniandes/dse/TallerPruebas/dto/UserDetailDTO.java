@@ -0,0 +1,16 @@
+package co.edu.uniandes.dse.TallerPruebas.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Usuario con sus cuentas
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class UserDetailDTO extends UserDTO {
+    private List<AccountDTO> accounts = new ArrayList<>();
+}
@@ -0,0 +1,368 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountSaldoView;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Partición de las cuentas del motor en memoria. Un único hilo es dueño de los
+ * saldos y estados de sus cuentas y ejecuta los comandos de su cola en orden,
+ * así que no se usan bloqueos.
+ *
+ * El hilo toma de la cola todos los comandos que haya (hasta TAMANO_GRUPO),
+ * los aplica, escribe sus movimientos en el journal con una sola escritura y
+ * solo entonces responde a quienes los enviaron. Si el journal falla se
+ * deshacen los cambios del grupo y los comandos fallan; si el shard queda
+ * fuera de servicio, solo fallan los comandos que escriben movimientos, y las
+ * lecturas y los créditos de transferencias entre shards se siguen atendiendo. Cada cierto tiempo o
+ * número de movimientos, los movimientos confirmados se entregan al escritor
+ * del shard, que los aplica a la base de datos en segundo plano.
+ *
+ * Las cuentas se cargan de la base de datos la primera vez que se usan y no se
+ * descargan.
+ */
+@Slf4j
+final class AccountShard implements Runnable {
+
+    private static final int TAMANO_GRUPO = 1024;
+
+    /**
+     * Operación que se ejecuta en el hilo del shard.
+     */
+    @FunctionalInterface
+    interface Accion<T> {
+        T aplicar(AccountShard shard) throws EntityNotFoundException, BusinessLogicException;
+    }
+
+    private record Cambio(LongLongHashMap saldos, long clave, long delta) {
+    }
+
+    private record Confirmacion<T>(CompletableFuture<T> futuro, T valor) {
+        void confirmar() {
+            futuro.complete(valor);
+        }
+    }
+
+    private final int indice;
+    private final InMemoryAccountEngine motor;
+    private final ShardJournal journal;
+    private final ExecutorService escritor;
+    private final BlockingQueue<Runnable> cola;
+    private final int tamanoVolcado;
+    private final long intervaloVolcadoNanos;
+
+    private final LongLongHashMap saldos = new LongLongHashMap();
+    private final LongLongHashMap estados = new LongLongHashMap();
+    private final LongLongHashMap saldosBolsillos = new LongLongHashMap();
+
+    // NOTE: Estado del grupo de comandos en curso; solo lo usa el hilo del shard
+    private final List<Movimiento> grupo = new ArrayList<>();
+    private final List<Cambio> cambios = new ArrayList<>();
+    private final List<Confirmacion<?>> confirmaciones = new ArrayList<>();
+
+    private List<Movimiento> pendientes = new ArrayList<>();
+    private CompletableFuture<Void> escrituraAnterior = CompletableFuture.completedFuture(null);
+    private long proximoVolcado;
+    private boolean fallido;
+    private volatile boolean detenido;
+
+    AccountShard(int indice, InMemoryAccountEngine motor, ShardJournal journal, ExecutorService escritor, int capacidadCola,
+            int tamanoVolcado, long intervaloVolcadoNanos) {
+        this.indice = indice;
+        this.motor = motor;
+        this.journal = journal;
+        this.escritor = escritor;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.tamanoVolcado = tamanoVolcado;
+        this.intervaloVolcadoNanos = intervaloVolcadoNanos;
+    }
+
+    /**
+     * Envía una acción al hilo del shard. Si la cola está llena, quien envía
+     * espera. El futuro se completa cuando los movimientos de la acción (si los
+     * tiene) ya están en el journal.
+     */
+    <T> CompletableFuture<T> enviar(Accion<T> accion) {
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        encolar(() -> ejecutar(accion, futuro));
+        return futuro;
+    }
+
+    /**
+     * Entrega al escritor los movimientos pendientes del shard. El futuro se
+     * completa cuando ya están en la base de datos.
+     */
+    CompletableFuture<Void> sincronizar() {
+        CompletableFuture<Void> futuro = new CompletableFuture<>();
+        encolar(() -> {
+            volcar();
+            escrituraAnterior.whenComplete((r, e) -> futuro.complete(null));
+        });
+        return futuro;
+    }
+
+    /**
+     * Deja el shard fuera de servicio, como cuando no puede descartar un grupo
+     * del journal. Es visible en el paquete para que las pruebas puedan
+     * provocar la falla.
+     */
+    CompletableFuture<Void> fallar() {
+        return enviar(s -> {
+            s.fallido = true;
+            return null;
+        });
+    }
+
+    /**
+     * Pide al hilo del shard que termine después de entregar sus movimientos
+     * pendientes al escritor.
+     */
+    void detener() {
+        encolar(() -> detenido = true);
+    }
+
+    private void encolar(Runnable comando) {
+        // NOTE: No se abandona el envío si el hilo se interrumpe: un crédito que no llegue al shard dejaría su saldo en memoria mal
+        boolean interrumpido = false;
+        while (true) {
+            try {
+                cola.put(comando);
+                break;
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<Runnable> comandos = new ArrayList<>(TAMANO_GRUPO);
+        proximoVolcado = System.nanoTime() + intervaloVolcadoNanos;
+        try {
+            while (!detenido) {
+                long espera = Math.max(1, proximoVolcado - System.nanoTime());
+                Runnable primero = cola.poll(espera, TimeUnit.NANOSECONDS);
+                if (primero != null) {
+                    comandos.add(primero);
+                    cola.drainTo(comandos, TAMANO_GRUPO - 1);
+                }
+                ejecutarGrupo(comandos);
+                if (pendientes.size() >= tamanoVolcado || System.nanoTime() >= proximoVolcado) {
+                    volcar();
+                }
+            }
+            // NOTE: El motor ya no acepta comandos, pero los que alcanzaron a llegar se ejecutan
+            cola.drainTo(comandos);
+            ejecutarGrupo(comandos);
+            volcar();
+            escrituraAnterior.join();
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("No se pudo cerrar el journal del shard {}", indice, e);
+        }
+        log.info("Termina el shard {} del motor en memoria", indice);
+    }
+
+    private <T> void ejecutar(Accion<T> accion, CompletableFuture<T> futuro) {
+        int movimientosAntes = grupo.size();
+        int cambiosAntes = cambios.size();
+        try {
+            T valor = accion.aplicar(this);
+            if (grupo.size() == movimientosAntes) {
+                futuro.complete(valor);
+            } else if (fallido) {
+                // NOTE: Sin journal no se aceptan movimientos nuevos; las lecturas y los créditos que vienen de otros shards sí se atienden
+                deshacer(cambiosAntes);
+                grupo.subList(movimientosAntes, grupo.size()).clear();
+                futuro.completeExceptionally(new IllegalStateException("El journal del shard " + indice + " no está disponible"));
+            } else {
+                confirmaciones.add(new Confirmacion<>(futuro, valor));
+            }
+        } catch (EntityNotFoundException | BusinessLogicException e) {
+            futuro.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            log.error("Error inesperado en el shard {}", indice, e);
+            futuro.completeExceptionally(e);
+        }
+    }
+
+    private void ejecutarGrupo(List<Runnable> comandos) {
+        for (Runnable comando : comandos) {
+            comando.run();
+        }
+        comandos.clear();
+        if (grupo.isEmpty()) {
+            return;
+        }
+        try {
+            for (Movimiento movimiento : grupo) {
+                journal.agregar(movimiento);
+            }
+            journal.confirmar();
+            pendientes.addAll(grupo);
+            confirmaciones.forEach(Confirmacion::confirmar);
+        } catch (IOException e) {
+            log.error("No se pudo escribir el journal del shard {}; se deshacen {} movimientos", indice, grupo.size(), e);
+            deshacer(0);
+            descartarGrupo();
+            IllegalStateException error = new IllegalStateException("No se pudo escribir el journal del shard " + indice, e);
+            confirmaciones.forEach(c -> c.futuro().completeExceptionally(error));
+        }
+        grupo.clear();
+        cambios.clear();
+        confirmaciones.clear();
+    }
+
+    /**
+     * Deshace los cambios en memoria del grupo en curso a partir de la
+     * posición dada, del último al primero.
+     */
+    private void deshacer(int desde) {
+        for (int i = cambios.size() - 1; i >= desde; i--) {
+            Cambio cambio = cambios.get(i);
+            cambio.saldos().put(cambio.clave(), cambio.saldos().get(cambio.clave(), 0) - cambio.delta());
+        }
+        cambios.subList(desde, cambios.size()).clear();
+    }
+
+    private void descartarGrupo() {
+        try {
+            journal.descartar();
+        } catch (IOException e) {
+            // NOTE: Si no se puede truncar el segmento, recuperarlo aplicaría movimientos deshechos; el shard deja de aceptar comandos
+            log.error("No se pudo descartar el grupo del journal del shard {}; el shard queda fuera de servicio", indice, e);
+            fallido = true;
+        }
+    }
+
+    /**
+     * Entrega los movimientos pendientes al escritor. Si la escritura anterior
+     * no ha terminado se espera, para que el shard no acumule segmentos más
+     * rápido de lo que la base de datos los aplica.
+     */
+    private void volcar() {
+        proximoVolcado = System.nanoTime() + intervaloVolcadoNanos;
+        if (pendientes.isEmpty() || fallido) {
+            return;
+        }
+        escrituraAnterior.join();
+        long segmento;
+        try {
+            segmento = journal.rotar();
+        } catch (IOException e) {
+            log.error("No se pudo rotar el journal del shard {}; el shard queda fuera de servicio", indice, e);
+            fallido = true;
+            return;
+        }
+        List<Movimiento> lote = pendientes;
+        pendientes = new ArrayList<>();
+        escrituraAnterior = CompletableFuture.runAsync(() -> motor.aplicarSegmento(indice, segmento, lote), escritor);
+    }
+
+    // Operaciones; solo se llaman desde el hilo del shard, dentro de una Accion
+
+    /**
+     * Transferencia entre dos cuentas del mismo shard.
+     *
+     * @return saldo de la cuenta origen en centavos
+     */
+    long transferir(long cOrigen, long cDestino, long monto) throws EntityNotFoundException, BusinessLogicException {
+        long estadoDestino = estado(cDestino);
+        ReglasTransferencia.validarTransferencia(cOrigen, cDestino, estado(cOrigen), estadoDestino, saldos.get(cOrigen, 0), monto);
+        long fecha = System.currentTimeMillis();
+        mover(cOrigen, -monto);
+        mover(cDestino, monto);
+        grupo.add(new Movimiento(cOrigen, 0, monto, false, fecha));
+        grupo.add(new Movimiento(cDestino, 0, monto, true, fecha));
+        return saldos.get(cOrigen, 0);
+    }
+
+    /**
+     * Débito de una transferencia hacia una cuenta de otro shard. El journal
+     * de este shard registra los dos movimientos; el crédito en memoria lo
+     * aplica después el shard de la cuenta destino con acreditar.
+     *
+     * @param estadoDestino estado de la cuenta destino leído en su shard
+     * @return saldo de la cuenta origen en centavos
+     */
+    long debitar(long cOrigen, long cDestino, long estadoDestino, long monto) throws EntityNotFoundException, BusinessLogicException {
+        ReglasTransferencia.validarTransferencia(cOrigen, cDestino, estado(cOrigen), estadoDestino, saldos.get(cOrigen, 0), monto);
+        long fecha = System.currentTimeMillis();
+        mover(cOrigen, -monto);
+        grupo.add(new Movimiento(cOrigen, 0, monto, false, fecha));
+        grupo.add(new Movimiento(cDestino, 0, monto, true, fecha));
+        return saldos.get(cOrigen, 0);
+    }
+
+    /**
+     * Crédito en memoria de una transferencia que viene de otro shard. No se
+     * escribe en el journal: ya está en el del shard de la cuenta origen, así
+     * que no puede fallar, ni siquiera con el shard fuera de servicio.
+     */
+    long acreditar(long cDestino, long monto) {
+        saldos.put(cDestino, saldos.get(cDestino, 0) + monto);
+        return saldos.get(cDestino, 0);
+    }
+
+    /**
+     * Transferencia de una cuenta a uno de sus bolsillos.
+     *
+     * @param pocketId id del bolsillo, o 0 si la cuenta no tiene un bolsillo con ese nombre
+     * @param saldoBolsilloLeido saldo del bolsillo en la base de datos, si el shard aún no lo tiene
+     * @return saldos de la cuenta y del bolsillo en centavos
+     */
+    long[] transferirABolsillo(long accountId, long pocketId, long saldoBolsilloLeido, long monto) throws EntityNotFoundException, BusinessLogicException {
+        ReglasTransferencia.validarTransferenciaABolsillo(estado(accountId), pocketId, saldos.get(accountId, 0), monto);
+        if (!saldosBolsillos.containsKey(pocketId)) {
+            saldosBolsillos.put(pocketId, saldoBolsilloLeido);
+        }
+        mover(accountId, -monto);
+        cambios.add(new Cambio(saldosBolsillos, pocketId, monto));
+        saldosBolsillos.put(pocketId, saldosBolsillos.get(pocketId, 0) + monto);
+        grupo.add(new Movimiento(accountId, pocketId, monto, false, System.currentTimeMillis()));
+        return new long[] { saldos.get(accountId, 0), saldosBolsillos.get(pocketId, 0) };
+    }
+
+    /**
+     * @return estado de la cuenta (ver ReglasTransferencia), cargándola si hace falta
+     */
+    long estado(long accountId) {
+        if (!estados.containsKey(accountId)) {
+            Optional<AccountSaldoView> cuenta = motor.leerCuenta(accountId);
+            if (cuenta.isEmpty()) {
+                return ReglasTransferencia.NO_EXISTE;
+            }
+            saldos.put(accountId, cuenta.get().getSaldo() != null ? cuenta.get().getSaldo().getCents() : 0);
+            estados.put(accountId, ReglasTransferencia.estado(cuenta.get().getEstado()));
+        }
+        return estados.get(accountId, ReglasTransferencia.NO_EXISTE);
+    }
+
+    /**
+     * @return saldo de una cuenta ya cargada en el shard, en centavos
+     */
+    long saldo(long accountId) {
+        return saldos.get(accountId, 0);
+    }
+
+    private void mover(long accountId, long delta) {
+        cambios.add(new Cambio(saldos, accountId, delta));
+        saldos.put(accountId, saldos.get(accountId, 0) + delta);
+    }
+}
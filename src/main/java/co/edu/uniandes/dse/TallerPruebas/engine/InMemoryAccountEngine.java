@@ -0,0 +1,253 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountSaldoView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de transferencias con los saldos y estados de las cuentas en memoria.
+ * Se activa con transfer.engine=MEMORY; TransactionService le delega las
+ * transferencias sin cambiar su API.
+ *
+ * Las cuentas se reparten por id en transfer.memory.shards particiones
+ * (AccountShard), cada una con un único hilo dueño de sus saldos, así que las
+ * transferencias no bloquean filas ni abren transacciones. Una transferencia
+ * entre cuentas del mismo shard es un solo comando; entre shards distintos se
+ * lee el estado de la cuenta destino en su shard, se debita la cuenta origen
+ * (el journal del shard origen registra los dos movimientos) y se acredita la
+ * cuenta destino en memoria. Desde que el débito está en el journal la
+ * transferencia ya no puede fallar: el crédito no escribe en el journal y el
+ * shard destino lo aplica aunque esté fuera de servicio.
+ *
+ * Cada shard escribe sus movimientos en un journal local antes de responder y
+ * los aplica a la base de datos en segundo plano, un segmento del journal por
+ * transacción (ver JournalApplier). Al arrancar se aplican los segmentos que
+ * quedaron de una caída, sin repetir los que ya se aplicaron.
+ *
+ * Mientras el motor está activo, lo que se lee de la base de datos (saldos,
+ * extractos, conciliación) va atrasado hasta transfer.memory.flush-interval, y
+ * los cambios de estado o de saldo hechos a las cuentas por fuera del motor no
+ * se ven en memoria hasta reiniciar.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.engine", havingValue = "MEMORY")
+public class InMemoryAccountEngine implements TransferEngine {
+
+    private static final String CHECKPOINT = "memory-shard-";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JournalApplier journalApplier;
+
+    // NOTE: 0 usa un shard por procesador
+    @Value("${transfer.memory.shards:0}")
+    private int numeroShards;
+
+    @Value("${transfer.memory.journal-dir:./data/journal}")
+    private String directorioJournal;
+
+    // NOTE: Con false el journal no espera al disco: una caída del sistema operativo puede perder las últimas transferencias
+    @Value("${transfer.memory.journal-sync:true}")
+    private boolean sincronizarJournal;
+
+    @Value("${transfer.memory.flush-interval:PT1S}")
+    private Duration intervaloVolcado;
+
+    @Value("${transfer.memory.flush-size:5000}")
+    private int tamanoVolcado;
+
+    @Value("${transfer.memory.queue-capacity:10000}")
+    private int capacidadCola;
+
+    private final List<AccountShard> shards = new ArrayList<>();
+    private final List<Thread> hilos = new ArrayList<>();
+    private final List<ExecutorService> escritores = new ArrayList<>();
+    private Path directorio;
+    private volatile boolean aceptando;
+    private volatile boolean cerrando;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        directorio = Path.of(directorioJournal);
+        Files.createDirectories(directorio);
+
+        // 1. Aplicar los segmentos que quedaron de una ejecución anterior
+        journalApplier.recuperar(directorio, CHECKPOINT);
+
+        // 2. Iniciar los shards; sus segmentos continúan la numeración del checkpoint
+        int n = numeroShards > 0 ? numeroShards : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < n; i++) {
+            long ultimo = journalApplier.ultimoSegmento(CHECKPOINT + i);
+            ExecutorService escritor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("motor-escritor-" + i).daemon().factory());
+            AccountShard shard = new AccountShard(i, this, new ShardJournal(directorio, i, ultimo + 1, sincronizarJournal), escritor,
+                    capacidadCola, tamanoVolcado, intervaloVolcado.toNanos());
+            shards.add(shard);
+            escritores.add(escritor);
+            hilos.add(Thread.ofPlatform().name("motor-shard-" + i).daemon().start(shard));
+        }
+        aceptando = true;
+        log.info("Inicia el motor de cuentas en memoria con {} shards; journal en {}", n, directorio.toAbsolutePath());
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        // NOTE: Cada shard entrega sus movimientos pendientes; si la base de datos no responde quedan en el journal
+        aceptando = false;
+        cerrando = true;
+        shards.forEach(AccountShard::detener);
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        escritores.forEach(ExecutorService::shutdown);
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas, con las mismas validaciones y
+     * mensajes que TransactionService.
+     *
+     * @return nuevo saldo de la cuenta origen
+     */
+    @Override
+    public Money transferir(Long cOrigen, Long cDestino, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        long origen = id(cOrigen);
+        long destino = id(cDestino);
+        long centavos = monto != null ? monto.getCents() : 0;
+        AccountShard shardOrigen = shard(origen);
+        AccountShard shardDestino = shard(destino);
+
+        // 1. Si las dos cuentas están en el mismo shard, la transferencia es un solo comando
+        if (shardOrigen == shardDestino) {
+            return Money.ofCents(esperar(shardOrigen.enviar(s -> s.transferir(origen, destino, centavos))));
+        }
+
+        // 2. Leer el estado de la cuenta destino en su shard
+        // NOTE: El estado en memoria no cambia, así que leerlo antes del débito no deja una ventana
+        long estadoDestino = esperar(shardDestino.enviar(s -> s.estado(destino)));
+
+        // 3. Debitar la cuenta origen; su journal registra los dos movimientos
+        long saldoOrigen = esperar(shardOrigen.enviar(s -> s.debitar(origen, destino, estadoDestino, centavos)));
+
+        // 4. Acreditar la cuenta destino en memoria
+        // NOTE: La transferencia ya es durable, así que no se espera el crédito: no puede fallar y la cola del shard lo aplica antes que cualquier comando enviado después
+        shardDestino.enviar(s -> s.acreditar(destino, centavos));
+        return Money.ofCents(saldoOrigen);
+    }
+
+    /**
+     * Transfiere dinero de una cuenta a uno de sus bolsillos, con las mismas
+     * validaciones y mensajes que TransactionService.
+     *
+     * @param pocketId id del bolsillo, o null si la cuenta no tiene un bolsillo con ese nombre
+     * @param saldoBolsillo saldo del bolsillo leído de la base de datos
+     */
+    @Override
+    public SaldosBolsillo transferirABolsillo(Long accountId, Long pocketId, Money saldoBolsillo, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        long cuenta = id(accountId);
+        long bolsillo = id(pocketId);
+        long saldoLeido = saldoBolsillo != null ? saldoBolsillo.getCents() : 0;
+        long centavos = monto != null ? monto.getCents() : 0;
+        long[] saldos = esperar(shard(cuenta).enviar(s -> s.transferirABolsillo(cuenta, bolsillo, saldoLeido, centavos)));
+        return new SaldosBolsillo(Money.ofCents(saldos[0]), Money.ofCents(saldos[1]));
+    }
+
+    /**
+     * @return saldo en memoria de la cuenta, o vacío si no existe
+     */
+    public Optional<Money> getSaldo(Long accountId) {
+        long cuenta = id(accountId);
+        return esperarSinErrores(shard(cuenta).enviar(s -> s.estado(cuenta) == ReglasTransferencia.NO_EXISTE ? null : Money.ofCents(s.saldo(cuenta))));
+    }
+
+    /**
+     * Aplica a la base de datos todos los movimientos hechos hasta ahora.
+     */
+    @Override
+    public void sincronizar() {
+        List<CompletableFuture<Void>> escrituras = new ArrayList<>();
+        for (AccountShard shard : shards) {
+            escrituras.add(shard.sincronizar());
+        }
+        CompletableFuture.allOf(escrituras.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * @return shard dueño de la cuenta; es visible en el paquete para las pruebas
+     */
+    AccountShard shard(long accountId) {
+        if (!aceptando) {
+            throw new IllegalStateException("El motor de cuentas en memoria no está aceptando transferencias");
+        }
+        return shards.get((int) Math.floorMod(accountId, (long) shards.size()));
+    }
+
+    /**
+     * Lee una cuenta de la base de datos la primera vez que un shard la usa.
+     */
+    Optional<AccountSaldoView> leerCuenta(long accountId) {
+        return accountId == 0 ? Optional.empty() : accountRepository.findSaldoById(accountId);
+    }
+
+    /**
+     * Aplica un segmento del journal a la base de datos. Se ejecuta en el hilo
+     * escritor del shard.
+     */
+    void aplicarSegmento(int shard, long segmento, List<Movimiento> movimientos) {
+        journalApplier.aplicar(ShardJournal.archivo(directorio, shard, segmento), CHECKPOINT + shard, segmento, movimientos,
+                intervaloVolcado, () -> cerrando);
+    }
+
+    private static long id(Long id) {
+        // NOTE: Un id en null se trata como una cuenta que no existe (los ids empiezan en 1)
+        return id != null ? id : 0;
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) throws EntityNotFoundException, BusinessLogicException {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof EntityNotFoundException noEncontrada) {
+                throw noEncontrada;
+            }
+            if (e.getCause() instanceof BusinessLogicException negocio) {
+                throw negocio;
+            }
+            if (e.getCause() instanceof RuntimeException error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static <T> Optional<T> esperarSinErrores(CompletableFuture<T> futuro) {
+        try {
+            return Optional.ofNullable(esperar(futuro));
+        } catch (EntityNotFoundException | BusinessLogicException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.JournalCheckpointEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.JournalCheckpointRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.AccountSnapshotCache;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica a la base de datos los segmentos de los journals locales de los
+ * motores de transferencias (ver ShardJournal).
+ *
+ * Cada segmento se aplica en una transacción que suma los saldos netos de las
+ * cuentas y bolsillos, inserta los movimientos del libro contable y guarda el
+ * número del segmento en el checkpoint de su journal (JournalCheckpointEntity).
+ * Un segmento con número menor o igual al del checkpoint ya se aplicó y se
+ * omite, así que volver a aplicarlo después de una caída no repite nada.
+ */
+@Slf4j
+@Component
+class JournalApplier {
+
+    // NOTE: Máximo de ids por consulta IN al cargar las cuentas de un segmento
+    private static final int IDS_POR_CONSULTA = 1000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private AccountSnapshotCache accountSnapshotCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * @return número del último segmento aplicado del journal, o 0 si no hay ninguno
+     */
+    long ultimoSegmento(String checkpoint) {
+        return new TransactionTemplate(transactionManager).execute(status -> checkpointRepository.findByNombre(checkpoint)
+                .map(JournalCheckpointEntity::getSegmento).orElse(0L));
+    }
+
+    /**
+     * Aplica un segmento, reintentando hasta que la transacción haga commit, y
+     * después borra su archivo. Un conflicto de versión con otro escritor se
+     * reintenta de inmediato; los demás errores, después de la espera. Si la aplicación se está cerrando no se
+     * reintenta: el segmento queda en el disco y se aplica al arrancar.
+     *
+     * @param espera tiempo entre reintentos
+     * @param cerrando indica si la aplicación se está cerrando
+     * @return true si el segmento quedó aplicado
+     */
+    boolean aplicar(Path archivo, String checkpoint, long segmento, List<Movimiento> movimientos, Duration espera, BooleanSupplier cerrando) {
+        int intento = 1;
+        while (true) {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> escribirSegmento(checkpoint, segmento, movimientos));
+                break;
+            } catch (OptimisticLockingFailureException e) {
+                // NOTE: Otro escritor actualizó las mismas cuentas (el débito y el crédito entre shards van en journals distintos); se reintenta de inmediato
+                log.debug("Conflicto al aplicar el segmento {} de {} (intento {}); se reintenta", segmento, checkpoint, intento);
+                intento++;
+            } catch (RuntimeException e) {
+                if (cerrando.getAsBoolean()) {
+                    log.error("No se pudo aplicar el segmento {} de {}; se aplicará al arrancar", segmento, checkpoint, e);
+                    return false;
+                }
+                log.error("No se pudo aplicar el segmento {} de {} (intento {}); se reintenta", segmento, checkpoint, intento, e);
+                try {
+                    Thread.sleep(espera.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                intento++;
+            }
+        }
+        borrarSegmento(archivo);
+        accountSnapshotCache.invalidarDespuesDelCommit(movimientos.stream().map(Movimiento::accountId).distinct().toList());
+        log.debug("Segmento {} de {} aplicado: {} movimientos", segmento, checkpoint, movimientos.size());
+        return true;
+    }
+
+    /**
+     * Aplica los segmentos que haya en un directorio de journal y los borra.
+     * El checkpoint de cada segmento es prefijoCheckpoint seguido del número
+     * de su shard.
+     */
+    void recuperar(Path directorio, String prefijoCheckpoint) throws IOException {
+        List<ShardJournal.Segmento> segmentos = ShardJournal.segmentos(directorio);
+        long movimientos = 0;
+        for (ShardJournal.Segmento segmento : segmentos) {
+            List<Movimiento> leidos = ShardJournal.leer(segmento.archivo());
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> escribirSegmento(prefijoCheckpoint + segmento.shard(), segmento.numero(), leidos));
+            borrarSegmento(segmento.archivo());
+            movimientos += leidos.size();
+        }
+        if (!segmentos.isEmpty()) {
+            log.info("Recuperados {} segmentos del journal {} con {} movimientos", segmentos.size(), directorio, movimientos);
+        }
+    }
+
+    private void escribirSegmento(String nombre, long segmento, List<Movimiento> movimientos) {
+        // 1. Verificar que el segmento no se haya aplicado ya
+        JournalCheckpointEntity checkpoint = checkpointRepository.findByNombre(nombre).orElseGet(() -> nuevoCheckpoint(nombre));
+        if (checkpoint.getSegmento() >= segmento) {
+            log.info("El segmento {} de {} ya estaba aplicado", segmento, nombre);
+            return;
+        }
+
+        // 2. Sumar los movimientos por cuenta y por bolsillo
+        Map<Long, Long> deltasCuentas = new HashMap<>();
+        Map<Long, Long> deltasBolsillos = new HashMap<>();
+        for (Movimiento movimiento : movimientos) {
+            deltasCuentas.merge(movimiento.accountId(), movimiento.delta(), Long::sum);
+            if (movimiento.pocketId() != 0) {
+                deltasBolsillos.merge(movimiento.pocketId(), -movimiento.delta(), Long::sum);
+            }
+        }
+
+        // 3. Aplicar los saldos netos; el flush escribe un UPDATE por cuenta y bolsillo, en batches JDBC
+        Map<Long, AccountEntity> cuentas = new HashMap<>();
+        for (List<Long> bloque : bloques(deltasCuentas.keySet())) {
+            for (AccountEntity cuenta : accountRepository.findAllById(bloque)) {
+                cuenta.setSaldo(cuenta.getSaldo().plus(Money.ofCents(deltasCuentas.get(cuenta.getId()))));
+                cuentas.put(cuenta.getId(), cuenta);
+            }
+        }
+        Map<Long, PocketEntity> bolsillos = new HashMap<>();
+        for (List<Long> bloque : bloques(deltasBolsillos.keySet())) {
+            for (PocketEntity bolsillo : pocketRepository.findAllById(bloque)) {
+                bolsillo.setSaldo(bolsillo.getSaldo().plus(Money.ofCents(deltasBolsillos.get(bolsillo.getId()))));
+                bolsillos.put(bolsillo.getId(), bolsillo);
+            }
+        }
+
+        // 4. Registrar los movimientos en el libro contable
+        List<TransactionEntity> registros = new ArrayList<>(movimientos.size());
+        int omitidos = 0;
+        for (Movimiento movimiento : movimientos) {
+            AccountEntity cuenta = cuentas.get(movimiento.accountId());
+            if (cuenta == null) {
+                omitidos++;
+                continue;
+            }
+            TransactionEntity registro = new TransactionEntity();
+            registro.setAccount(cuenta);
+            registro.setPocket(bolsillos.get(movimiento.pocketId()));
+            registro.setMonto(Money.ofCents(movimiento.montoCents()));
+            registro.setTipo(movimiento.entrada() ? "ENTRADA" : "SALIDA");
+            registro.setFecha(new Date(movimiento.fechaMillis()));
+            registros.add(registro);
+        }
+        transactionRepository.saveAll(registros);
+        if (omitidos > 0) {
+            log.warn("El segmento {} de {} tiene {} movimientos de cuentas que ya no existen; se omiten", segmento, nombre, omitidos);
+        }
+
+        // 5. Marcar el segmento como aplicado, en la misma transacción
+        checkpoint.setSegmento(segmento);
+        checkpointRepository.save(checkpoint);
+    }
+
+    private static JournalCheckpointEntity nuevoCheckpoint(String nombre) {
+        JournalCheckpointEntity checkpoint = new JournalCheckpointEntity();
+        checkpoint.setNombre(nombre);
+        checkpoint.setSegmento(0L);
+        return checkpoint;
+    }
+
+    private static List<List<Long>> bloques(Iterable<Long> ids) {
+        List<List<Long>> bloques = new ArrayList<>();
+        List<Long> bloque = new ArrayList<>(IDS_POR_CONSULTA);
+        for (Long id : ids) {
+            bloque.add(id);
+            if (bloque.size() == IDS_POR_CONSULTA) {
+                bloques.add(bloque);
+                bloque = new ArrayList<>(IDS_POR_CONSULTA);
+            }
+        }
+        if (!bloque.isEmpty()) {
+            bloques.add(bloque);
+        }
+        return bloques;
+    }
+
+    private static void borrarSegmento(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            // NOTE: El checkpoint ya evita que se aplique otra vez; se borra en la siguiente recuperación
+            log.warn("No se pudo borrar el segmento {}", archivo, e);
+        }
+    }
+}
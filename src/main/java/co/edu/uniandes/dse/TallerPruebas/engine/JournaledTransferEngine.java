@@ -0,0 +1,360 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountJournalView;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de transferencias con un journal de escritura anticipada (write-ahead
+ * log). Se activa con transfer.engine=JOURNAL; TransactionService le delega
+ * las transferencias sin cambiar su API.
+ *
+ * Una transferencia se valida, se escribe en el journal local y se confirma
+ * al cliente apenas el journal llega al disco, sin esperar a la base de
+ * datos. Las transferencias concurrentes comparten el fsync (ver
+ * WriteAheadJournal) y el journal se aplica a la base de datos en segundo
+ * plano, un segmento por transacción (ver JournalApplier). Al arrancar se
+ * aplican los segmentos que quedaron de una caída, así que una transferencia
+ * confirmada no se pierde aunque el proceso muera antes de aplicarla.
+ *
+ * A diferencia del motor en memoria, la base de datos sigue siendo la fuente
+ * de los saldos y estados: cada transferencia lee sus cuentas junto con el
+ * último segmento aplicado y les suma los movimientos confirmados de los
+ * segmentos posteriores, que el motor guarda hasta que se aplican. Las
+ * transferencias de una misma cuenta se serializan con un bloqueo en memoria
+ * por grupo de cuentas, así que el motor solo puede correr en una instancia.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.engine", havingValue = "JOURNAL")
+public class JournaledTransferEngine implements TransferEngine {
+
+    private static final String CHECKPOINT_PREFIJO = "wal-";
+    // NOTE: El journal tiene un solo escritor, que usa los archivos y el checkpoint del shard 0
+    private static final int SHARD = 0;
+    private static final String CHECKPOINT = CHECKPOINT_PREFIJO + SHARD;
+    private static final int BLOQUEOS = 1024;
+
+    /**
+     * Movimiento confirmado en el journal que aún puede no estar en la base de
+     * datos.
+     */
+    private record Pendiente(long segmento, long delta) {
+    }
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private JournalApplier journalApplier;
+
+    @Value("${transfer.journal.dir:./data/wal}")
+    private String directorioJournal;
+
+    // NOTE: Con false no se espera el fsync: una caída del sistema operativo puede perder transferencias confirmadas
+    @Value("${transfer.journal.sync:true}")
+    private boolean sincronizarJournal;
+
+    @Value("${transfer.journal.flush-interval:PT1S}")
+    private Duration intervaloVolcado;
+
+    @Value("${transfer.journal.flush-size:5000}")
+    private int tamanoVolcado;
+
+    @Value("${transfer.journal.queue-capacity:10000}")
+    private int capacidadCola;
+
+    private final ReentrantLock[] bloqueos = crearBloqueos();
+    private final Map<Long, Deque<Pendiente>> pendientesCuentas = new ConcurrentHashMap<>();
+    private final Map<Long, Deque<Pendiente>> pendientesBolsillos = new ConcurrentHashMap<>();
+    private WriteAheadJournal journal;
+    private Thread hilo;
+    private ExecutorService escritor;
+    private Path directorio;
+    private volatile boolean aceptando;
+    private volatile boolean cerrando;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        directorio = Path.of(directorioJournal);
+        Files.createDirectories(directorio);
+
+        // 1. Aplicar los segmentos que quedaron de una ejecución anterior
+        journalApplier.recuperar(directorio, CHECKPOINT_PREFIJO);
+
+        // 2. Iniciar el journal; sus segmentos continúan la numeración del checkpoint
+        long ultimo = journalApplier.ultimoSegmento(CHECKPOINT);
+        escritor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("wal-escritor").daemon().factory());
+        journal = new WriteAheadJournal(this, new ShardJournal(directorio, SHARD, ultimo + 1, sincronizarJournal), escritor,
+                capacidadCola, tamanoVolcado, intervaloVolcado.toNanos());
+        hilo = Thread.ofPlatform().name("wal-journal").daemon().start(journal);
+        aceptando = true;
+        log.info("Inicia el motor de transferencias con journal en {}", directorio.toAbsolutePath());
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        // NOTE: Los segmentos que la base de datos no alcance a aplicar quedan en el journal y se aplican al arrancar
+        aceptando = false;
+        cerrando = true;
+        journal.detener();
+        hilo.join();
+        escritor.shutdown();
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas, con las mismas validaciones y
+     * mensajes que TransactionService.
+     *
+     * @return nuevo saldo de la cuenta origen
+     */
+    @Override
+    public Money transferir(Long cOrigen, Long cDestino, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        long origen = id(cOrigen);
+        long destino = id(cDestino);
+        long centavos = monto != null ? monto.getCents() : 0;
+        verificarQueAcepta();
+
+        // NOTE: Los bloqueos se toman en orden de índice para que dos transferencias en sentidos opuestos no se bloqueen entre sí
+        ReentrantLock primero = bloqueos[Math.min(indice(origen), indice(destino))];
+        ReentrantLock segundo = bloqueos[Math.max(indice(origen), indice(destino))];
+        primero.lock();
+        if (segundo != primero) {
+            segundo.lock();
+        }
+        try {
+            // 1. Leer las dos cuentas y el último segmento aplicado en una sola consulta
+            Map<Long, AccountJournalView> cuentas = new HashMap<>();
+            for (AccountJournalView cuenta : accountRepository.findJournalStateByIdIn(List.of(origen, destino), CHECKPOINT)) {
+                cuentas.put(cuenta.getId(), cuenta);
+            }
+            AccountJournalView cuentaOrigen = cuentas.get(origen);
+            long saldoOrigen = cuentaOrigen != null ? saldoEfectivo(cuentaOrigen) : 0;
+
+            // 2. Validar con el saldo de la base de datos más los movimientos aún no aplicados
+            ReglasTransferencia.validarTransferencia(origen, destino, estado(cuentaOrigen), estado(cuentas.get(destino)), saldoOrigen, centavos);
+
+            // 3. Escribir los dos movimientos en el journal y esperar a que estén en el disco
+            long fecha = System.currentTimeMillis();
+            long segmento = esperar(journal.agregar(List.of(new Movimiento(origen, 0, centavos, false, fecha),
+                    new Movimiento(destino, 0, centavos, true, fecha))));
+
+            // 4. Guardar los movimientos hasta que su segmento se aplique
+            registrar(pendientesCuentas, origen, segmento, -centavos);
+            registrar(pendientesCuentas, destino, segmento, centavos);
+            return Money.ofCents(saldoOrigen - centavos);
+        } finally {
+            if (segundo != primero) {
+                segundo.unlock();
+            }
+            primero.unlock();
+        }
+    }
+
+    /**
+     * Transfiere dinero de una cuenta a uno de sus bolsillos, con las mismas
+     * validaciones y mensajes que TransactionService. El saldo del bolsillo se
+     * lee otra vez junto con el último segmento aplicado, así que
+     * saldoBolsillo no se usa.
+     *
+     * @param pocketId id del bolsillo, o null si la cuenta no tiene un bolsillo con ese nombre
+     */
+    @Override
+    public SaldosBolsillo transferirABolsillo(Long accountId, Long pocketId, Money saldoBolsillo, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        long cuenta = id(accountId);
+        long bolsillo = id(pocketId);
+        long centavos = monto != null ? monto.getCents() : 0;
+        verificarQueAcepta();
+
+        // NOTE: El bolsillo pertenece a la cuenta, así que el bloqueo de la cuenta también protege su saldo
+        ReentrantLock bloqueo = bloqueos[indice(cuenta)];
+        bloqueo.lock();
+        try {
+            // 1. Leer la cuenta y validar
+            AccountJournalView leida = accountRepository.findJournalStateByIdIn(List.of(cuenta), CHECKPOINT).stream().findFirst().orElse(null);
+            long saldoCuenta = leida != null ? saldoEfectivo(leida) : 0;
+            ReglasTransferencia.validarTransferenciaABolsillo(estado(leida), bolsillo, saldoCuenta, centavos);
+
+            // 2. Leer el bolsillo
+            long saldoBolsilloActual = pocketRepository.findJournalStateById(bolsillo, CHECKPOINT)
+                    .map(p -> saldoEfectivo(pendientesBolsillos, bolsillo, p.getSaldo(), p.getSegmentoAplicado()))
+                    .orElse(0L);
+
+            // 3. Escribir el movimiento en el journal y esperar a que esté en el disco
+            long segmento = esperar(journal.agregar(List.of(new Movimiento(cuenta, bolsillo, centavos, false, System.currentTimeMillis()))));
+
+            // 4. Guardar los movimientos hasta que su segmento se aplique
+            registrar(pendientesCuentas, cuenta, segmento, -centavos);
+            registrar(pendientesBolsillos, bolsillo, segmento, centavos);
+            return new SaldosBolsillo(Money.ofCents(saldoCuenta - centavos), Money.ofCents(saldoBolsilloActual + centavos));
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * @return saldo de la cuenta con las transferencias confirmadas, o vacío si no existe
+     */
+    public Optional<Money> getSaldo(Long accountId) {
+        long cuenta = id(accountId);
+        ReentrantLock bloqueo = bloqueos[indice(cuenta)];
+        bloqueo.lock();
+        try {
+            return accountRepository.findJournalStateByIdIn(List.of(cuenta), CHECKPOINT).stream().findFirst()
+                    .map(leida -> Money.ofCents(saldoEfectivo(leida)));
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Aplica a la base de datos todas las transferencias confirmadas hasta
+     * ahora.
+     */
+    @Override
+    public void sincronizar() {
+        journal.sincronizar().join();
+    }
+
+    /**
+     * Aplica un segmento del journal a la base de datos y descarta sus
+     * movimientos pendientes. Se ejecuta en el hilo escritor.
+     */
+    void aplicarSegmento(long segmento, List<Movimiento> movimientos) {
+        if (!journalApplier.aplicar(ShardJournal.archivo(directorio, SHARD, segmento), CHECKPOINT, segmento, movimientos,
+                intervaloVolcado, () -> cerrando)) {
+            return;
+        }
+        for (Movimiento movimiento : movimientos) {
+            // NOTE: Una transferencia que tiene el bloqueo puede estar esperando al journal, que espera a este hilo; si está ocupado, la siguiente lectura de la cuenta descarta lo aplicado
+            ReentrantLock bloqueo = bloqueos[indice(movimiento.accountId())];
+            if (bloqueo.tryLock()) {
+                try {
+                    descartarAplicados(pendientesCuentas, movimiento.accountId(), segmento);
+                    if (movimiento.pocketId() != 0) {
+                        descartarAplicados(pendientesBolsillos, movimiento.pocketId(), segmento);
+                    }
+                } finally {
+                    bloqueo.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Aplica los segmentos que haya en el directorio del journal y los borra.
+     * Los segmentos ya aplicados según su checkpoint solo se borran.
+     */
+    void recuperar() throws IOException {
+        journalApplier.recuperar(directorio, CHECKPOINT_PREFIJO);
+    }
+
+    private void verificarQueAcepta() {
+        if (!aceptando) {
+            throw new IllegalStateException("El motor de transferencias con journal no está aceptando transferencias");
+        }
+    }
+
+    private long saldoEfectivo(AccountJournalView cuenta) {
+        return saldoEfectivo(pendientesCuentas, cuenta.getId(), cuenta.getSaldo(), cuenta.getSegmentoAplicado());
+    }
+
+    /**
+     * Suma al saldo leído de la base de datos los movimientos pendientes de
+     * segmentos posteriores al último aplicado. Se llama con el bloqueo de la
+     * cuenta.
+     */
+    private static long saldoEfectivo(Map<Long, Deque<Pendiente>> pendientes, long id, Money saldo, Long segmentoAplicado) {
+        long aplicado = segmentoAplicado != null ? segmentoAplicado : 0;
+        descartarAplicados(pendientes, id, aplicado);
+        long total = saldo != null ? saldo.getCents() : 0;
+        Deque<Pendiente> movimientos = pendientes.get(id);
+        if (movimientos != null) {
+            for (Pendiente pendiente : movimientos) {
+                total += pendiente.delta();
+            }
+        }
+        return total;
+    }
+
+    private static void registrar(Map<Long, Deque<Pendiente>> pendientes, long id, long segmento, long delta) {
+        pendientes.computeIfAbsent(id, k -> new ArrayDeque<>()).addLast(new Pendiente(segmento, delta));
+    }
+
+    private static void descartarAplicados(Map<Long, Deque<Pendiente>> pendientes, long id, long segmentoAplicado) {
+        Deque<Pendiente> movimientos = pendientes.get(id);
+        if (movimientos == null) {
+            return;
+        }
+        // NOTE: Los movimientos de una cuenta se registran en orden de segmento
+        while (!movimientos.isEmpty() && movimientos.peekFirst().segmento() <= segmentoAplicado) {
+            movimientos.removeFirst();
+        }
+        if (movimientos.isEmpty()) {
+            pendientes.remove(id);
+        }
+    }
+
+    private static long estado(AccountJournalView cuenta) {
+        return cuenta != null ? ReglasTransferencia.estado(cuenta.getEstado()) : ReglasTransferencia.NO_EXISTE;
+    }
+
+    private static int indice(long accountId) {
+        return (int) Math.floorMod(accountId, (long) BLOQUEOS);
+    }
+
+    private static ReentrantLock[] crearBloqueos() {
+        ReentrantLock[] bloqueos = new ReentrantLock[BLOQUEOS];
+        for (int i = 0; i < BLOQUEOS; i++) {
+            bloqueos[i] = new ReentrantLock();
+        }
+        return bloqueos;
+    }
+
+    private static long id(Long id) {
+        // NOTE: Un id en null se trata como una cuenta que no existe (los ids empiezan en 1)
+        return id != null ? id : 0;
+    }
+
+    private static long esperar(CompletableFuture<Long> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+/**
+ * Mapa de long a long con direccionamiento abierto (sondeo lineal) sobre dos
+ * arreglos primitivos, sin objetos por entrada. No es seguro para varios
+ * hilos: cada shard del motor tiene los suyos y solo su hilo los usa.
+ *
+ * La clave 0 se reserva para las posiciones vacías; los ids de las entidades
+ * salen de secuencias que empiezan en 1.
+ */
+final class LongLongHashMap {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private long[] claves;
+    private long[] valores;
+    private int tamano;
+    private int mascara;
+
+    LongLongHashMap() {
+        claves = new long[CAPACIDAD_INICIAL];
+        valores = new long[CAPACIDAD_INICIAL];
+        mascara = CAPACIDAD_INICIAL - 1;
+    }
+
+    boolean containsKey(long clave) {
+        return clave != 0 && claves[posicion(clave)] == clave;
+    }
+
+    /**
+     * @return el valor de la clave, o porDefecto si no está
+     */
+    long get(long clave, long porDefecto) {
+        int i = posicion(clave);
+        return clave != 0 && claves[i] == clave ? valores[i] : porDefecto;
+    }
+
+    void put(long clave, long valor) {
+        if (clave == 0) {
+            throw new IllegalArgumentException("La clave 0 está reservada");
+        }
+        int i = posicion(clave);
+        if (claves[i] == 0) {
+            claves[i] = clave;
+            tamano++;
+        }
+        valores[i] = valor;
+        // NOTE: Se crece al llegar a la mitad de la capacidad para que los sondeos sigan siendo cortos
+        if (tamano > claves.length / 2) {
+            crecer();
+        }
+    }
+
+    int size() {
+        return tamano;
+    }
+
+    /**
+     * Posición de la clave, o la posición vacía donde iría.
+     */
+    private int posicion(long clave) {
+        int i = mezclar(clave) & mascara;
+        while (claves[i] != 0 && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private void crecer() {
+        long[] clavesAnteriores = claves;
+        long[] valoresAnteriores = valores;
+        claves = new long[clavesAnteriores.length * 2];
+        valores = new long[clavesAnteriores.length * 2];
+        mascara = claves.length - 1;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != 0) {
+                int j = posicion(clavesAnteriores[i]);
+                claves[j] = clavesAnteriores[i];
+                valores[j] = valoresAnteriores[i];
+            }
+        }
+    }
+
+    private static int mezclar(long clave) {
+        // NOTE: Los ids consecutivos quedarían agrupados; se mezclan los bits con la constante de Fibonacci
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,16 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+/**
+ * Movimiento del libro contable aplicado por el motor en memoria, tal como
+ * se escribe en el journal y luego en la tabla de movimientos. pocketId es 0
+ * si el movimiento no es de un bolsillo.
+ */
+record Movimiento(long accountId, long pocketId, long montoCents, boolean entrada, long fechaMillis) {
+
+    /**
+     * @return cambio en centavos del saldo de la cuenta
+     */
+    long delta() {
+        return entrada ? montoCents : -montoCents;
+    }
+}
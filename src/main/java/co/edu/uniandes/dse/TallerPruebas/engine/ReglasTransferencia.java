@@ -0,0 +1,94 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+
+/**
+ * Reglas de negocio de las transferencias para los motores que no trabajan con
+ * entidades, sobre saldos en centavos y estados codificados. Se validan en el
+ * mismo orden y con los mismos mensajes que en TransactionService.
+ */
+final class ReglasTransferencia {
+
+    static final long NO_EXISTE = 0;
+    static final long ACTIVA = 1;
+    static final long INACTIVA = 2;
+
+    private ReglasTransferencia() {
+    }
+
+    /**
+     * @return el código del estado de una cuenta que existe
+     */
+    static long estado(String estado) {
+        return "ACTIVA".equals(estado) ? ACTIVA : INACTIVA;
+    }
+
+    /**
+     * Valida una transferencia entre cuentas.
+     *
+     * @param saldoOrigen saldo de la cuenta origen en centavos
+     * @param monto monto en centavos (0 si no viene)
+     */
+    static void validarTransferencia(long cOrigen, long cDestino, long estadoOrigen, long estadoDestino, long saldoOrigen, long monto) throws EntityNotFoundException, BusinessLogicException {
+        // 1. Verificar que las cuentas existen
+        if (estadoOrigen == NO_EXISTE) {
+            throw new EntityNotFoundException("La cuenta origen no existe");
+        }
+        if (estadoDestino == NO_EXISTE) {
+            throw new EntityNotFoundException("La cuenta destino no existe");
+        }
+
+        // 2. Verificar que las cuentas de origen y destino no sean la misma
+        if (cOrigen == cDestino) {
+            throw new BusinessLogicException("La cuenta origen y destino no pueden ser la misma");
+        }
+
+        // 3. Verificar que las cuentas estén activas
+        if (estadoOrigen != ACTIVA) {
+            throw new BusinessLogicException("La cuenta origen debe estar en estado ACTIVA para transferir a otra cuenta");
+        }
+        if (estadoDestino != ACTIVA) {
+            throw new BusinessLogicException("La cuenta destino debe estar en estado ACTIVA para recibir transferencias");
+        }
+
+        // 4. Verificar que el monto a transferir es positivo
+        if (monto <= 0) {
+            throw new BusinessLogicException("El monto a transferir debe ser positivo");
+        }
+
+        // 5. Verificar que la cuenta origen tiene saldo suficiente
+        if (saldoOrigen < monto) {
+            throw new InsufficientFundsException("La cuenta origen no tiene saldo suficiente para la transferencia");
+        }
+    }
+
+    /**
+     * Valida una transferencia de una cuenta a uno de sus bolsillos.
+     *
+     * @param pocketId id del bolsillo, o 0 si la cuenta no tiene un bolsillo con ese nombre
+     */
+    static void validarTransferenciaABolsillo(long estadoCuenta, long pocketId, long saldoCuenta, long monto) throws EntityNotFoundException, BusinessLogicException {
+        // 1. Verificar que la cuenta existe y está activa
+        if (estadoCuenta == NO_EXISTE) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        if (estadoCuenta != ACTIVA) {
+            throw new BusinessLogicException("La cuenta debe estar en estado ACTIVA para transferir a bolsillos");
+        }
+
+        // 2. Verificar que el bolsillo existe en esa cuenta
+        if (pocketId == 0) {
+            throw new EntityNotFoundException("El bolsillo no existe");
+        }
+
+        // 3. Verificar el monto y el saldo
+        if (monto <= 0) {
+            throw new BusinessLogicException("El monto a transferir debe ser positivo");
+        }
+        if (saldoCuenta < monto) {
+            throw new InsufficientFundsException("La cuenta no tiene saldo suficiente para la transferencia");
+        }
+    }
+}
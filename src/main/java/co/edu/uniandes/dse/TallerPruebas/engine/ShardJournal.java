@@ -0,0 +1,183 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Journal de solo escritura al final de un shard del motor en memoria.
+ *
+ * El journal se divide en segmentos (shard-N-S.journal). Los movimientos de
+ * un grupo de comandos se agregan y se confirman juntos con una sola
+ * escritura (y un fsync si sincronizar está activo); si la escritura falla el
+ * grupo se descarta truncando el segmento. Cuando el shard entrega sus
+ * movimientos pendientes a la escritura en la base de datos, el segmento se
+ * cierra y se empieza el siguiente; el segmento se borra después de que sus
+ * movimientos hacen commit.
+ *
+ * Cada movimiento ocupa 33 bytes en little-endian: id de la cuenta, id del
+ * bolsillo (0 si no hay), monto en centavos y fecha en milisegundos (long
+ * cada uno) y el tipo (1 ENTRADA, 2 SALIDA).
+ */
+final class ShardJournal implements AutoCloseable {
+
+    static final int TAMANO_REGISTRO = 33;
+
+    private static final byte ENTRADA = 1;
+    private static final byte SALIDA = 2;
+    private static final Pattern NOMBRE = Pattern.compile("shard-(\\d+)-(\\d+)\\.journal");
+
+    private final Path directorio;
+    private final int shard;
+    private final boolean sincronizar;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_REGISTRO * 4096).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel canal;
+    private long segmento;
+    private long inicioGrupo;
+
+    /**
+     * Segmento de un journal encontrado en el directorio.
+     */
+    record Segmento(int shard, long numero, Path archivo) {
+    }
+
+    ShardJournal(Path directorio, int shard, long primerSegmento, boolean sincronizar) throws IOException {
+        this.directorio = directorio;
+        this.shard = shard;
+        this.sincronizar = sincronizar;
+        abrir(primerSegmento);
+    }
+
+    long getSegmento() {
+        return segmento;
+    }
+
+    /**
+     * Agrega un movimiento al grupo actual. No es durable hasta confirmar().
+     */
+    void agregar(Movimiento movimiento) throws IOException {
+        if (buffer.remaining() < TAMANO_REGISTRO) {
+            vaciar();
+        }
+        buffer.putLong(movimiento.accountId())
+                .putLong(movimiento.pocketId())
+                .putLong(movimiento.montoCents())
+                .putLong(movimiento.fechaMillis())
+                .put(movimiento.entrada() ? ENTRADA : SALIDA);
+    }
+
+    /**
+     * Escribe los movimientos del grupo actual y, si sincronizar está activo,
+     * espera a que lleguen al disco.
+     */
+    void confirmar() throws IOException {
+        vaciar();
+        if (sincronizar) {
+            canal.force(false);
+        }
+        inicioGrupo = canal.position();
+    }
+
+    /**
+     * Descarta los movimientos del grupo actual, también los que ya se
+     * hubieran escrito al archivo.
+     */
+    void descartar() throws IOException {
+        buffer.clear();
+        canal.truncate(inicioGrupo);
+        canal.position(inicioGrupo);
+    }
+
+    /**
+     * @return true si el segmento actual no tiene movimientos confirmados
+     */
+    boolean vacio() {
+        return inicioGrupo == 0;
+    }
+
+    /**
+     * Cierra el segmento actual y empieza el siguiente.
+     *
+     * @return número del segmento cerrado
+     */
+    long rotar() throws IOException {
+        long cerrado = segmento;
+        canal.close();
+        abrir(segmento + 1);
+        return cerrado;
+    }
+
+    /**
+     * Cierra el journal. Si el segmento actual está vacío se borra.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+        if (vacio()) {
+            Files.deleteIfExists(archivo(directorio, shard, segmento));
+        }
+    }
+
+    private void abrir(long numero) throws IOException {
+        segmento = numero;
+        canal = FileChannel.open(archivo(directorio, shard, numero), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        inicioGrupo = 0;
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static Path archivo(Path directorio, int shard, long segmento) {
+        return directorio.resolve("shard-" + shard + "-" + segmento + ".journal");
+    }
+
+    /**
+     * @return los segmentos del directorio, en orden de shard y de número
+     */
+    static List<Segmento> segmentos(Path directorio) throws IOException {
+        List<Segmento> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "shard-*.journal")) {
+            for (Path archivo : archivos) {
+                Matcher nombre = NOMBRE.matcher(archivo.getFileName().toString());
+                if (nombre.matches()) {
+                    segmentos.add(new Segmento(Integer.parseInt(nombre.group(1)), Long.parseLong(nombre.group(2)), archivo));
+                }
+            }
+        }
+        segmentos.sort(Comparator.comparingInt(Segmento::shard).thenComparingLong(Segmento::numero));
+        return segmentos;
+    }
+
+    /**
+     * Lee los movimientos de un segmento. Un registro incompleto al final (una
+     * escritura interrumpida por una caída, que nunca se confirmó) se ignora.
+     */
+    static List<Movimiento> leer(Path archivo) throws IOException {
+        ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(archivo)).order(ByteOrder.LITTLE_ENDIAN);
+        List<Movimiento> movimientos = new ArrayList<>(contenido.remaining() / TAMANO_REGISTRO);
+        while (contenido.remaining() >= TAMANO_REGISTRO) {
+            long accountId = contenido.getLong();
+            long pocketId = contenido.getLong();
+            long monto = contenido.getLong();
+            long fecha = contenido.getLong();
+            movimientos.add(new Movimiento(accountId, pocketId, monto, contenido.get() == ENTRADA, fecha));
+        }
+        return movimientos;
+    }
+}
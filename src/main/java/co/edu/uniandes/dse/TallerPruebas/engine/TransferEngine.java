@@ -0,0 +1,40 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+
+/**
+ * Motor alterno de transferencias, elegido con transfer.engine. Si hay uno,
+ * TransactionService le delega las transferencias entre cuentas y a bolsillos
+ * en vez de aplicarlas con JPA; las validaciones y los mensajes de error son
+ * los mismos.
+ */
+public interface TransferEngine {
+
+    /**
+     * Saldos de una cuenta y de su bolsillo después de una transferencia.
+     */
+    record SaldosBolsillo(Money cuenta, Money bolsillo) {
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas.
+     *
+     * @return nuevo saldo de la cuenta origen
+     */
+    Money transferir(Long cOrigen, Long cDestino, Money monto) throws EntityNotFoundException, BusinessLogicException;
+
+    /**
+     * Transfiere dinero de una cuenta a uno de sus bolsillos.
+     *
+     * @param pocketId id del bolsillo, o null si la cuenta no tiene un bolsillo con ese nombre
+     * @param saldoBolsillo saldo del bolsillo leído de la base de datos
+     */
+    SaldosBolsillo transferirABolsillo(Long accountId, Long pocketId, Money saldoBolsillo, Money monto) throws EntityNotFoundException, BusinessLogicException;
+
+    /**
+     * Aplica a la base de datos todas las transferencias hechas hasta ahora.
+     */
+    void sincronizar();
+}
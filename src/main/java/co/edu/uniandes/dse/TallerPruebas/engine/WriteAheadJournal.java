@@ -0,0 +1,209 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hilo escritor del journal de JournaledTransferEngine, con commit en grupo.
+ *
+ * Las transferencias envían sus movimientos a la cola y esperan. El hilo toma
+ * de la cola todas las que haya (hasta TAMANO_GRUPO), escribe sus movimientos
+ * con una sola escritura y un solo fsync, y solo entonces responde a cada una
+ * con el número del segmento donde quedaron. Así el costo del fsync se reparte
+ * entre todas las transferencias que llegaron mientras se hacía el anterior.
+ * Si la escritura falla el grupo se descarta y sus transferencias fallan.
+ *
+ * Cada cierto tiempo o número de movimientos el segmento se cierra y se
+ * entrega al escritor, que lo aplica a la base de datos en segundo plano.
+ */
+@Slf4j
+final class WriteAheadJournal implements Runnable {
+
+    private static final int TAMANO_GRUPO = 1024;
+
+    private record Entrada(List<Movimiento> movimientos, CompletableFuture<Long> segmento) {
+    }
+
+    private final JournaledTransferEngine motor;
+    private final ShardJournal journal;
+    private final ExecutorService escritor;
+    private final BlockingQueue<Runnable> cola;
+    private final int tamanoVolcado;
+    private final long intervaloVolcadoNanos;
+
+    // NOTE: Estado del grupo en curso; solo lo usa el hilo del journal
+    private final List<Entrada> grupo = new ArrayList<>();
+
+    private List<Movimiento> pendientes = new ArrayList<>();
+    private CompletableFuture<Void> escrituraAnterior = CompletableFuture.completedFuture(null);
+    private long proximoVolcado;
+    private boolean fallido;
+    private volatile boolean detenido;
+
+    WriteAheadJournal(JournaledTransferEngine motor, ShardJournal journal, ExecutorService escritor, int capacidadCola,
+            int tamanoVolcado, long intervaloVolcadoNanos) {
+        this.motor = motor;
+        this.journal = journal;
+        this.escritor = escritor;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.tamanoVolcado = tamanoVolcado;
+        this.intervaloVolcadoNanos = intervaloVolcadoNanos;
+    }
+
+    /**
+     * Envía movimientos al journal. Si la cola está llena, quien envía espera.
+     * El futuro se completa con el número del segmento cuando los movimientos
+     * ya están en el disco.
+     */
+    CompletableFuture<Long> agregar(List<Movimiento> movimientos) {
+        CompletableFuture<Long> futuro = new CompletableFuture<>();
+        encolar(() -> {
+            if (fallido) {
+                futuro.completeExceptionally(new IllegalStateException("El journal de transferencias no está disponible"));
+            } else {
+                grupo.add(new Entrada(movimientos, futuro));
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * Entrega al escritor los movimientos pendientes. El futuro se completa
+     * cuando ya están en la base de datos.
+     */
+    CompletableFuture<Void> sincronizar() {
+        CompletableFuture<Void> futuro = new CompletableFuture<>();
+        encolar(() -> {
+            volcar();
+            escrituraAnterior.whenComplete((r, e) -> futuro.complete(null));
+        });
+        return futuro;
+    }
+
+    /**
+     * Pide al hilo del journal que termine después de entregar sus movimientos
+     * pendientes al escritor.
+     */
+    void detener() {
+        encolar(() -> detenido = true);
+    }
+
+    private void encolar(Runnable comando) {
+        // NOTE: Igual que en AccountShard, el envío no se abandona si el hilo se interrumpe
+        boolean interrumpido = false;
+        while (true) {
+            try {
+                cola.put(comando);
+                break;
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<Runnable> comandos = new ArrayList<>(TAMANO_GRUPO);
+        proximoVolcado = System.nanoTime() + intervaloVolcadoNanos;
+        try {
+            while (!detenido) {
+                long espera = Math.max(1, proximoVolcado - System.nanoTime());
+                Runnable primero = cola.poll(espera, TimeUnit.NANOSECONDS);
+                if (primero != null) {
+                    comandos.add(primero);
+                    cola.drainTo(comandos, TAMANO_GRUPO - 1);
+                }
+                escribirGrupo(comandos);
+                if (pendientes.size() >= tamanoVolcado || System.nanoTime() >= proximoVolcado) {
+                    volcar();
+                }
+            }
+            cola.drainTo(comandos);
+            escribirGrupo(comandos);
+            volcar();
+            escrituraAnterior.join();
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("No se pudo cerrar el journal de transferencias", e);
+        }
+        log.info("Termina el journal de transferencias");
+    }
+
+    private void escribirGrupo(List<Runnable> comandos) {
+        for (Runnable comando : comandos) {
+            comando.run();
+        }
+        comandos.clear();
+        if (grupo.isEmpty()) {
+            return;
+        }
+        try {
+            // 1. Escribir los movimientos de todo el grupo y hacer un solo fsync
+            for (Entrada entrada : grupo) {
+                for (Movimiento movimiento : entrada.movimientos()) {
+                    journal.agregar(movimiento);
+                }
+            }
+            journal.confirmar();
+
+            // 2. Responder a cada transferencia con el segmento donde quedó
+            long segmento = journal.getSegmento();
+            for (Entrada entrada : grupo) {
+                pendientes.addAll(entrada.movimientos());
+                entrada.segmento().complete(segmento);
+            }
+        } catch (IOException e) {
+            log.error("No se pudo escribir el journal de transferencias; se descartan {} transferencias", grupo.size(), e);
+            descartarGrupo();
+            IllegalStateException error = new IllegalStateException("No se pudo escribir el journal de transferencias", e);
+            grupo.forEach(entrada -> entrada.segmento().completeExceptionally(error));
+        }
+        grupo.clear();
+    }
+
+    private void descartarGrupo() {
+        try {
+            journal.descartar();
+        } catch (IOException e) {
+            // NOTE: Si no se puede truncar el segmento, recuperarlo aplicaría transferencias que fallaron; el journal deja de aceptarlas
+            log.error("No se pudo descartar el grupo del journal de transferencias; el journal queda fuera de servicio", e);
+            fallido = true;
+        }
+    }
+
+    /**
+     * Cierra el segmento actual y lo entrega al escritor. Si la escritura
+     * anterior no ha terminado se espera, como en AccountShard.
+     */
+    private void volcar() {
+        proximoVolcado = System.nanoTime() + intervaloVolcadoNanos;
+        if (pendientes.isEmpty() || fallido) {
+            return;
+        }
+        escrituraAnterior.join();
+        long segmento;
+        try {
+            segmento = journal.rotar();
+        } catch (IOException e) {
+            log.error("No se pudo rotar el journal de transferencias; el journal queda fuera de servicio", e);
+            fallido = true;
+            return;
+        }
+        List<Movimiento> lote = pendientes;
+        pendientes = new ArrayList<>();
+        escrituraAnterior = CompletableFuture.runAsync(() -> motor.aplicarSegmento(segmento, lote), escritor);
+    }
+}
@@ -5,32 +5,58 @@ import java.util.List;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
+import co.edu.uniandes.dse.TallerPruebas.podam.MoneyStrategy;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import uk.co.jemos.podam.common.PodamExclude;
+import uk.co.jemos.podam.common.PodamStrategyValue;
 
 /**
  * Clase que representa una cuenta en la persistencia
  */
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_account_numero_cuenta", columnList = "numero_cuenta"))
 public class AccountEntity extends BaseEntity {
 
     private String numeroCuenta;
-    private Double saldo;
+
+    @PodamStrategyValue(MoneyStrategy.class)
+    private Money saldo;
+
     private String estado; // ACTIVA, BLOQUEADA
 
+    // NOTE: Número de franjas entre las que se reparten los créditos de la cuenta; null si no las usa (ver BalanceStripeEntity)
+    @PodamExclude
+    private Integer franjasSaldo;
+
+    @PodamExclude
+    @Version
+    private Long version;
+
     @PodamExclude
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity user;
 
     @PodamExclude
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PocketEntity> pockets = new ArrayList<>();
 
     @PodamExclude
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TransactionEntity> transactions = new ArrayList<>();
 }
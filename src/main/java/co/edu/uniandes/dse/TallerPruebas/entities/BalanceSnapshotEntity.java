@@ -0,0 +1,42 @@
+package co.edu.uniandes.dse.TallerPruebas.entities;
+
+import java.util.Date;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+import co.edu.uniandes.dse.TallerPruebas.podam.MoneyStrategy;
+import lombok.Data;
+import uk.co.jemos.podam.common.PodamStrategyValue;
+
+/**
+ * Clase que representa en la persistencia una foto del saldo de una cuenta:
+ * el saldo que tenía la cuenta cuando su último movimiento en el libro
+ * contable era ultimoMovimientoId. El saldo en cualquier momento posterior se
+ * obtiene sumando a la foto solo los movimientos con id mayor.
+ *
+ * Guarda el id de la cuenta y no una relación, para que las fotos no impidan
+ * borrar cuentas. Igual que los movimientos, las fotos no se modifican.
+ */
+@Data
+@Entity
+@Immutable
+@Table(indexes = @Index(name = "idx_balance_snapshot_account_fecha", columnList = "account_id, fecha"))
+public class BalanceSnapshotEntity extends BaseEntity {
+
+    private Long accountId;
+
+    @PodamStrategyValue(MoneyStrategy.class)
+    private Money saldo;
+
+    // NOTE: 0 si la cuenta no tenía movimientos cuando se tomó la foto
+    private Long ultimoMovimientoId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fecha;
+}
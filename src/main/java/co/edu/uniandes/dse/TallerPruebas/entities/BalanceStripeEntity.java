@@ -0,0 +1,33 @@
+package co.edu.uniandes.dse.TallerPruebas.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import co.edu.uniandes.dse.TallerPruebas.podam.MoneyStrategy;
+import lombok.Data;
+import uk.co.jemos.podam.common.PodamStrategyValue;
+
+/**
+ * Clase que representa en la persistencia una franja del saldo de una cuenta.
+ * Las cuentas que reciben muchos créditos a la vez reparten los créditos entre
+ * sus franjas en vez de sumarlos a la fila de la cuenta, así que los créditos
+ * concurrentes no esperan por la misma fila. El saldo de la cuenta es el saldo
+ * de su fila más el de todas sus franjas; un proceso periódico pasa el saldo
+ * de las franjas a la fila.
+ *
+ * Guarda el id de la cuenta y no una relación, igual que las fotos de saldo
+ */
+@Data
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_balance_stripe_account_franja", columnNames = { "account_id", "franja" }))
+public class BalanceStripeEntity extends BaseEntity {
+
+    private Long accountId;
+
+    // NOTE: Número de la franja dentro de su cuenta, de 0 a franjasSaldo - 1
+    private Integer franja;
+
+    @PodamStrategyValue(MoneyStrategy.class)
+    private Money saldo;
+}
@@ -34,7 +34,8 @@ import uk.co.jemos.podam.common.PodamExclude;
 
 /**
  * Entidad genérica de la que heredan todas las entidades. Contiene la
- * referencia al atributo id
+ * referencia al atributo id. Los ids salen de una secuencia por entidad
+ * (con asignación por bloques), lo que permite agrupar los INSERT en batches
  *
  * @author ISIS2603
  */
@@ -45,6 +46,6 @@ public abstract class BaseEntity {
 
 	@PodamExclude
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
 	private Long id;
 }
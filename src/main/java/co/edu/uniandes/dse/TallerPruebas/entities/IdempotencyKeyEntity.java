@@ -0,0 +1,34 @@
+package co.edu.uniandes.dse.TallerPruebas.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Data;
+
+/**
+ * Clase que representa en la persistencia una clave de idempotencia ya usada
+ * por una transferencia exitosa, con la solicitud a la que corresponde y la
+ * respuesta que se le dio
+ */
+@Data
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_key_clave", columnNames = "clave"))
+public class IdempotencyKeyEntity extends BaseEntity {
+
+    private String clave;
+
+    @Column(length = 1000)
+    private String solicitud;
+
+    @Column(length = 1000)
+    private String resultado;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fecha;
+}
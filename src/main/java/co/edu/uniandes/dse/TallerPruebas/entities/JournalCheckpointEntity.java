@@ -0,0 +1,23 @@
+package co.edu.uniandes.dse.TallerPruebas.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Data;
+
+/**
+ * Clase que representa en la persistencia hasta qué segmento de un journal
+ * local ya se aplicaron los movimientos a la base de datos. Se actualiza en la
+ * misma transacción que aplica el segmento, así que al recuperarse después de
+ * una caída ningún segmento se aplica dos veces
+ */
+@Data
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_journal_checkpoint_nombre", columnNames = "nombre"))
+public class JournalCheckpointEntity extends BaseEntity {
+
+    private String nombre;
+
+    private Long segmento;
+}
@@ -0,0 +1,102 @@
+package co.edu.uniandes.dse.TallerPruebas.entities;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Valor monetario exacto. Se representa como un long de centavos (unidades
+ * menores), de modo que comparar y operar montos no requiere aritmética de
+ * punto flotante ni BigDecimal, y las sumas de muchos montos son exactas. Es
+ * inmutable: plus y minus crean un Money nuevo en cada llamada (salvo cuando el
+ * resultado es cero), así que para acumular muchos montos en un ciclo caliente
+ * conviene sumar getCents() en un long.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DECIMALES = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Crea un monto a partir de su valor en centavos.
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Crea un monto a partir de su valor decimal, redondeado a centavos.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal valor) {
+        return ofCents(valor.setScale(DECIMALES, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Crea un monto a partir de su valor decimal, redondeado a centavos.
+     */
+    public static Money of(double valor) {
+        return of(BigDecimal.valueOf(valor));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money otro) {
+        return ofCents(Math.addExact(cents, otro.cents));
+    }
+
+    public Money minus(Money otro) {
+        return ofCents(Math.subtractExact(cents, otro.cents));
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isLessThan(Money otro) {
+        return cents < otro.cents;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, DECIMALES);
+    }
+
+    @Override
+    public int compareTo(Money otro) {
+        return Long.compare(cents, otro.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money otro && cents == otro.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,26 @@
+package co.edu.uniandes.dse.TallerPruebas.entities;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda los atributos de tipo Money como una columna BIGINT con el valor en
+ * centavos. Se aplica automáticamente a todos los atributos Money. Money es
+ * inmutable, así que Hibernate no necesita copiarlo para detectar cambios.
+ */
+@Immutable
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money monto) {
+        return monto == null ? null : monto.getCents();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long cents) {
+        return cents == null ? null : Money.ofCents(cents);
+    }
+}
@@ -1,23 +1,41 @@
 package co.edu.uniandes.dse.TallerPruebas.entities;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
+import co.edu.uniandes.dse.TallerPruebas.podam.MoneyStrategy;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import uk.co.jemos.podam.common.PodamExclude;
+import uk.co.jemos.podam.common.PodamStrategyValue;
 
 /**
  * Clase que representa un bolsillo en la persistencia
  */
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_pocket_account_nombre", columnNames = { "account_id", "nombre" }))
 public class PocketEntity extends BaseEntity {
 
     private String nombre;
-    private Double saldo;
-    private Double metaAhorro;
+
+    @PodamStrategyValue(MoneyStrategy.class)
+    private Money saldo;
+
+    @PodamStrategyValue(MoneyStrategy.class)
+    private Money metaAhorro;
+
+    // NOTE: Saldo con el que se creó el bolsillo, sin movimiento en el libro contable; la conciliación lo toma como su primera foto
+    @PodamExclude
+    private Money saldoInicial;
 
     @PodamExclude
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountEntity account;
 }
@@ -2,22 +2,36 @@ package co.edu.uniandes.dse.TallerPruebas.entities;
 
 import java.util.Date;
 
+import org.hibernate.annotations.Immutable;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 
+import co.edu.uniandes.dse.TallerPruebas.podam.MoneyStrategy;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import uk.co.jemos.podam.common.PodamExclude;
+import uk.co.jemos.podam.common.PodamStrategyValue;
 
 /**
- * Clase que representa una transacción en la persistencia
+ * Clase que representa una transacción en la persistencia. Las transacciones
+ * forman un libro contable de solo inserción: una vez creadas no se modifican
  */
 @Data
 @Entity
+@Immutable
+@Table(indexes = { @Index(name = "idx_transaction_account_fecha", columnList = "account_id, fecha, id"),
+        @Index(name = "idx_transaction_account_id", columnList = "account_id, id") })
 public class TransactionEntity extends BaseEntity {
 
-    private Double monto;
+    @PodamStrategyValue(MoneyStrategy.class)
+    private Money monto;
     
     @Temporal(TemporalType.TIMESTAMP)
     private Date fecha;
@@ -25,6 +39,15 @@ public class TransactionEntity extends BaseEntity {
     private String tipo; // ENTRADA, SALIDA
 
     @PodamExclude
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountEntity account;
+
+    // Bolsillo hacia el que se movió el dinero, solo en transferencias a bolsillos
+    @PodamExclude
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    private PocketEntity pocket;
 }
@@ -5,9 +5,13 @@ import java.util.List;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import uk.co.jemos.podam.common.PodamExclude;
 
 /**
@@ -15,6 +19,7 @@ import uk.co.jemos.podam.common.PodamExclude;
  */
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_user_login", columnList = "login"))
 public class UserEntity extends BaseEntity {
 
     private String name;
@@ -23,6 +28,8 @@ public class UserEntity extends BaseEntity {
     private String cedula;
 
     @PodamExclude
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<AccountEntity> accounts = new ArrayList<>();
 }
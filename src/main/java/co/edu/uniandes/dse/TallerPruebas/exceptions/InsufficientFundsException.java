@@ -0,0 +1,13 @@
+package co.edu.uniandes.dse.TallerPruebas.exceptions;
+
+/*
+ * Excepción que se lanza cuando una cuenta no tiene saldo suficiente para una operación
+ */
+public class InsufficientFundsException extends BusinessLogicException {
+
+	private static final long serialVersionUID = 1L;
+
+	public InsufficientFundsException(String message) {
+		super(message);
+	}
+}
@@ -2,6 +2,9 @@ package co.edu.uniandes.dse.TallerPruebas.exceptions;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -42,6 +45,36 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return buildResponseEntity(apiError);
     }
 
+    /**
+     * Handles BusinessLogicException.
+     *
+     * @param ex the BusinessLogicException
+     * @return the ApiError object
+     */
+    @ExceptionHandler(BusinessLogicException.class)
+    protected ResponseEntity<Object> handleBusinessLogic(
+    		BusinessLogicException ex) {
+        ApiError apiError = new ApiError(PRECONDITION_FAILED);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    /**
+     * Handles RejectedExecutionException, thrown when a worker pool (for example
+     * the one of ReactiveTransferService) has no room for another operation.
+     * The client may retry later.
+     *
+     * @param ex the RejectedExecutionException
+     * @return the ApiError object
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    protected ResponseEntity<Object> handleRejectedExecution(
+    		RejectedExecutionException ex) {
+        ApiError apiError = new ApiError(SERVICE_UNAVAILABLE);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
     private ResponseEntity<Object> buildResponseEntity(ApiError apiError) {
         return new ResponseEntity<>(apiError, apiError.getStatus());
     }
@@ -0,0 +1,38 @@
+package co.edu.uniandes.dse.TallerPruebas.jobs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.services.BalanceSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tarea periódica que toma las fotos de saldo de todas las cuentas. Recorre
+ * las cuentas por bloques, cada uno en su propia transacción, para no mantener
+ * una transacción abierta durante todo el recorrido.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ledger.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceSnapshotJob {
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Value("${ledger.snapshot.batch-size:1000}")
+    private int tamanoBloque;
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval:PT1H}", initialDelayString = "${ledger.snapshot.interval:PT1H}")
+    public void tomarFotos() {
+        long inicio = System.nanoTime();
+        Long ultimaCuenta = 0L;
+        int bloques = 0;
+        while ((ultimaCuenta = balanceSnapshotService.tomarFotos(ultimaCuenta, tamanoBloque)) != null) {
+            bloques++;
+        }
+        log.info("Fotos de saldo tomadas en {} bloques en {} ms", bloques, (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
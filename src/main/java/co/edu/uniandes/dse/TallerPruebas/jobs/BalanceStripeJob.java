@@ -0,0 +1,44 @@
+package co.edu.uniandes.dse.TallerPruebas.jobs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.services.BalanceStripeService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tarea periódica que pasa el saldo de las franjas de cada cuenta con franjas
+ * a la fila de la cuenta. Cada cuenta se pliega en su propia transacción, que
+ * solo espera a los créditos en curso sobre sus franjas.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transfer.stripes.fold.enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceStripeJob {
+
+    @Autowired
+    private BalanceStripeService balanceStripeService;
+
+    @Scheduled(fixedDelayString = "${transfer.stripes.fold-interval:PT10S}", initialDelayString = "${transfer.stripes.fold-interval:PT10S}")
+    public void plegar() {
+        // NOTE: Se refresca el registro de cuentas con franjas para ver las que se activaron en otras instancias
+        balanceStripeService.refrescar();
+        int plegadas = 0;
+        for (Long accountId : balanceStripeService.getCuentasConFranjas()) {
+            try {
+                if (balanceStripeService.plegar(accountId).isPositive()) {
+                    plegadas++;
+                }
+            } catch (ConcurrencyFailureException e) {
+                // NOTE: Si las franjas o la cuenta siguen bloqueadas, la cuenta se pliega en la siguiente ejecución
+                log.warn("No se pudieron plegar las franjas de la cuenta con id = {}: {}", accountId, e.getMessage());
+            }
+        }
+        if (plegadas > 0) {
+            log.debug("Franjas de saldo plegadas en {} cuentas", plegadas);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package co.edu.uniandes.dse.TallerPruebas.jobs;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.services.ImportKind;
+import co.edu.uniandes.dse.TallerPruebas.services.ImportService;
+
+/**
+ * Importa un archivo al arrancar la aplicación, por ejemplo con
+ * --import.file=usuarios.csv --import.type=USUARIOS. El resumen queda en el
+ * log y las filas rechazadas en el reporte de errores.
+ */
+@Component
+@ConditionalOnProperty(name = "import.file")
+public class ImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private ImportService importService;
+
+    @Value("${import.file}")
+    private String archivo;
+
+    @Value("${import.type}")
+    private ImportKind tipo;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        importService.importar(tipo, Path.of(archivo));
+    }
+}
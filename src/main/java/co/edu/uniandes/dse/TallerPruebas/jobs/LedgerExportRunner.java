@@ -0,0 +1,32 @@
+package co.edu.uniandes.dse.TallerPruebas.jobs;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.services.LedgerExportService;
+
+/**
+ * Exporta el libro contable al arrancar la aplicación, por ejemplo con
+ * --ledger.export.file=libro.bin. El resumen queda en el log.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.export.file")
+public class LedgerExportRunner implements ApplicationRunner {
+
+    @Autowired
+    private LedgerExportService ledgerExportService;
+
+    @Value("${ledger.export.file}")
+    private String archivo;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ledgerExportService.exportar(Path.of(archivo));
+    }
+}
@@ -0,0 +1,34 @@
+package co.edu.uniandes.dse.TallerPruebas.jobs;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.services.ReconciliationService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tarea programada que concilia los saldos de todas las cuentas contra los
+ * bolsillos y el libro contable. El progreso y el resumen quedan en el log y
+ * las discrepancias en el reporte CSV.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class ReconciliationJob {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Scheduled(cron = "${reconciliation.cron:0 0 3 * * *}")
+    public void conciliar() {
+        try {
+            reconciliationService.conciliar();
+        } catch (IOException e) {
+            log.error("No se pudo escribir el reporte de la conciliación", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package co.edu.uniandes.dse.TallerPruebas.mappers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountDetailDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.PocketDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransactionDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.UserDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.UserDetailDTO;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+
+/**
+ * Conversión entre entidades y DTOs escrita a mano, para los endpoints en los
+ * que el mapeo por reflexión de ModelMapper es un costo visible (por ejemplo
+ * las páginas del extracto).
+ *
+ * Solo se leen las asociaciones que el DTO incluye: los DTOs de detalle
+ * esperan que el servicio haya cargado la colección correspondiente. Al
+ * agregar un atributo a un DTO hay que agregarlo también aquí.
+ */
+@Component
+public class DtoMapper {
+
+    public AccountDTO toAccountDTO(AccountEntity entity) {
+        AccountDTO dto = new AccountDTO();
+        copiarCuenta(entity, dto);
+        return dto;
+    }
+
+    public AccountDetailDTO toAccountDetailDTO(AccountEntity entity) {
+        AccountDetailDTO dto = new AccountDetailDTO();
+        copiarCuenta(entity, dto);
+        dto.setPockets(toPocketDTOs(entity.getPockets()));
+        return dto;
+    }
+
+    public PocketDTO toPocketDTO(PocketEntity entity) {
+        PocketDTO dto = new PocketDTO();
+        dto.setId(entity.getId());
+        dto.setNombre(entity.getNombre());
+        dto.setSaldo(entity.getSaldo());
+        dto.setMetaAhorro(entity.getMetaAhorro());
+        return dto;
+    }
+
+    public List<PocketDTO> toPocketDTOs(List<PocketEntity> entities) {
+        List<PocketDTO> dtos = new ArrayList<>(entities.size());
+        for (PocketEntity entity : entities) {
+            dtos.add(toPocketDTO(entity));
+        }
+        return dtos;
+    }
+
+    public PocketEntity toPocketEntity(PocketDTO dto) {
+        PocketEntity entity = new PocketEntity();
+        entity.setId(dto.getId());
+        entity.setNombre(dto.getNombre());
+        entity.setSaldo(dto.getSaldo());
+        entity.setMetaAhorro(dto.getMetaAhorro());
+        return entity;
+    }
+
+    public TransactionDTO toTransactionDTO(TransactionEntity entity) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setId(entity.getId());
+        dto.setMonto(entity.getMonto());
+        dto.setFecha(entity.getFecha());
+        dto.setTipo(entity.getTipo());
+        return dto;
+    }
+
+    public List<TransactionDTO> toTransactionDTOs(List<TransactionEntity> entities) {
+        List<TransactionDTO> dtos = new ArrayList<>(entities.size());
+        for (TransactionEntity entity : entities) {
+            dtos.add(toTransactionDTO(entity));
+        }
+        return dtos;
+    }
+
+    public UserDTO toUserDTO(UserEntity entity) {
+        UserDTO dto = new UserDTO();
+        copiarUsuario(entity, dto);
+        return dto;
+    }
+
+    public UserDetailDTO toUserDetailDTO(UserEntity entity) {
+        UserDetailDTO dto = new UserDetailDTO();
+        copiarUsuario(entity, dto);
+        List<AccountDTO> accounts = new ArrayList<>(entity.getAccounts().size());
+        for (AccountEntity account : entity.getAccounts()) {
+            accounts.add(toAccountDTO(account));
+        }
+        dto.setAccounts(accounts);
+        return dto;
+    }
+
+    private void copiarCuenta(AccountEntity entity, AccountDTO dto) {
+        dto.setId(entity.getId());
+        dto.setNumeroCuenta(entity.getNumeroCuenta());
+        dto.setSaldo(entity.getSaldo());
+        dto.setEstado(entity.getEstado());
+    }
+
+    private void copiarUsuario(UserEntity entity, UserDTO dto) {
+        dto.setId(entity.getId());
+        dto.setName(entity.getName());
+        dto.setEmail(entity.getEmail());
+        dto.setLogin(entity.getLogin());
+        dto.setCedula(entity.getCedula());
+    }
+}
@@ -0,0 +1,177 @@
+package co.edu.uniandes.dse.TallerPruebas.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.services.Operacion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Métricas y log de las operaciones de los servicios. Las métricas se
+ * publican en /actuator/prometheus:
+ *
+ * - bank.operations: timer (con histograma) por operación y resultado.
+ * - bank.operation.statements: sentencias SQL por llamada.
+ * - bank.transfers.amount: centavos transferidos con éxito.
+ * - bank.transfers.in_flight: transferencias en curso.
+ *
+ * Cada operación escribe una sola línea de log al terminar, con su resultado
+ * y duración, muestreada según transfer.log.sample-every. Mientras la
+ * operación se ejecuta el MDC lleva su id y las cuentas involucradas, que el
+ * perfil structured escribe como campos JSON.
+ */
+@Slf4j
+@Component
+public class OperationMetrics {
+
+    public static final String TRANSFERIR_A_BOLSILLO = "transferirABolsillo";
+    public static final String TRANSFERIR_A_CUENTA = "transferirACuenta";
+    public static final String CREATE_POCKET = "createPocket";
+
+    private static final String EXITO = "success";
+    private static final String NO_ENCONTRADO = "not_found";
+    private static final String ERROR_DE_NEGOCIO = "business_error";
+    private static final String SALDO_INSUFICIENTE = "insufficient_funds";
+    private static final String ERROR = "error";
+
+    public static final String MDC_OPERACION_ID = "operacionId";
+    public static final String MDC_CUENTA = "cuenta";
+    public static final String MDC_DESTINO = "destino";
+    public static final String MDC_DURACION = "duracionMicros";
+
+    private final MeterRegistry registry;
+
+    private final AtomicInteger transferenciasEnCurso = new AtomicInteger();
+
+    // NOTE: Los medidores se registran una vez y se reutilizan; el builder busca en el registro en cada llamada
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> sentencias = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> montos = new ConcurrentHashMap<>();
+
+    private final int muestreoLog;
+
+    // NOTE: Sin Actuator (por ejemplo en las pruebas de los servicios) las métricas se registran en memoria
+    public OperationMetrics(ObjectProvider<MeterRegistry> registry, @Value("${transfer.log.sample-every:1}") int muestreoLog) {
+        this.registry = registry.getIfAvailable(SimpleMeterRegistry::new);
+        this.muestreoLog = Math.max(1, muestreoLog);
+        Gauge.builder("bank.transfers.in_flight", transferenciasEnCurso, AtomicInteger::get)
+                .description("Transferencias en curso")
+                .register(this.registry);
+    }
+
+    /**
+     * Ejecuta y mide una transferencia. Además del timer, cuenta la
+     * transferencia como en curso mientras se ejecuta y, si termina con éxito,
+     * suma el monto transferido.
+     */
+    public <T> T medirTransferencia(String operacion, Long cuenta, Object destino, Money monto, Operacion<T> transferencia) throws EntityNotFoundException, BusinessLogicException {
+        transferenciasEnCurso.incrementAndGet();
+        try {
+            T resultado = medir(operacion, cuenta, destino, transferencia);
+            montos.computeIfAbsent(operacion, o -> Counter.builder("bank.transfers.amount")
+                    .baseUnit("cents")
+                    .tag("operation", o)
+                    .register(registry))
+                    .increment(monto.getCents());
+            return resultado;
+        } finally {
+            transferenciasEnCurso.decrementAndGet();
+        }
+    }
+
+    /**
+     * Ejecuta una operación registrando su duración, su resultado y el número
+     * de sentencias SQL que envió.
+     *
+     * @param cuenta cuenta sobre la que se hace la operación
+     * @param destino cuenta o bolsillo destino de la operación
+     */
+    public <T> T medir(String operacion, Long cuenta, Object destino, Operacion<T> ejecucion) throws EntityNotFoundException, BusinessLogicException {
+        // NOTE: El id no necesita ser único globalmente, solo permitir correlacionar las líneas de una operación
+        MDC.put(MDC_OPERACION_ID, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        MDC.put(MDC_CUENTA, String.valueOf(cuenta));
+        MDC.put(MDC_DESTINO, String.valueOf(destino));
+        long sentenciasAntes = QueryCountInspector.getSentencias();
+        long inicio = System.nanoTime();
+        String resultado = ERROR;
+        Throwable inesperada = null;
+        try {
+            T valor = ejecucion.ejecutar();
+            resultado = EXITO;
+            return valor;
+        } catch (InsufficientFundsException e) {
+            resultado = SALDO_INSUFICIENTE;
+            throw e;
+        } catch (BusinessLogicException e) {
+            resultado = ERROR_DE_NEGOCIO;
+            throw e;
+        } catch (EntityNotFoundException e) {
+            resultado = NO_ENCONTRADO;
+            throw e;
+        } catch (RuntimeException | Error e) {
+            inesperada = e;
+            throw e;
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            timer(operacion, resultado).record(duracion, TimeUnit.NANOSECONDS);
+            sentencias.computeIfAbsent(operacion, o -> DistributionSummary.builder("bank.operation.statements")
+                    .tag("operation", o)
+                    .register(registry))
+                    .record(QueryCountInspector.getSentencias() - sentenciasAntes);
+            registrarLog(operacion, resultado, duracion, inesperada);
+            MDC.remove(MDC_OPERACION_ID);
+            MDC.remove(MDC_CUENTA);
+            MDC.remove(MDC_DESTINO);
+        }
+    }
+
+    private Timer timer(String operacion, String resultado) {
+        return timers.computeIfAbsent(operacion + ":" + resultado, k -> Timer.builder("bank.operations")
+                .tag("operation", operacion)
+                .tag("outcome", resultado)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    /**
+     * Escribe la línea de log de una operación terminada. Las excepciones no
+     * esperadas siempre se registran, con su stack trace; el resto se muestrea.
+     *
+     * @param inesperada excepción no esperada con que terminó la operación, o null
+     */
+    private void registrarLog(String operacion, String resultado, long duracion, Throwable inesperada) {
+        boolean muestreada = muestreoLog == 1 || ThreadLocalRandom.current().nextInt(muestreoLog) == 0;
+        if (!ERROR.equals(resultado) && !(muestreada && log.isInfoEnabled())) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(duracion);
+        MDC.put(MDC_DURACION, Long.toString(micros));
+        try {
+            if (ERROR.equals(resultado)) {
+                log.warn("{} {} cuenta={} destino={} {}us", operacion, resultado, MDC.get(MDC_CUENTA), MDC.get(MDC_DESTINO), micros, inesperada);
+            } else {
+                log.info("{} {} cuenta={} destino={} {}us", operacion, resultado, MDC.get(MDC_CUENTA), MDC.get(MDC_DESTINO), micros);
+            }
+        } finally {
+            MDC.remove(MDC_DURACION);
+        }
+    }
+}
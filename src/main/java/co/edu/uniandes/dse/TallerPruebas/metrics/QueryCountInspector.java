@@ -0,0 +1,29 @@
+package co.edu.uniandes.dse.TallerPruebas.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate envía a la base de datos desde cada
+ * hilo. Se registra con la propiedad
+ * hibernate.session_factory.statement_inspector.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    // NOTE: Un contador por hilo: cada operación corre completa en el hilo que la llama
+    private static final ThreadLocal<long[]> SENTENCIAS = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return número de sentencias enviadas desde el hilo actual desde que arrancó
+     */
+    public static long getSentencias() {
+        return SENTENCIAS.get()[0];
+    }
+}
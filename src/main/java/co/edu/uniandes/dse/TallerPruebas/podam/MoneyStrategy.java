@@ -0,0 +1,17 @@
+package co.edu.uniandes.dse.TallerPruebas.podam;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Random;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import uk.co.jemos.podam.common.AttributeStrategy;
+
+public class MoneyStrategy implements AttributeStrategy<Money> {
+	Random r = new Random();
+
+	@Override
+	public Money getValue(Class<?> attrType, List<Annotation> attrAnnotations) {
+		return Money.ofCents(r.nextInt(100_000_000));
+	}
+}
@@ -0,0 +1,20 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+
+/**
+ * Projection with the state and balance of an account and the last journal
+ * segment applied to the database, read in the same statement so that the
+ * balance includes exactly the segments up to that one
+ */
+public interface AccountJournalView {
+
+    Long getId();
+
+    String getEstado();
+
+    Money getSaldo();
+
+    // NOTE: null if no segment of the journal has been applied yet
+    Long getSegmentoAplicado();
+}
@@ -0,0 +1,20 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+
+/**
+ * Projection with the balance of an account and the id of its last ledger
+ * movement, read in the same statement so that both are consistent
+ */
+public interface AccountLedgerView {
+
+    Long getId();
+
+    Money getSaldo();
+
+    // NOTE: null if the account has no movements
+    Long getUltimoMovimientoId();
+
+    // NOTE: null if the account does not use balance stripes; its balance does not include them
+    Integer getFranjasSaldo();
+}
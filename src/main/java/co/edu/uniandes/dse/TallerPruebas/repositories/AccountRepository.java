@@ -1,9 +1,19 @@
 package co.edu.uniandes.dse.TallerPruebas.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import jakarta.persistence.LockModeType;
 
 /**
  * Interface that persists an account
@@ -11,4 +21,97 @@ import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
 @Repository
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
 
+    /**
+     * Finds an account taking a pessimistic write lock on its row until the
+     * current transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from AccountEntity a where a.id = :id")
+    Optional<AccountEntity> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Finds several accounts locking their rows in ascending id order, the same
+     * order used for single transfers
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from AccountEntity a where a.id in :ids order by a.id")
+    List<AccountEntity> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds only the id, state and balance of an account, without loading the
+     * entity into the persistence context
+     */
+    Optional<AccountSaldoView> findSaldoById(Long id);
+
+    /**
+     * Finds the state and balance of several accounts together with the last
+     * segment of the given journal already applied to their balances
+     */
+    @Query("select a.id as id, a.estado as estado, a.saldo as saldo,"
+            + " (select c.segmento from JournalCheckpointEntity c where c.nombre = :checkpoint) as segmentoAplicado"
+            + " from AccountEntity a where a.id in :ids")
+    List<AccountJournalView> findJournalStateByIdIn(@Param("ids") Collection<Long> ids, @Param("checkpoint") String checkpoint);
+
+    /**
+     * Finds an account loading its pockets in the same query
+     */
+    @EntityGraph(attributePaths = "pockets")
+    Optional<AccountEntity> findWithPocketsById(Long id);
+
+    /**
+     * Finds a page of accounts with id greater than desde, in id order, with
+     * their balance and the id of their last ledger movement
+     */
+    @Query("select a.id as id, a.saldo as saldo, max(t.id) as ultimoMovimientoId, a.franjasSaldo as franjasSaldo from AccountEntity a"
+            + " left join a.transactions t where a.id > :desde group by a.id, a.saldo, a.franjasSaldo order by a.id")
+    List<AccountLedgerView> findLedgerStatePage(@Param("desde") Long desde, Pageable pageable);
+
+    /**
+     * Finds the balance of an account and the id of its last ledger movement
+     */
+    @Query("select a.id as id, a.saldo as saldo, max(t.id) as ultimoMovimientoId, a.franjasSaldo as franjasSaldo from AccountEntity a"
+            + " left join a.transactions t where a.id = :id group by a.id, a.saldo, a.franjasSaldo")
+    Optional<AccountLedgerView> findLedgerStateById(@Param("id") Long id);
+
+    /**
+     * Returns the balance of an account in cents including the balance of its
+     * stripes, read in a single statement, or null if the account does not exist
+     */
+    @Query(value = "select a.saldo + coalesce((select sum(f.saldo) from balance_stripe_entity f where f.account_id = a.id), 0)"
+            + " from account_entity a where a.id = :id", nativeQuery = true)
+    Long findSaldoTotalById(@Param("id") Long id);
+
+    /**
+     * Finds the accounts that use balance stripes. Each row is [id, franjasSaldo]
+     */
+    @Query("select a.id, a.franjasSaldo from AccountEntity a where a.franjasSaldo > 0")
+    List<Object[]> findStripedAccounts();
+
+    /**
+     * Returns the smallest account id, or null if there are no accounts
+     */
+    @Query("select min(a.id) from AccountEntity a")
+    Long findMinId();
+
+    /**
+     * Returns the largest account id, or null if there are no accounts
+     */
+    @Query("select max(a.id) from AccountEntity a")
+    Long findMaxId();
+
+    /**
+     * Finds the balance of the accounts with id in [desde, hasta), including
+     * the balance of their stripes, without loading entities. Each row is
+     * [id, saldo in cents]
+     */
+    @Query(value = "select a.id, a.saldo + coalesce((select sum(f.saldo) from balance_stripe_entity f where f.account_id = a.id), 0)"
+            + " from account_entity a where a.id >= :desde and a.id < :hasta", nativeQuery = true)
+    List<Object[]> findSaldosInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Finds the id and state of the accounts with the given account numbers.
+     * Each row is [numeroCuenta, id, estado]
+     */
+    @Query("select a.numeroCuenta, a.id, a.estado from AccountEntity a where a.numeroCuenta in :numeros")
+    List<Object[]> findIdsByNumeroCuentaIn(@Param("numeros") Collection<String> numeros);
 }
@@ -0,0 +1,18 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+
+/**
+ * Projection with the columns of an account needed to validate an operation
+ */
+public interface AccountSaldoView {
+
+    Long getId();
+
+    String getEstado();
+
+    Money getSaldo();
+
+    // NOTE: null if the account does not use balance stripes
+    Integer getFranjasSaldo();
+}
@@ -0,0 +1,49 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceSnapshotEntity;
+
+/**
+ * Interface that persists the balance snapshots of the accounts
+ */
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshotEntity, Long> {
+
+    /**
+     * Finds the latest snapshot of an account
+     */
+    Optional<BalanceSnapshotEntity> findFirstByAccountIdOrderByUltimoMovimientoIdDescIdDesc(Long accountId);
+
+    /**
+     * Finds the latest snapshot of an account taken at or before the given date
+     */
+    Optional<BalanceSnapshotEntity> findFirstByAccountIdAndFechaLessThanEqualOrderByFechaDescIdDesc(Long accountId, Date fecha);
+
+    /**
+     * Finds, for each of the given accounts that has snapshots, the last
+     * ledger movement covered by its latest snapshot. Each row is
+     * [accountId, ultimoMovimientoId]
+     */
+    @Query("select s.accountId, max(s.ultimoMovimientoId) from BalanceSnapshotEntity s"
+            + " where s.accountId in :accountIds group by s.accountId")
+    List<Object[]> findLatestMovementIds(@Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * Finds the balance of the latest snapshot of each account with id in
+     * [desde, hasta). Each row is [accountId, saldo in cents]
+     */
+    @Query(value = "select s.account_id, s.saldo from balance_snapshot_entity s"
+            + " join (select account_id, max(ultimo_movimiento_id) as ultimo from balance_snapshot_entity"
+            + " where account_id >= :desde and account_id < :hasta group by account_id) u"
+            + " on u.account_id = s.account_id and u.ultimo = s.ultimo_movimiento_id", nativeQuery = true)
+    List<Object[]> findLatestSaldosInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+}
@@ -0,0 +1,43 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceStripeEntity;
+import jakarta.persistence.LockModeType;
+
+/**
+ * Interface that persists the balance stripes of the accounts
+ */
+@Repository
+public interface BalanceStripeRepository extends JpaRepository<BalanceStripeEntity, Long> {
+
+    /**
+     * Finds one stripe of an account taking a pessimistic write lock on its
+     * row until the current transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from BalanceStripeEntity f where f.accountId = :accountId and f.franja = :franja")
+    Optional<BalanceStripeEntity> findByAccountIdAndFranjaForUpdate(@Param("accountId") Long accountId, @Param("franja") Integer franja);
+
+    /**
+     * Finds all the stripes of an account locking their rows in stripe order,
+     * the same order used by every operation that locks several stripes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from BalanceStripeEntity f where f.accountId = :accountId order by f.franja")
+    List<BalanceStripeEntity> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Returns the total balance of the stripes of an account in cents, 0 if it
+     * has no stripes
+     */
+    @Query(value = "select coalesce(sum(saldo), 0) from balance_stripe_entity where account_id = :accountId", nativeQuery = true)
+    Long sumSaldoByAccountId(@Param("accountId") Long accountId);
+}
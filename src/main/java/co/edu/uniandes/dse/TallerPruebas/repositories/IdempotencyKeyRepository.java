@@ -0,0 +1,17 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.IdempotencyKeyEntity;
+
+/**
+ * Interface that persists the idempotency keys of the transfers
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, Long> {
+
+    Optional<IdempotencyKeyEntity> findByClave(String clave);
+}
@@ -0,0 +1,17 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.JournalCheckpointEntity;
+
+/**
+ * Interface that persists how far each local journal has been applied
+ */
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpointEntity, Long> {
+
+    Optional<JournalCheckpointEntity> findByNombre(String nombre);
+}
@@ -0,0 +1,15 @@
+package co.edu.uniandes.dse.TallerPruebas.repositories;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+
+/**
+ * Projection with the balance of a pocket and the last journal segment applied
+ * to the database, read in the same statement
+ */
+public interface PocketJournalView {
+
+    Money getSaldo();
+
+    // NOTE: null if no segment of the journal has been applied yet
+    Long getSegmentoAplicado();
+}
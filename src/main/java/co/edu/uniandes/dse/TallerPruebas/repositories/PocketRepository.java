@@ -1,8 +1,16 @@
 package co.edu.uniandes.dse.TallerPruebas.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
 import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
 
 /**
@@ -11,4 +19,59 @@ import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
 @Repository
 public interface PocketRepository extends JpaRepository<PocketEntity, Long> {
 
+    /**
+     * Finds a pocket of an account by its name, loading the account in the same
+     * query. Backed by the unique index on (account_id, nombre)
+     */
+    @EntityGraph(attributePaths = "account")
+    Optional<PocketEntity> findWithAccountByAccountIdAndNombre(Long accountId, String nombre);
+
+    /**
+     * Finds the balance of a pocket together with the last segment of the
+     * given journal already applied to it
+     */
+    @Query("select p.saldo as saldo,"
+            + " (select c.segmento from JournalCheckpointEntity c where c.nombre = :checkpoint) as segmentoAplicado"
+            + " from PocketEntity p where p.id = :id")
+    Optional<PocketJournalView> findJournalStateById(@Param("id") Long id, @Param("checkpoint") String checkpoint);
+
+    /**
+     * Checks whether an account already has a pocket with the given name
+     */
+    boolean existsByAccountIdAndNombre(Long accountId, String nombre);
+
+    /**
+     * Finds all the pockets of an account
+     */
+    List<PocketEntity> findByAccountId(Long accountId);
+
+    /**
+     * Finds the balances of all the pockets of an account
+     */
+    @Query("select p.saldo from PocketEntity p where p.account.id = :accountId")
+    List<Money> findSaldosByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Sums the pocket balances of each account with id in [desde, hasta). Each
+     * row is [accountId, total in cents]
+     */
+    @Query(value = "select account_id, sum(saldo) from pocket_entity"
+            + " where account_id >= :desde and account_id < :hasta group by account_id", nativeQuery = true)
+    List<Object[]> sumSaldosByAccountInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Sums the opening balances of the pockets of each account with id in
+     * [desde, hasta). Pockets without an opening balance count as zero. Each
+     * row is [accountId, total in cents]
+     */
+    @Query(value = "select account_id, sum(coalesce(saldo_inicial, 0)) from pocket_entity"
+            + " where account_id >= :desde and account_id < :hasta group by account_id", nativeQuery = true)
+    List<Object[]> sumSaldosInicialesByAccountInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Finds which of the given names are already used by pockets of the given
+     * accounts. Each row is [accountId, nombre]
+     */
+    @Query("select p.account.id, p.nombre from PocketEntity p where p.account.id in :accountIds and p.nombre in :nombres")
+    List<Object[]> findNombresByAccountIdIn(@Param("accountIds") Collection<Long> accountIds, @Param("nombres") Collection<String> nombres);
 }
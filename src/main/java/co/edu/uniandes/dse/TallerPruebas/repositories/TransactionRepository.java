@@ -1,9 +1,18 @@
 package co.edu.uniandes.dse.TallerPruebas.repositories;
 
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import jakarta.persistence.QueryHint;
 
 /**
  * Interface that persists a transaction
@@ -11,4 +20,85 @@ import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
 @Repository
 public interface TransactionRepository extends JpaRepository<TransactionEntity, Long> {
 
+    /**
+     * Finds the next page of an account statement using keyset pagination on
+     * (fecha, id): returns the movements strictly after the given (fecha, id)
+     * and before hasta, in statement order. Every page reads only its own rows
+     * from the (account_id, fecha, id) index, no matter how deep into the
+     * history it is: the redundant t.fecha >= :fecha makes the index range
+     * start at the cursor (the or alone gives no lower bound, so each page
+     * would read the whole history of the account), and ordering by account id
+     * too, which is constant, lets the database follow the index order and
+     * stop at the page size instead of sorting the rest of the history
+     */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select t from TransactionEntity t where t.account.id = :accountId"
+            + " and t.fecha >= :fecha and (t.fecha > :fecha or (t.fecha = :fecha and t.id > :id)) and t.fecha < :hasta"
+            + " order by t.account.id, t.fecha, t.id")
+    List<TransactionEntity> findStatementPage(@Param("accountId") Long accountId, @Param("fecha") Date despuesDeFecha,
+            @Param("id") Long despuesDeId, @Param("hasta") Date hasta, Pageable pageable);
+
+    /**
+     * Sums the movements of an account with id greater than despuesDeId, in
+     * cents: ENTRADA adds and SALIDA subtracts. Reads only the tail of the
+     * ledger through the (account_id, id) index
+     */
+    @Query(value = "select coalesce(sum(case when tipo = 'ENTRADA' then monto else -monto end), 0)"
+            + " from transaction_entity where account_id = :accountId and id > :id", nativeQuery = true)
+    Long sumAmountAfterId(@Param("accountId") Long accountId, @Param("id") Long despuesDeId);
+
+    /**
+     * Same as sumAmountAfterId, counting only the movements dated at or before hasta
+     */
+    @Query(value = "select coalesce(sum(case when tipo = 'ENTRADA' then monto else -monto end), 0)"
+            + " from transaction_entity where account_id = :accountId and id > :id and fecha <= :hasta", nativeQuery = true)
+    Long sumAmountAfterIdUntil(@Param("accountId") Long accountId, @Param("id") Long despuesDeId, @Param("hasta") Date hasta);
+
+    /**
+     * Sums the movements of an account dated after the given date, in cents:
+     * ENTRADA adds and SALIDA subtracts
+     */
+    @Query(value = "select coalesce(sum(case when tipo = 'ENTRADA' then monto else -monto end), 0)"
+            + " from transaction_entity where account_id = :accountId and fecha > :fecha", nativeQuery = true)
+    Long sumAmountAfterDate(@Param("accountId") Long accountId, @Param("fecha") Date despuesDeFecha);
+
+    /**
+     * Sums, for each account with id in [desde, hasta), the money moved from
+     * the account to its pockets: SALIDA movements with a pocket add and
+     * ENTRADA movements with a pocket subtract. Each row is [accountId, total in cents]
+     */
+    @Query(value = "select account_id, sum(case when tipo = 'SALIDA' then monto else -monto end) from transaction_entity"
+            + " where account_id >= :desde and account_id < :hasta and pocket_id is not null group by account_id", nativeQuery = true)
+    List<Object[]> sumPocketMovementsByAccountInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Sums, for each account with id in [desde, hasta) that has balance
+     * snapshots, the movements after its latest snapshot: ENTRADA adds and
+     * SALIDA subtracts. Each row is [accountId, total in cents]
+     */
+    @Query(value = "select t.account_id, sum(case when t.tipo = 'ENTRADA' then t.monto else -t.monto end) from transaction_entity t"
+            + " join (select account_id, max(ultimo_movimiento_id) as ultimo from balance_snapshot_entity"
+            + " where account_id >= :desde and account_id < :hasta group by account_id) s"
+            + " on s.account_id = t.account_id and t.id > s.ultimo group by t.account_id", nativeQuery = true)
+    List<Object[]> sumMovementsAfterSnapshotByAccountInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Sums the movements between accounts (without a pocket) of the accounts
+     * with id in [desde, hasta): ENTRADA adds and SALIDA subtracts. Over all
+     * the accounts the total must be zero, since every transfer between
+     * accounts writes one movement of each kind
+     */
+    @Query(value = "select coalesce(sum(case when tipo = 'ENTRADA' then monto else -monto end), 0) from transaction_entity"
+            + " where account_id >= :desde and account_id < :hasta and pocket_id is null", nativeQuery = true)
+    Long sumAccountMovementsInRange(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Finds the next page of the whole ledger in id order, as scalar columns
+     * and without loading entities. Each row is [id, account_id, fecha, monto
+     * in cents, tipo, pocket_id]
+     */
+    @Query(value = "select id, account_id, fecha, monto, tipo, pocket_id from transaction_entity"
+            + " where id > :id order by id limit :limite", nativeQuery = true)
+    List<Object[]> findLedgerPage(@Param("id") Long despuesDeId, @Param("limite") int limite);
 }
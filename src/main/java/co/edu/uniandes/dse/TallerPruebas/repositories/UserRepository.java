@@ -1,6 +1,13 @@
 package co.edu.uniandes.dse.TallerPruebas.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
@@ -11,4 +18,15 @@ import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
+    /**
+     * Finds a user loading their accounts in the same query
+     */
+    @EntityGraph(attributePaths = "accounts")
+    Optional<UserEntity> findWithAccountsById(Long id);
+
+    /**
+     * Finds the ids of the users with the given logins. Each row is [login, id]
+     */
+    @Query("select u.login, u.id from UserEntity u where u.login in :logins")
+    List<Object[]> findIdsByLoginIn(@Param("logins") Collection<String> logins);
 }
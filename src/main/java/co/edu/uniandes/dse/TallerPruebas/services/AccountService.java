@@ -0,0 +1,103 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountSnapshot;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountSaldoView;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa la lógica de consulta de las cuentas
+ */
+@Slf4j
+@Service
+public class AccountService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private AccountSnapshotCache accountSnapshotCache;
+
+    /**
+     * Obtiene una cuenta con sus bolsillos, cargados en la misma consulta.
+     *
+     * @param accountId id de la cuenta
+     * @return entidad de la cuenta con sus bolsillos
+     * @throws EntityNotFoundException si la cuenta no existe
+     */
+    public AccountEntity getAccount(Long accountId) throws EntityNotFoundException {
+        log.info("Inicia proceso de consultar la cuenta con id = {}", accountId);
+        Optional<AccountEntity> accountEntity = accountRepository.findWithPocketsById(accountId);
+        if (accountEntity.isEmpty()) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        log.info("Termina proceso de consultar la cuenta con id = {}", accountId);
+        return accountEntity.get();
+    }
+
+    /**
+     * Obtiene el saldo de una cuenta ya cargada, incluyendo el de sus franjas
+     * si las tiene.
+     *
+     * @param accountEntity entidad de la cuenta
+     * @return saldo de la cuenta
+     */
+    public Money getSaldo(AccountEntity accountEntity) {
+        if (accountEntity.getFranjasSaldo() == null || accountEntity.getFranjasSaldo() <= 0) {
+            return accountEntity.getSaldo();
+        }
+        Long saldo = accountRepository.findSaldoTotalById(accountEntity.getId());
+        return saldo != null ? Money.ofCents(saldo) : accountEntity.getSaldo();
+    }
+
+    /**
+     * Obtiene el estado y saldo de una cuenta con el resumen de sus bolsillos.
+     * La respuesta sale de la caché de cuentas si está disponible.
+     *
+     * @param accountId id de la cuenta
+     * @return foto de la cuenta
+     * @throws EntityNotFoundException si la cuenta no existe
+     */
+    public AccountSnapshot getSnapshot(Long accountId) throws EntityNotFoundException {
+        AccountSnapshot snapshot = accountSnapshotCache.get(accountId, this::cargarSnapshot);
+        if (snapshot == null) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        return snapshot;
+    }
+
+    private AccountSnapshot cargarSnapshot(Long accountId) {
+        log.debug("Cargando la foto de la cuenta con id = {}", accountId);
+        AccountSaldoView cuenta = accountRepository.findSaldoById(accountId).orElse(null);
+        if (cuenta == null) {
+            return null;
+        }
+        // NOTE: En una cuenta con franjas el saldo incluye el de sus franjas, leído en la misma sentencia que la fila
+        Money saldoCuenta = cuenta.getSaldo();
+        if (cuenta.getFranjasSaldo() != null && cuenta.getFranjasSaldo() > 0) {
+            Long saldoTotal = accountRepository.findSaldoTotalById(accountId);
+            saldoCuenta = saldoTotal != null ? Money.ofCents(saldoTotal) : saldoCuenta;
+        }
+        List<Money> saldosBolsillos = pocketRepository.findSaldosByAccountId(accountId);
+        Money saldoBolsillos = Money.ZERO;
+        for (Money saldo : saldosBolsillos) {
+            if (saldo != null) {
+                saldoBolsillos = saldoBolsillos.plus(saldo);
+            }
+        }
+        return new AccountSnapshot(cuenta.getId(), cuenta.getEstado(), saldoCuenta, saldosBolsillos.size(), saldoBolsillos);
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché acotada de las fotos de las cuentas (estado, saldo y resumen de
+ * bolsillos) para las consultas de saldo.
+ *
+ * Las operaciones que modifican una cuenta invalidan su entrada después del
+ * commit. La invalidación quita de la caché la entrada, aunque su carga siga
+ * en curso, y una carga quitada no se guarda al terminar, así que toda
+ * consulta que empieza después de la invalidación vuelve a leer la base de
+ * datos y ve el saldo nuevo. Quien ya esperaba esa carga antes de la
+ * invalidación sí puede recibir el saldo anterior, igual que cualquier lectura
+ * que empezó antes del commit. Las estadísticas (aciertos, fallos, desalojos)
+ * se publican como métricas cache.*.
+ *
+ * Con hilos de plataforma la carga se hace dentro del bloqueo de la llave en
+ * el mapa de Caffeine (un bloque synchronized), y la invalidación espera a que
+ * termine antes de quitarla. Con hilos virtuales eso fijaría el hilo a su
+ * carrier durante las consultas a la base de datos, así que en ese modo la
+ * carga corre en su propio hilo virtual, quien consulta solo espera el
+ * resultado y la invalidación quita la carga pendiente sin esperarla.
+ */
+@Component
+public class AccountSnapshotCache {
+
+    private final AsyncCache<Long, AccountSnapshot> cache;
+
+    private final Executor ejecutorCargas;
+
+    public AccountSnapshotCache(ObjectProvider<MeterRegistry> registry, @Value("${account.cache.max-size:100000}") long tamanoMaximo,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        // NOTE: Con hilos de plataforma la carga se hace en el hilo que consulta, como con una caché síncrona
+        ejecutorCargas = hilosVirtuales ? Executors.newVirtualThreadPerTaskExecutor() : Runnable::run;
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .recordStats()
+                .buildAsync();
+        registry.ifAvailable(r -> CaffeineCacheMetrics.monitor(r, cache.synchronous(), "accountSnapshots"));
+    }
+
+    /**
+     * @param cargar carga la foto de la base de datos cuando no está en la caché; retorna null si la cuenta no existe
+     * @return la foto de la cuenta, o null si la cuenta no existe
+     */
+    public AccountSnapshot get(Long accountId, Function<Long, AccountSnapshot> cargar) {
+        CompletableFuture<AccountSnapshot> snapshot = cache.get(accountId,
+                (id, ejecutor) -> CompletableFuture.supplyAsync(() -> cargar.apply(id), ejecutorCargas));
+        try {
+            return snapshot.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Invalida las cuentas cuando la transacción actual haga commit, o de
+     * inmediato si no hay transacción. Si la transacción hace rollback las
+     * entradas siguen siendo válidas y no se tocan.
+     */
+    public void invalidarDespuesDelCommit(Collection<Long> accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidateAll(accountIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidateAll(accountIds);
+            }
+        });
+    }
+
+    public void invalidarDespuesDelCommit(Long accountId) {
+        invalidarDespuesDelCommit(List.of(accountId));
+    }
+
+    /**
+     * @return estadísticas de la caché desde que arrancó
+     */
+    public CacheStats getEstadisticas() {
+        return cache.synchronous().stats();
+    }
+}
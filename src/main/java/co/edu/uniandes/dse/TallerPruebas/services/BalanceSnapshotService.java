@@ -0,0 +1,195 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceSnapshotEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceStripeEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountLedgerView;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceSnapshotRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceStripeRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa las fotos periódicas de los saldos y las consultas que
+ * parten de ellas.
+ *
+ * Una foto guarda el saldo de una cuenta y el id de su último movimiento, leídos
+ * en la misma sentencia. Como los movimientos de una cuenta se escriben mientras
+ * se modifica su fila (bloqueo o versión), los movimientos que hacen commit
+ * después de la foto tienen ids mayores, así que verificar un saldo o
+ * calcularlo en una fecha solo requiere leer los movimientos posteriores a la
+ * foto y no toda la historia de la cuenta.
+ *
+ * Los créditos a las cuentas con franjas no modifican su fila sino una de sus
+ * franjas, así que para esas cuentas se bloquean las franjas antes de leer: los
+ * créditos en curso terminan antes y los siguientes esperan a la foto.
+ */
+@Slf4j
+@Service
+public class BalanceSnapshotService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private BalanceStripeRepository balanceStripeRepository;
+
+    /**
+     * Toma las fotos de un bloque de cuentas, en orden de id. Solo se toma foto
+     * de las cuentas que no tienen una o que tienen movimientos posteriores a la
+     * última; las fotos se insertan en batches JDBC.
+     *
+     * @param desdeId se procesan las cuentas con id mayor a este
+     * @param tamanoBloque número máximo de cuentas del bloque
+     * @return id de la última cuenta del bloque, o null si no quedan cuentas
+     */
+    @Transactional
+    public Long tomarFotos(Long desdeId, int tamanoBloque) {
+        // 1. Leer el saldo y el último movimiento de las cuentas del bloque
+        List<AccountLedgerView> cuentas = accountRepository.findLedgerStatePage(desdeId, PageRequest.ofSize(tamanoBloque));
+        if (cuentas.isEmpty()) {
+            return null;
+        }
+
+        // 2. Consultar hasta qué movimiento cubren las fotos anteriores de esas cuentas
+        List<Long> ids = new ArrayList<>(cuentas.size());
+        for (AccountLedgerView cuenta : cuentas) {
+            ids.add(cuenta.getId());
+        }
+        Map<Long, Long> cubiertos = new HashMap<>();
+        for (Object[] fila : balanceSnapshotRepository.findLatestMovementIds(ids)) {
+            cubiertos.put((Long) fila[0], (Long) fila[1]);
+        }
+
+        // 3. Tomar foto de las cuentas nuevas o con movimientos posteriores a su última foto
+        Date fecha = new Date();
+        List<BalanceSnapshotEntity> fotos = new ArrayList<>();
+        for (AccountLedgerView cuenta : cuentas) {
+            // NOTE: Una cuenta con franjas se vuelve a leer con sus franjas bloqueadas, sumándoles su saldo
+            Money saldoFranjas = Money.ZERO;
+            if (cuenta.getFranjasSaldo() != null && cuenta.getFranjasSaldo() > 0) {
+                saldoFranjas = bloquearFranjas(cuenta.getId());
+                Optional<AccountLedgerView> releida = accountRepository.findLedgerStateById(cuenta.getId());
+                if (releida.isEmpty()) {
+                    continue;
+                }
+                cuenta = releida.get();
+            }
+            long ultimoMovimientoId = cuenta.getUltimoMovimientoId() != null ? cuenta.getUltimoMovimientoId() : 0L;
+            Long cubierto = cubiertos.get(cuenta.getId());
+            if (cubierto != null && cubierto >= ultimoMovimientoId) {
+                continue;
+            }
+            BalanceSnapshotEntity foto = new BalanceSnapshotEntity();
+            foto.setAccountId(cuenta.getId());
+            foto.setSaldo(cuenta.getSaldo().plus(saldoFranjas));
+            foto.setUltimoMovimientoId(ultimoMovimientoId);
+            foto.setFecha(fecha);
+            fotos.add(foto);
+        }
+        balanceSnapshotRepository.saveAll(fotos);
+        log.debug("Fotos de saldo tomadas: {} de {} cuentas", fotos.size(), cuentas.size());
+        return cuentas.get(cuentas.size() - 1).getId();
+    }
+
+    /**
+     * Verifica que el saldo de una cuenta coincide con su última foto más los
+     * movimientos posteriores a ella. La cuenta se bloquea durante la
+     * verificación para que saldo y movimientos sean consistentes.
+     *
+     * @param accountId id de la cuenta
+     * @return true si el saldo coincide con el libro contable
+     * @throws EntityNotFoundException si la cuenta no existe
+     * @throws BusinessLogicException si la cuenta todavía no tiene fotos
+     */
+    @Transactional
+    public boolean verificarSaldo(Long accountId) throws EntityNotFoundException, BusinessLogicException {
+        // 1. Verificar que la cuenta existe
+        // NOTE: Las franjas se bloquean antes que la cuenta, en el mismo orden que los créditos y los plegados
+        Money saldoFranjas = bloquearFranjas(accountId);
+        Optional<AccountEntity> cuenta = accountRepository.findByIdForUpdate(accountId);
+        if (cuenta.isEmpty()) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+
+        // 2. Verificar que la cuenta tiene al menos una foto
+        Optional<BalanceSnapshotEntity> foto = balanceSnapshotRepository.findFirstByAccountIdOrderByUltimoMovimientoIdDescIdDesc(accountId);
+        if (foto.isEmpty()) {
+            throw new BusinessLogicException("La cuenta no tiene fotos de saldo");
+        }
+
+        // 3. Comparar el saldo con la foto más los movimientos posteriores
+        Money saldo = cuenta.get().getSaldo().plus(saldoFranjas);
+        Money saldoSegunLibro = foto.get().getSaldo()
+                .plus(Money.ofCents(transactionRepository.sumAmountAfterId(accountId, foto.get().getUltimoMovimientoId())));
+        if (!saldoSegunLibro.equals(saldo)) {
+            log.warn("El saldo de la cuenta con id = {} es {} pero según el libro contable debería ser {}", accountId,
+                    saldo, saldoSegunLibro);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calcula el saldo que tenía una cuenta en una fecha. Parte de la última
+     * foto tomada hasta esa fecha y suma los movimientos posteriores a la foto
+     * hasta la fecha. Si no hay fotos anteriores a la fecha, parte del saldo
+     * actual y descuenta los movimientos posteriores a la fecha.
+     *
+     * @param accountId id de la cuenta
+     * @param fecha fecha de la consulta
+     * @return saldo de la cuenta en esa fecha
+     * @throws EntityNotFoundException si la cuenta no existe
+     */
+    @Transactional
+    public Money getSaldoEn(Long accountId, Date fecha) throws EntityNotFoundException {
+        Optional<BalanceSnapshotEntity> foto = balanceSnapshotRepository.findFirstByAccountIdAndFechaLessThanEqualOrderByFechaDescIdDesc(accountId, fecha);
+        if (foto.isPresent()) {
+            return foto.get().getSaldo()
+                    .plus(Money.ofCents(transactionRepository.sumAmountAfterIdUntil(accountId, foto.get().getUltimoMovimientoId(), fecha)));
+        }
+
+        // NOTE: Se bloquea la cuenta (y antes sus franjas) para que el saldo actual y los movimientos posteriores a la fecha sean consistentes
+        Money saldoFranjas = bloquearFranjas(accountId);
+        Optional<AccountEntity> cuenta = accountRepository.findByIdForUpdate(accountId);
+        if (cuenta.isEmpty()) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        return cuenta.get().getSaldo().plus(saldoFranjas).minus(Money.ofCents(transactionRepository.sumAmountAfterDate(accountId, fecha)));
+    }
+
+    /**
+     * Bloquea las franjas de una cuenta hasta el final de la transacción.
+     *
+     * @return saldo total de las franjas, cero si la cuenta no tiene
+     */
+    private Money bloquearFranjas(Long accountId) {
+        Money saldo = Money.ZERO;
+        for (BalanceStripeEntity franja : balanceStripeRepository.findByAccountIdForUpdate(accountId)) {
+            saldo = saldo.plus(franja.getSaldo());
+        }
+        return saldo;
+    }
+}
@@ -0,0 +1,189 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceStripeEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceStripeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa las franjas de saldo de las cuentas que reciben muchos
+ * créditos a la vez (cuentas de recaudo).
+ *
+ * Un crédito a una cuenta con franjas bloquea y modifica una de sus franjas,
+ * elegida al azar, y no la fila de la cuenta, así que los créditos
+ * concurrentes solo se esperan si caen en la misma franja. Los débitos
+ * modifican la fila de la cuenta y validan contra el saldo disponible (la fila
+ * más las franjas). Un proceso periódico (BalanceStripeJob) pasa el saldo de
+ * las franjas a la fila.
+ *
+ * Orden de los bloqueos: las operaciones que bloquean franjas lo hacen antes de
+ * bloquear filas de cuentas, y las franjas de una cuenta en orden de franja;
+ * así los créditos, los débitos y los plegados no forman ciclos.
+ */
+@Slf4j
+@Service
+public class BalanceStripeService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceStripeRepository balanceStripeRepository;
+
+    @Value("${transfer.stripes.max:64}")
+    private int maximoFranjas;
+
+    // NOTE: Id de cada cuenta con franjas y su número de franjas; se reemplaza completo al refrescarse
+    private volatile Map<Long, Integer> cuentasConFranjas = Map.of();
+
+    @PostConstruct
+    void iniciar() {
+        refrescar();
+    }
+
+    /**
+     * Vuelve a leer de la base de datos qué cuentas tienen franjas, para ver
+     * las que se activaron en otras instancias.
+     */
+    public void refrescar() {
+        Map<Long, Integer> cuentas = new HashMap<>();
+        for (Object[] fila : accountRepository.findStripedAccounts()) {
+            cuentas.put((Long) fila[0], (Integer) fila[1]);
+        }
+        cuentasConFranjas = Map.copyOf(cuentas);
+    }
+
+    /**
+     * @return ids de las cuentas con franjas
+     */
+    public Set<Long> getCuentasConFranjas() {
+        return cuentasConFranjas.keySet();
+    }
+
+    public boolean tieneFranjas(Long accountId) {
+        return accountId != null && cuentasConFranjas.containsKey(accountId);
+    }
+
+    /**
+     * Reparte desde ahora los créditos de una cuenta entre el número de franjas
+     * dado. El número de franjas de una cuenta solo puede aumentar.
+     *
+     * @param accountId id de la cuenta
+     * @param franjas número de franjas, entre 1 y transfer.stripes.max
+     * @throws EntityNotFoundException si la cuenta no existe
+     * @throws BusinessLogicException si el número de franjas no es válido
+     */
+    @Transactional
+    public void activarFranjas(Long accountId, int franjas) throws EntityNotFoundException, BusinessLogicException {
+        log.info("Inicia proceso de activar {} franjas de saldo en la cuenta con id = {}", franjas, accountId);
+        // 1. Verificar el número de franjas
+        if (franjas < 1 || franjas > maximoFranjas) {
+            throw new BusinessLogicException("El número de franjas debe estar entre 1 y " + maximoFranjas);
+        }
+
+        // 2. Bloquear las franjas existentes y después la cuenta
+        List<BalanceStripeEntity> existentes = balanceStripeRepository.findByAccountIdForUpdate(accountId);
+        Optional<AccountEntity> cuenta = accountRepository.findByIdForUpdate(accountId);
+        if (cuenta.isEmpty()) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        if (franjas < existentes.size()) {
+            throw new BusinessLogicException("La cuenta ya tiene " + existentes.size() + " franjas y no se pueden reducir");
+        }
+
+        // 3. Crear las franjas que faltan y marcar la cuenta
+        for (int franja = existentes.size(); franja < franjas; franja++) {
+            BalanceStripeEntity nueva = new BalanceStripeEntity();
+            nueva.setAccountId(accountId);
+            nueva.setFranja(franja);
+            nueva.setSaldo(Money.ZERO);
+            balanceStripeRepository.save(nueva);
+        }
+        cuenta.get().setFranjasSaldo(franjas);
+
+        // NOTE: Si la transacción hace rollback, reservarFranja no encuentra las franjas y los créditos siguen yendo a la fila
+        Map<Long, Integer> cuentas = new HashMap<>(cuentasConFranjas);
+        cuentas.put(accountId, franjas);
+        cuentasConFranjas = Map.copyOf(cuentas);
+        log.info("Termina proceso de activar franjas de saldo en la cuenta con id = {}", accountId);
+    }
+
+    /**
+     * Bloquea hasta el final de la transacción actual una franja al azar de la
+     * cuenta, para acreditarle un monto. Debe llamarse antes de bloquear filas
+     * de cuentas.
+     *
+     * @return la franja bloqueada, o vacío si la cuenta no tiene franjas
+     */
+    public Optional<BalanceStripeEntity> reservarFranja(Long accountId) {
+        Integer franjas = accountId != null ? cuentasConFranjas.get(accountId) : null;
+        if (franjas == null) {
+            return Optional.empty();
+        }
+        return balanceStripeRepository.findByAccountIdAndFranjaForUpdate(accountId, ThreadLocalRandom.current().nextInt(franjas));
+    }
+
+    /**
+     * Calcula el saldo disponible de una cuenta: el de su fila más el de sus
+     * franjas. Solo es exacto si quien llama tiene bloqueada la fila de la
+     * cuenta, porque así ningún plegado pasa saldo de las franjas a la fila
+     * entre las dos lecturas.
+     */
+    public Money saldoDisponible(AccountEntity cuenta) {
+        if (cuenta.getFranjasSaldo() == null || cuenta.getFranjasSaldo() <= 0) {
+            return cuenta.getSaldo();
+        }
+        return cuenta.getSaldo().plus(Money.ofCents(balanceStripeRepository.sumSaldoByAccountId(cuenta.getId())));
+    }
+
+    /**
+     * Pasa el saldo de las franjas de una cuenta a su fila y deja las franjas
+     * en cero. El saldo disponible de la cuenta no cambia.
+     *
+     * @param accountId id de la cuenta
+     * @return monto que se pasó a la fila de la cuenta
+     */
+    @Transactional
+    public Money plegar(Long accountId) {
+        // 1. Bloquear las franjas y sumar su saldo
+        List<BalanceStripeEntity> franjas = balanceStripeRepository.findByAccountIdForUpdate(accountId);
+        Money suma = Money.ZERO;
+        for (BalanceStripeEntity franja : franjas) {
+            suma = suma.plus(franja.getSaldo());
+        }
+        if (suma.getCents() == 0) {
+            return Money.ZERO;
+        }
+
+        // 2. Bloquear la cuenta y pasarle el saldo de las franjas
+        // NOTE: La fila cambia de versión, así que los débitos optimistas que la leyeron antes se reintentan
+        Optional<AccountEntity> cuenta = accountRepository.findByIdForUpdate(accountId);
+        if (cuenta.isEmpty()) {
+            log.warn("La cuenta con id = {} tiene franjas con saldo pero no existe", accountId);
+            return Money.ZERO;
+        }
+        cuenta.get().setSaldo(cuenta.get().getSaldo().plus(suma));
+        for (BalanceStripeEntity franja : franjas) {
+            franja.setSaldo(Money.ZERO);
+        }
+        log.debug("Plegadas {} franjas de la cuenta con id = {}: {}", franjas.size(), accountId, suma);
+        return suma;
+    }
+}
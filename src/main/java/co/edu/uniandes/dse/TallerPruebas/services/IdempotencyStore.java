@@ -0,0 +1,103 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.IdempotencyKeyEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.IdempotencyKeyRepository;
+
+/**
+ * Registro de las claves de idempotencia de las transferencias.
+ *
+ * Cada clave se guarda en la tabla de claves dentro de la misma transacción
+ * que la transferencia, así que la transferencia hace commit si y solo si su
+ * clave queda registrada; la restricción única sobre la clave hace fallar a
+ * cualquier otra transacción con la misma clave. Las claves recientes se
+ * mantienen además en memoria (con expiración) para responder los reintentos
+ * sin consultar la base de datos.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final Cache<String, Registro> recientes;
+
+    public IdempotencyStore(@Value("${transfer.idempotency.cache-ttl:PT10M}") Duration ttl,
+            @Value("${transfer.idempotency.cache-max-size:100000}") long tamanoMaximo) {
+        recientes = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(tamanoMaximo)
+                .build();
+    }
+
+    /**
+     * Busca el resultado de una transferencia ya hecha con la clave dada.
+     *
+     * @param clave clave de idempotencia enviada por el cliente
+     * @param solicitud descripción de la transferencia pedida
+     * @return el resultado original si la clave ya se usó, vacío si no
+     * @throws BusinessLogicException si la clave no es válida o ya se usó para otra transferencia
+     */
+    public Optional<String> buscar(String clave, String solicitud) throws BusinessLogicException {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new BusinessLogicException("La clave de idempotencia debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+        Registro registro = recientes.getIfPresent(clave);
+        if (registro == null) {
+            Optional<IdempotencyKeyEntity> guardada = idempotencyKeyRepository.findByClave(clave);
+            if (guardada.isEmpty()) {
+                return Optional.empty();
+            }
+            registro = new Registro(guardada.get().getSolicitud(), guardada.get().getResultado());
+            recientes.put(clave, registro);
+        }
+        if (!registro.solicitud().equals(solicitud)) {
+            throw new BusinessLogicException("La clave de idempotencia ya se usó para otra transferencia");
+        }
+        return Optional.of(registro.resultado());
+    }
+
+    /**
+     * Registra la clave en la transacción actual. El INSERT se envía de
+     * inmediato para que una clave repetida falle antes del commit; la clave
+     * pasa a memoria solo cuando la transacción hace commit.
+     */
+    public void registrar(String clave, String solicitud, String resultado) {
+        IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
+        entity.setClave(clave);
+        entity.setSolicitud(solicitud);
+        entity.setResultado(resultado);
+        entity.setFecha(new Date());
+        idempotencyKeyRepository.saveAndFlush(entity);
+
+        Registro registro = new Registro(solicitud, resultado);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recientes.put(clave, registro);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recientes.put(clave, registro);
+            }
+        });
+    }
+
+    private record Registro(String solicitud, String resultado) {
+    }
+}
@@ -0,0 +1,22 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+/**
+ * Tipo de entidad que contiene un archivo de importación. Cada archivo trae
+ * un solo tipo, y las referencias a otras entidades usan su clave natural
+ */
+public enum ImportKind {
+    /**
+     * Columnas name, email, login, cedula. El login no se puede repetir
+     */
+    USUARIOS,
+    /**
+     * Columnas numeroCuenta, estado, saldo, login (del usuario dueño). El
+     * número de cuenta no se puede repetir
+     */
+    CUENTAS,
+    /**
+     * Columnas numeroCuenta (de una cuenta ACTIVA), nombre, saldo, metaAhorro.
+     * El nombre no se puede repetir en la misma cuenta
+     */
+    BOLSILLOS
+}
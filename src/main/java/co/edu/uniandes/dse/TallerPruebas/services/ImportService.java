@@ -0,0 +1,596 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.ImportReport;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BaseEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa la importación masiva de usuarios, cuentas y bolsillos
+ * desde archivos CSV (con encabezado) o NDJSON (un objeto JSON por línea).
+ *
+ * La importación tiene dos etapas conectadas por una cola acotada. Un hilo lee
+ * el archivo, valida cada fila por sí sola y arma lotes de entidades; el hilo
+ * que llama guarda cada lote en su propia transacción, después de resolver las
+ * referencias y buscar duplicados con una consulta por lote. Si la base de
+ * datos va más lento que la lectura, la cola se llena y la lectura espera, así
+ * que la memoria usada no depende del tamaño del archivo. Los ids salen de las
+ * secuencias de las entidades, que se asignan por bloques, y los INSERT de un
+ * lote se envían en batches JDBC del tamaño del lote.
+ *
+ * Las filas rechazadas se escriben con su número de línea y el motivo en un
+ * CSV de errores; las demás filas del lote se guardan.
+ *
+ * Los saldos importados no pasan por el libro contable. El de un bolsillo
+ * queda como su saldo inicial, que la conciliación toma como punto de
+ * partida; el de una cuenta lo toma la siguiente foto de saldo.
+ */
+@Slf4j
+@Service
+public class ImportService {
+
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // NOTE: Marca en los mapas de claves naturales que más de una fila de la base de datos tiene esa clave
+    private static final Long AMBIGUA = -1L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private AccountSnapshotCache accountSnapshotCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${import.batch-size:500}")
+    private int tamanoLote;
+
+    // NOTE: Lotes leídos que pueden esperar a ser guardados; con la cola llena la lectura se detiene
+    @Value("${import.queue-capacity:4}")
+    private int capacidadCola;
+
+    @Value("${import.report-dir:./reports}")
+    private String directorioReportes;
+
+    @Value("${import.progress-interval:PT10S}")
+    private Duration intervaloProgreso;
+
+    /**
+     * Importa un archivo y escribe las filas rechazadas en un CSV en
+     * import.report-dir. Los archivos con extensión .ndjson o .jsonl se leen
+     * como NDJSON y los demás como CSV.
+     *
+     * @param tipo tipo de entidad que contiene el archivo
+     * @param archivo archivo a importar
+     * @return resumen de la importación
+     * @throws IOException si no se puede leer el archivo o escribir el reporte
+     */
+    public ImportReport importar(ImportKind tipo, Path archivo) throws IOException {
+        Path directorio = Files.createDirectories(Path.of(directorioReportes));
+        Path archivoErrores = directorio.resolve("importacion-" + tipo.name().toLowerCase(Locale.ROOT) + "-"
+                + LocalDateTime.now().format(FORMATO_ARCHIVO) + "-errores.csv");
+        log.info("Inicia la importación de {} desde {} en lotes de {} filas", tipo, archivo, tamanoLote);
+
+        BlockingQueue<Lote> cola = new ArrayBlockingQueue<>(capacidadCola);
+        try (BufferedWriter errores = Files.newBufferedWriter(archivoErrores);
+                ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            errores.write("linea,error");
+            errores.newLine();
+            Ejecucion ejecucion = new Ejecucion(errores);
+
+            // 1. Leer el archivo en otro hilo, que deja los lotes en la cola
+            Future<?> lectura = ejecutor.submit(() -> {
+                leer(tipo, archivo, cola);
+                return null;
+            });
+
+            // 2. Guardar los lotes a medida que llegan
+            try {
+                guardarLotes(tipo, cola, ejecucion);
+            } catch (IOException | RuntimeException e) {
+                // NOTE: Se interrumpe la lectura para que no quede esperando a que se libere espacio en la cola
+                lectura.cancel(true);
+                throw e;
+            }
+            esperar(lectura);
+
+            ImportReport reporte = ejecucion.reporte(archivoErrores);
+            log.info("Termina la importación de {}: {} filas, {} importadas, {} rechazadas, {} ms ({} filas/s)", tipo,
+                    reporte.getFilas(), reporte.getImportadas(), reporte.getRechazadas(), reporte.getDuracionMillis(),
+                    Math.round(reporte.getFilasPorSegundo()));
+            return reporte;
+        }
+    }
+
+    private void leer(ImportKind tipo, Path archivo, BlockingQueue<Lote> cola) throws IOException, InterruptedException {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean ndjson = nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl");
+        try (BufferedReader entrada = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            List<String> encabezado = null;
+            Lote lote = Lote.nuevo();
+            long numeroLinea = 0;
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                if (!ndjson && encabezado == null) {
+                    encabezado = leerEncabezado(linea);
+                    continue;
+                }
+                try {
+                    Map<String, String> campos = ndjson ? leerJson(linea) : leerCsv(linea, encabezado);
+                    lote.filas().add(crearFila(tipo, numeroLinea, campos));
+                } catch (BusinessLogicException e) {
+                    lote.errores().add(new ErrorFila(numeroLinea, e.getMessage()));
+                }
+                if (lote.filas().size() + lote.errores().size() >= tamanoLote) {
+                    cola.put(lote);
+                    lote = Lote.nuevo();
+                }
+            }
+            if (!lote.filas().isEmpty() || !lote.errores().isEmpty()) {
+                cola.put(lote);
+            }
+        } catch (IOException | RuntimeException e) {
+            // NOTE: El guardado sigue esperando lotes, así que se le avisa que la lectura terminó antes de fallar
+            cola.put(Lote.FIN);
+            throw e;
+        }
+        cola.put(Lote.FIN);
+    }
+
+    private void guardarLotes(ImportKind tipo, BlockingQueue<Lote> cola, Ejecucion ejecucion) throws IOException {
+        try {
+            Lote lote;
+            while ((lote = cola.take()) != Lote.FIN) {
+                guardarLote(tipo, lote, ejecucion);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("La importación fue interrumpida");
+        }
+    }
+
+    private static void esperar(Future<?> lectura) throws IOException {
+        try {
+            lectura.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("La importación fue interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void guardarLote(ImportKind tipo, Lote lote, Ejecucion ejecucion) throws IOException {
+        List<ErrorFila> rechazos = new ArrayList<>(lote.errores());
+        List<Fila> aceptadas = new ArrayList<>(lote.filas().size());
+        if (!lote.filas().isEmpty()) {
+            TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+            try {
+                transaccion.executeWithoutResult(status -> {
+                    // NOTE: Todos los INSERT del lote van en un solo batch JDBC
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+                    switch (tipo) {
+                        case USUARIOS -> guardarUsuarios(lote.filas(), aceptadas, rechazos);
+                        case CUENTAS -> guardarCuentas(lote.filas(), aceptadas, rechazos);
+                        case BOLSILLOS -> guardarBolsillos(lote.filas(), aceptadas, rechazos);
+                    }
+                    // NOTE: Las entidades del lote ya no se necesitan; se sueltan para que la memoria no crezca con el archivo
+                    entityManager.clear();
+                });
+            } catch (DataAccessException e) {
+                log.warn("No se pudo guardar un lote de {} filas: {}", aceptadas.size(), e.getMessage());
+                for (Fila fila : aceptadas) {
+                    rechazos.add(new ErrorFila(fila.linea(), "No se pudo guardar el lote de la fila: " + e.getMostSpecificCause().getMessage()));
+                }
+                aceptadas.clear();
+            }
+        }
+        ejecucion.registrar(lote.filas().size() + lote.errores().size(), aceptadas.size(), rechazos);
+    }
+
+    private void guardarUsuarios(List<Fila> filas, List<Fila> aceptadas, List<ErrorFila> rechazos) {
+        // 1. Buscar los logins del lote que ya existen
+        Set<String> logins = new HashSet<>();
+        for (Fila fila : filas) {
+            logins.add(((UserEntity) fila.entidad()).getLogin());
+        }
+        Set<String> usados = new HashSet<>(idsPorClave(userRepository.findIdsByLoginIn(logins)).keySet());
+
+        // 2. Guardar los usuarios con login nuevo, también dentro del mismo lote
+        List<UserEntity> usuarios = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            UserEntity usuario = (UserEntity) fila.entidad();
+            if (!usados.add(usuario.getLogin())) {
+                rechazos.add(new ErrorFila(fila.linea(), "Ya existe un usuario con el login " + usuario.getLogin()));
+                continue;
+            }
+            usuarios.add(usuario);
+            aceptadas.add(fila);
+        }
+        userRepository.saveAll(usuarios);
+        userRepository.flush();
+    }
+
+    private void guardarCuentas(List<Fila> filas, List<Fila> aceptadas, List<ErrorFila> rechazos) {
+        // 1. Resolver los usuarios dueños y buscar los números de cuenta que ya existen
+        Set<String> logins = new HashSet<>();
+        Set<String> numeros = new HashSet<>();
+        for (Fila fila : filas) {
+            logins.add(fila.referencia());
+            numeros.add(((AccountEntity) fila.entidad()).getNumeroCuenta());
+        }
+        Map<String, Long> usuarios = idsPorClave(userRepository.findIdsByLoginIn(logins));
+        Set<String> usados = new HashSet<>(idsPorClave(accountRepository.findIdsByNumeroCuentaIn(numeros)).keySet());
+
+        // 2. Guardar las cuentas con dueño y número nuevo
+        List<AccountEntity> cuentas = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            AccountEntity cuenta = (AccountEntity) fila.entidad();
+            Long userId = usuarios.get(fila.referencia());
+            if (userId == null) {
+                rechazos.add(new ErrorFila(fila.linea(), "El usuario con login " + fila.referencia() + " no existe"));
+                continue;
+            }
+            if (AMBIGUA.equals(userId)) {
+                rechazos.add(new ErrorFila(fila.linea(), "Hay más de un usuario con el login " + fila.referencia()));
+                continue;
+            }
+            if (!usados.add(cuenta.getNumeroCuenta())) {
+                rechazos.add(new ErrorFila(fila.linea(), "Ya existe una cuenta con el número " + cuenta.getNumeroCuenta()));
+                continue;
+            }
+            cuenta.setUser(userRepository.getReferenceById(userId));
+            cuentas.add(cuenta);
+            aceptadas.add(fila);
+        }
+        accountRepository.saveAll(cuentas);
+        accountRepository.flush();
+    }
+
+    private void guardarBolsillos(List<Fila> filas, List<Fila> aceptadas, List<ErrorFila> rechazos) {
+        // 1. Resolver las cuentas y verificar que estén activas
+        Set<String> numeros = new HashSet<>();
+        Set<String> nombres = new HashSet<>();
+        for (Fila fila : filas) {
+            numeros.add(fila.referencia());
+            nombres.add(((PocketEntity) fila.entidad()).getNombre());
+        }
+        List<Object[]> filasCuentas = accountRepository.findIdsByNumeroCuentaIn(numeros);
+        Map<String, Long> cuentas = idsPorClave(filasCuentas);
+        Set<Long> inactivas = new HashSet<>();
+        for (Object[] fila : filasCuentas) {
+            if (!"ACTIVA".equals(fila[2])) {
+                inactivas.add((Long) fila[1]);
+            }
+        }
+
+        // 2. Buscar los nombres del lote que ya usan bolsillos de esas cuentas
+        Set<Long> accountIds = new HashSet<>(cuentas.values());
+        accountIds.remove(AMBIGUA);
+        Set<String> usados = new HashSet<>();
+        if (!accountIds.isEmpty()) {
+            for (Object[] fila : pocketRepository.findNombresByAccountIdIn(accountIds, nombres)) {
+                usados.add(fila[0] + ":" + fila[1]);
+            }
+        }
+
+        // 3. Guardar los bolsillos de cuentas activas con nombre nuevo en la cuenta
+        List<PocketEntity> bolsillos = new ArrayList<>(filas.size());
+        Set<Long> modificadas = new HashSet<>();
+        for (Fila fila : filas) {
+            PocketEntity bolsillo = (PocketEntity) fila.entidad();
+            Long accountId = cuentas.get(fila.referencia());
+            if (accountId == null) {
+                rechazos.add(new ErrorFila(fila.linea(), "La cuenta " + fila.referencia() + " no existe"));
+                continue;
+            }
+            if (AMBIGUA.equals(accountId)) {
+                rechazos.add(new ErrorFila(fila.linea(), "Hay más de una cuenta con el número " + fila.referencia()));
+                continue;
+            }
+            if (inactivas.contains(accountId)) {
+                rechazos.add(new ErrorFila(fila.linea(), "La cuenta " + fila.referencia() + " debe estar en estado ACTIVA para crear bolsillos"));
+                continue;
+            }
+            if (!usados.add(accountId + ":" + bolsillo.getNombre())) {
+                rechazos.add(new ErrorFila(fila.linea(), "Ya existe un bolsillo con el nombre " + bolsillo.getNombre() + " en la cuenta " + fila.referencia()));
+                continue;
+            }
+            bolsillo.setAccount(accountRepository.getReferenceById(accountId));
+            bolsillos.add(bolsillo);
+            modificadas.add(accountId);
+            aceptadas.add(fila);
+        }
+        pocketRepository.saveAll(bolsillos);
+        pocketRepository.flush();
+        // NOTE: El resumen de bolsillos de esas cuentas cambia, así que sus fotos en caché dejan de ser válidas
+        accountSnapshotCache.invalidarDespuesDelCommit(modificadas);
+    }
+
+    private static Map<String, Long> idsPorClave(List<Object[]> filas) {
+        Map<String, Long> ids = new HashMap<>(filas.size() * 2);
+        for (Object[] fila : filas) {
+            ids.merge((String) fila[0], (Long) fila[1], (actual, otro) -> AMBIGUA);
+        }
+        return ids;
+    }
+
+    private static Fila crearFila(ImportKind tipo, long linea, Map<String, String> campos) throws BusinessLogicException {
+        switch (tipo) {
+            case USUARIOS: {
+                UserEntity usuario = new UserEntity();
+                usuario.setName(campo(campos, "name"));
+                usuario.setEmail(campo(campos, "email"));
+                usuario.setLogin(requerido(campos, "login"));
+                usuario.setCedula(requerido(campos, "cedula"));
+                if (usuario.getEmail() != null && !usuario.getEmail().contains("@")) {
+                    throw new BusinessLogicException("El email " + usuario.getEmail() + " no es válido");
+                }
+                return new Fila(linea, usuario, null);
+            }
+            case CUENTAS: {
+                AccountEntity cuenta = new AccountEntity();
+                cuenta.setNumeroCuenta(requerido(campos, "numeroCuenta"));
+                String estado = campo(campos, "estado");
+                cuenta.setEstado(estado != null ? estado : "ACTIVA");
+                if (!"ACTIVA".equals(cuenta.getEstado()) && !"BLOQUEADA".equals(cuenta.getEstado())) {
+                    throw new BusinessLogicException("El estado debe ser ACTIVA o BLOQUEADA");
+                }
+                Money saldo = monto(campos, "saldo");
+                cuenta.setSaldo(saldo != null ? saldo : Money.ZERO);
+                return new Fila(linea, cuenta, requerido(campos, "login"));
+            }
+            default: {
+                PocketEntity bolsillo = new PocketEntity();
+                bolsillo.setNombre(requerido(campos, "nombre"));
+                Money saldo = monto(campos, "saldo");
+                bolsillo.setSaldo(saldo != null ? saldo : Money.ZERO);
+                // NOTE: El saldo importado no tiene movimiento en el libro contable; se guarda con el bolsillo, en el mismo lote, para que la conciliación parta de él
+                bolsillo.setSaldoInicial(bolsillo.getSaldo());
+                bolsillo.setMetaAhorro(monto(campos, "metaAhorro"));
+                return new Fila(linea, bolsillo, requerido(campos, "numeroCuenta"));
+            }
+        }
+    }
+
+    private static String campo(Map<String, String> campos, String nombre) {
+        String valor = campos.get(nombre);
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static String requerido(Map<String, String> campos, String nombre) throws BusinessLogicException {
+        String valor = campo(campos, nombre);
+        if (valor == null) {
+            throw new BusinessLogicException("El campo " + nombre + " es obligatorio");
+        }
+        return valor;
+    }
+
+    private static Money monto(Map<String, String> campos, String nombre) throws BusinessLogicException {
+        String valor = campo(campos, nombre);
+        if (valor == null) {
+            return null;
+        }
+        Money monto;
+        try {
+            monto = Money.of(new BigDecimal(valor));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new BusinessLogicException("El campo " + nombre + " no es un monto válido: " + valor);
+        }
+        if (monto.isNegative()) {
+            throw new BusinessLogicException("El campo " + nombre + " no puede ser negativo");
+        }
+        return monto;
+    }
+
+    private static List<String> leerEncabezado(String linea) throws IOException {
+        try {
+            List<String> encabezado = separarCsv(linea);
+            encabezado.replaceAll(String::trim);
+            return encabezado;
+        } catch (BusinessLogicException e) {
+            throw new IOException("El encabezado del archivo no es válido: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> leerCsv(String linea, List<String> encabezado) throws BusinessLogicException {
+        List<String> valores = separarCsv(linea);
+        if (valores.size() != encabezado.size()) {
+            throw new BusinessLogicException("La fila tiene " + valores.size() + " columnas y el encabezado " + encabezado.size());
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            campos.put(encabezado.get(i), valores.get(i));
+        }
+        return campos;
+    }
+
+    /**
+     * Separa una línea CSV en sus valores. Los valores entre comillas pueden
+     * contener comas y comillas dobles escritas como "". Un valor no puede
+     * ocupar varias líneas.
+     */
+    private static List<String> separarCsv(String linea) throws BusinessLogicException {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    actual.append(c);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new BusinessLogicException("La fila tiene comillas sin cerrar");
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    private static Map<String, String> leerJson(String linea) throws BusinessLogicException {
+        JsonNode objeto;
+        try {
+            objeto = JSON.readTree(linea);
+        } catch (JsonProcessingException e) {
+            throw new BusinessLogicException("La fila no es un JSON válido");
+        }
+        if (!objeto.isObject()) {
+            throw new BusinessLogicException("La fila debe ser un objeto JSON");
+        }
+        Map<String, String> campos = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> atributos = objeto.fields();
+        while (atributos.hasNext()) {
+            Map.Entry<String, JsonNode> atributo = atributos.next();
+            campos.put(atributo.getKey(), atributo.getValue().isNull() ? null : atributo.getValue().asText());
+        }
+        return campos;
+    }
+
+    /**
+     * Fila válida leída del archivo. La referencia es la clave natural de la
+     * entidad a la que pertenece (login del usuario o número de la cuenta)
+     */
+    private record Fila(long linea, BaseEntity entidad, String referencia) {
+    }
+
+    private record ErrorFila(long linea, String mensaje) {
+    }
+
+    private record Lote(List<Fila> filas, List<ErrorFila> errores) {
+
+        static final Lote FIN = new Lote(List.of(), List.of());
+
+        static Lote nuevo() {
+            return new Lote(new ArrayList<>(), new ArrayList<>());
+        }
+    }
+
+    /**
+     * Estado de una importación: contadores, archivo de errores y registro del
+     * progreso. Solo lo usa el hilo que guarda los lotes.
+     */
+    private final class Ejecucion {
+
+        private final BufferedWriter errores;
+        private final long inicio = System.nanoTime();
+        private long filas;
+        private long importadas;
+        private long rechazadas;
+        private long ultimoProgreso = System.nanoTime();
+
+        Ejecucion(BufferedWriter errores) {
+            this.errores = errores;
+        }
+
+        void registrar(int filasLote, int importadasLote, List<ErrorFila> rechazosLote) throws IOException {
+            rechazosLote.sort((a, b) -> Long.compare(a.linea(), b.linea()));
+            for (ErrorFila rechazo : rechazosLote) {
+                errores.write(rechazo.linea() + ",\"" + rechazo.mensaje().replace("\"", "\"\"") + "\"");
+                errores.newLine();
+            }
+            filas += filasLote;
+            importadas += importadasLote;
+            rechazadas += rechazosLote.size();
+
+            long ahora = System.nanoTime();
+            if (ahora - ultimoProgreso >= intervaloProgreso.toNanos()) {
+                ultimoProgreso = ahora;
+                log.info("Importación: {} filas, {} importadas, {} rechazadas, {} filas/s", filas, importadas, rechazadas,
+                        Math.round(filasPorSegundo()));
+            }
+        }
+
+        private double filasPorSegundo() {
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            return segundos > 0 ? filas / segundos : 0;
+        }
+
+        ImportReport reporte(Path archivoErrores) {
+            return new ImportReport(filas, importadas, rechazadas, (System.nanoTime() - inicio) / 1_000_000,
+                    filasPorSegundo(), archivoErrores.toString());
+        }
+    }
+}
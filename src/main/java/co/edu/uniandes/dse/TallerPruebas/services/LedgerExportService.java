@@ -0,0 +1,165 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.LedgerExportReport;
+import co.edu.uniandes.dse.TallerPruebas.dto.LedgerSummary;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa la exportación del libro contable completo a un
+ * archivo binario (ver LedgerFileWriter) y la lectura de sus totales.
+ *
+ * Los movimientos se leen por páginas en orden de id (keyset), como columnas
+ * sueltas y sin crear entidades, y se escriben a medida que llegan, así que la
+ * memoria usada solo depende del tamaño de la página. Todas las páginas se
+ * leen en una misma transacción de solo lectura REPEATABLE_READ para que el
+ * archivo corresponda a un mismo instante del libro, aunque haya
+ * transferencias en curso.
+ */
+@Slf4j
+@Service
+public class LedgerExportService {
+
+    private static final int PAGINAS_POR_PROGRESO = 100;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${ledger.export.page-size:10000}")
+    private int tamanoPagina;
+
+    /**
+     * Exporta todos los movimientos del libro contable. El archivo se escribe
+     * con la extensión .part y se renombra al terminar, así que quien lo lea
+     * nunca encuentra una exportación a medias.
+     *
+     * @param archivo archivo de destino; si existe se reemplaza
+     * @return resumen de la exportación
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public LedgerExportReport exportar(Path archivo) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".part");
+        long inicio = System.nanoTime();
+        log.info("Inicia la exportación del libro contable a {} en páginas de {} movimientos", archivo, tamanoPagina);
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        transaccion.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        LedgerFileWriter escritor = new LedgerFileWriter(temporal);
+        try {
+            try (escritor) {
+                transaccion.executeWithoutResult(status -> exportarPaginas(escritor));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+
+        long duracion = System.nanoTime() - inicio;
+        double segundos = duracion / 1_000_000_000.0;
+        LedgerExportReport reporte = new LedgerExportReport(escritor.getRegistros(), escritor.getUltimoId(), Files.size(archivo),
+                duracion / 1_000_000, segundos > 0 ? escritor.getRegistros() / segundos : 0, archivo.toString());
+        log.info("Termina la exportación del libro contable: {} movimientos, {} bytes, {} ms ({} movimientos/s)",
+                reporte.getRegistros(), reporte.getBytes(), reporte.getDuracionMillis(), Math.round(reporte.getRegistrosPorSegundo()));
+        return reporte;
+    }
+
+    private void exportarPaginas(LedgerFileWriter escritor) {
+        try {
+            long ultimoId = 0;
+            int paginas = 0;
+            List<Object[]> pagina;
+            do {
+                pagina = transactionRepository.findLedgerPage(ultimoId, tamanoPagina);
+                for (Object[] fila : pagina) {
+                    ultimoId = ((Number) fila[0]).longValue();
+                    escritor.escribir(ultimoId,
+                            fila[1] != null ? ((Number) fila[1]).longValue() : 0L,
+                            epochMillis(fila[2]),
+                            fila[3] != null ? ((Number) fila[3]).longValue() : 0L,
+                            tipo((String) fila[4], fila[5] != null));
+                }
+                if (++paginas % PAGINAS_POR_PROGRESO == 0) {
+                    log.info("Exportación del libro contable: {} movimientos", escritor.getRegistros());
+                }
+            } while (pagina.size() == tamanoPagina);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Calcula los totales de un archivo exportado, leyéndolo una sola vez y sin
+     * cargarlo en el heap. Los totales se comparan con los de la conciliación
+     * de la base de datos.
+     *
+     * @param archivo archivo escrito por exportar
+     * @return totales del archivo
+     * @throws IOException si el archivo no existe, está incompleto o está dañado
+     */
+    public LedgerSummary resumir(Path archivo) throws IOException {
+        try (LedgerFileReader lector = new LedgerFileReader(archivo)) {
+            long anterior = 0;
+            long netoEntreCuentas = 0;
+            long haciaBolsillos = 0;
+            while (lector.siguiente()) {
+                if (lector.getId() <= anterior) {
+                    throw new IOException("Los movimientos del archivo no están en orden de id");
+                }
+                anterior = lector.getId();
+                long monto = lector.isEntrada() ? lector.getMontoCents() : -lector.getMontoCents();
+                if (lector.isBolsillo()) {
+                    haciaBolsillos -= monto;
+                } else {
+                    netoEntreCuentas += monto;
+                }
+            }
+            return new LedgerSummary(lector.getRegistros(), lector.getUltimoId(), Money.ofCents(netoEntreCuentas),
+                    Money.ofCents(haciaBolsillos));
+        }
+    }
+
+    private static byte tipo(String tipo, boolean bolsillo) {
+        byte codigo = "ENTRADA".equals(tipo) ? LedgerFileWriter.ENTRADA : LedgerFileWriter.SALIDA;
+        return bolsillo ? (byte) (codigo | LedgerFileWriter.BOLSILLO) : codigo;
+    }
+
+    private static long epochMillis(Object fecha) {
+        // NOTE: Según el driver, las columnas timestamp de una consulta nativa llegan como Timestamp, LocalDateTime o Instant
+        if (fecha instanceof Date date) {
+            return date.getTime();
+        }
+        if (fecha instanceof LocalDateTime localDateTime) {
+            return Timestamp.valueOf(localDateTime).getTime();
+        }
+        if (fecha instanceof Instant instant) {
+            return instant.toEpochMilli();
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,139 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lee un archivo escrito por LedgerFileWriter, un movimiento a la vez.
+ *
+ * El archivo se mapea en memoria por regiones de a lo sumo 256 MB que
+ * contienen un número entero de registros, así que leer no copia los datos al
+ * heap ni crea un objeto por movimiento: siguiente() avanza al próximo
+ * registro y los getters devuelven sus campos.
+ */
+public final class LedgerFileReader implements AutoCloseable {
+
+    private static final long REGISTROS_POR_REGION = (256L * 1024 * 1024) / LedgerFileWriter.TAMANO_REGISTRO;
+
+    private final FileChannel canal;
+    private final long registros;
+    private final long ultimoId;
+    private MappedByteBuffer region;
+    private long leidos;
+
+    private long id;
+    private long accountId;
+    private long fechaMillis;
+    private long montoCents;
+    private byte tipo;
+
+    public LedgerFileReader(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            if (canal.size() < LedgerFileWriter.TAMANO_ENCABEZADO) {
+                throw new IOException("El archivo no es una exportación del libro contable");
+            }
+            ByteBuffer encabezado = ByteBuffer.allocate(LedgerFileWriter.TAMANO_ENCABEZADO).order(ByteOrder.LITTLE_ENDIAN);
+            while (encabezado.hasRemaining()) {
+                canal.read(encabezado, encabezado.position());
+            }
+            encabezado.flip();
+            if (encabezado.getInt() != LedgerFileWriter.MAGICO) {
+                throw new IOException("El archivo no es una exportación del libro contable");
+            }
+            int version = encabezado.getInt();
+            if (version != LedgerFileWriter.VERSION) {
+                throw new IOException("La versión " + version + " del archivo no es soportada");
+            }
+            registros = encabezado.getLong();
+            ultimoId = encabezado.getLong();
+            if (registros < 0) {
+                throw new IOException("La exportación del archivo no terminó");
+            }
+            if (canal.size() != LedgerFileWriter.TAMANO_ENCABEZADO + registros * LedgerFileWriter.TAMANO_REGISTRO) {
+                throw new IOException("El tamaño del archivo no corresponde a sus " + registros + " registros");
+            }
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return número de movimientos del archivo
+     */
+    public long getRegistros() {
+        return registros;
+    }
+
+    /**
+     * @return id del último movimiento del archivo, o 0 si está vacío
+     */
+    public long getUltimoId() {
+        return ultimoId;
+    }
+
+    /**
+     * Avanza al siguiente movimiento.
+     *
+     * @return false si ya no quedan movimientos
+     */
+    public boolean siguiente() throws IOException {
+        if (leidos == registros) {
+            return false;
+        }
+        if (region == null || !region.hasRemaining()) {
+            long cantidad = Math.min(REGISTROS_POR_REGION, registros - leidos);
+            region = canal.map(FileChannel.MapMode.READ_ONLY,
+                    LedgerFileWriter.TAMANO_ENCABEZADO + leidos * LedgerFileWriter.TAMANO_REGISTRO,
+                    cantidad * LedgerFileWriter.TAMANO_REGISTRO);
+            region.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        id = region.getLong();
+        accountId = region.getLong();
+        fechaMillis = region.getLong();
+        montoCents = region.getLong();
+        tipo = region.get();
+        leidos++;
+        return true;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public long getFechaMillis() {
+        return fechaMillis;
+    }
+
+    public long getMontoCents() {
+        return montoCents;
+    }
+
+    public byte getTipo() {
+        return tipo;
+    }
+
+    public boolean isEntrada() {
+        return (tipo & LedgerFileWriter.ENTRADA) != 0;
+    }
+
+    public boolean isBolsillo() {
+        return (tipo & LedgerFileWriter.BOLSILLO) != 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        canal.close();
+    }
+}
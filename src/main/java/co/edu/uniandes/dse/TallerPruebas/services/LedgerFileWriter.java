@@ -0,0 +1,104 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escribe el libro contable en un archivo binario de registros de ancho fijo.
+ *
+ * El archivo empieza con un encabezado de 24 bytes: el número mágico "LDGR",
+ * la versión del formato (int), el número de registros (long, -1 mientras la
+ * exportación no ha terminado) y el id del último movimiento (long). Cada
+ * movimiento ocupa 33 bytes: id, id de la cuenta, fecha en milisegundos desde
+ * epoch y monto en centavos (long cada uno) y el tipo (un byte). Todos los
+ * valores están en little-endian, así que el archivo se puede leer
+ * directamente como un arreglo de registros.
+ *
+ * Los registros se acumulan en un buffer directo y se escriben al canal
+ * cuando se llena, así que la memoria usada no depende del número de
+ * movimientos.
+ */
+public final class LedgerFileWriter implements AutoCloseable {
+
+    static final int MAGICO = 0x5247444C; // "LDGR" en little-endian
+    static final int VERSION = 1;
+    static final int TAMANO_ENCABEZADO = 24;
+    static final int TAMANO_REGISTRO = 33;
+
+    public static final byte ENTRADA = 1;
+    public static final byte SALIDA = 2;
+    // NOTE: Bit que marca los movimientos hacia o desde un bolsillo; se combina con ENTRADA o SALIDA
+    public static final byte BOLSILLO = 0x10;
+
+    private static final int TAMANO_BUFFER = TAMANO_REGISTRO * 32 * 1024;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+    private long registros;
+    private long ultimoId;
+
+    public LedgerFileWriter(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        escribirEncabezado(-1);
+    }
+
+    /**
+     * Agrega un movimiento al archivo. Los movimientos se deben escribir en
+     * orden de id.
+     */
+    public void escribir(long id, long accountId, long fechaMillis, long montoCents, byte tipo) throws IOException {
+        if (buffer.remaining() < TAMANO_REGISTRO) {
+            vaciar();
+        }
+        buffer.putLong(id).putLong(accountId).putLong(fechaMillis).putLong(montoCents).put(tipo);
+        registros++;
+        ultimoId = id;
+    }
+
+    public long getRegistros() {
+        return registros;
+    }
+
+    public long getUltimoId() {
+        return ultimoId;
+    }
+
+    /**
+     * Escribe los registros pendientes y completa el encabezado. Un archivo
+     * que no se cierra queda marcado como incompleto.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            vaciar();
+            escribirEncabezado(registros);
+            canal.force(true);
+        } finally {
+            canal.close();
+        }
+    }
+
+    private void escribirEncabezado(long totalRegistros) throws IOException {
+        ByteBuffer encabezado = ByteBuffer.allocate(TAMANO_ENCABEZADO).order(ByteOrder.LITTLE_ENDIAN);
+        encabezado.putInt(MAGICO).putInt(VERSION).putLong(totalRegistros).putLong(ultimoId).flip();
+        long posicion = 0;
+        while (encabezado.hasRemaining()) {
+            posicion += canal.write(encabezado, posicion);
+        }
+        if (totalRegistros < 0) {
+            canal.position(TAMANO_ENCABEZADO);
+        }
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
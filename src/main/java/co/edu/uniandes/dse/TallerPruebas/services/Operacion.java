@@ -0,0 +1,12 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+
+/**
+ * Operación de negocio que puede lanzar las excepciones de los servicios.
+ */
+@FunctionalInterface
+public interface Operacion<T> {
+    T ejecutar() throws EntityNotFoundException, BusinessLogicException;
+}
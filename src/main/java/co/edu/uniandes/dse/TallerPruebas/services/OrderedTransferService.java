@@ -0,0 +1,192 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transferencias entre cuentas ejecutadas en orden por cuenta, sin esperas por
+ * bloqueos de filas.
+ *
+ * Cada cuenta tiene un carril según su id (transfer.ordered.lanes carriles,
+ * cada uno con un hilo y una cola). Una transferencia se ejecuta en el carril
+ * de sus cuentas, así que dos transferencias que tocan la misma cuenta nunca
+ * corren a la vez y no se esperan en la base de datos; las de cuentas de
+ * carriles distintos corren en paralelo. Si las dos cuentas están en carriles
+ * distintos, la transferencia corre en el carril menor y reserva el mayor
+ * mientras tanto; como un carril solo espera a carriles mayores, las reservas
+ * no forman ciclos.
+ *
+ * La transferencia la hace TransactionService.transferirACuenta, con sus
+ * validaciones, reintentos, idempotencia y métricas; los bloqueos de filas
+ * siguen protegiendo las cuentas de las operaciones que no pasan por los
+ * carriles (bolsillos, lotes).
+ */
+@Slf4j
+@Service
+public class OrderedTransferService {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    // NOTE: Cada carril ocupa a lo sumo una conexión a la vez; más carriles que conexiones en el pool solo agregan espera
+    @Value("${transfer.ordered.lanes:8}")
+    private int numeroCarriles;
+
+    @Value("${transfer.ordered.queue-capacity:10000}")
+    private int capacidadCola;
+
+    private Carril[] carriles;
+
+    /**
+     * Carril de ejecución: un hilo que ejecuta las tareas de su cola en orden.
+     */
+    private static final class Carril implements Runnable {
+
+        private static final Runnable FIN = () -> {
+        };
+
+        private final BlockingQueue<Runnable> cola;
+
+        private Carril(int capacidadCola) {
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        }
+
+        /**
+         * Agrega una tarea al carril. Si la cola está llena, quien envía espera.
+         */
+        void enviar(Runnable tarea) {
+            // NOTE: No se abandona el envío si el hilo se interrumpe: una reserva perdida dejaría esperando al carril que la pidió
+            boolean interrumpido = false;
+            while (true) {
+                try {
+                    cola.put(tarea);
+                    break;
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable tarea;
+                while ((tarea = cola.take()) != FIN) {
+                    try {
+                        tarea.run();
+                    } catch (RuntimeException e) {
+                        log.error("Error inesperado en un carril de transferencias", e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        carriles = new Carril[numeroCarriles];
+        for (int i = 0; i < numeroCarriles; i++) {
+            carriles[i] = new Carril(capacidadCola);
+            Thread.ofPlatform().name("carril-transferencias-" + i).daemon().start(carriles[i]);
+        }
+        log.info("Inician {} carriles de transferencias ordenadas", numeroCarriles);
+    }
+
+    @PreDestroy
+    void detener() {
+        // NOTE: Las transferencias ya encoladas se ejecutan antes de que cada carril termine
+        for (Carril carril : carriles) {
+            carril.enviar(Carril.FIN);
+        }
+    }
+
+    public CompletableFuture<String> transferirACuenta(Long cOrigen, Long cDestino, Money monto) {
+        return transferirACuenta(cOrigen, cDestino, monto, null);
+    }
+
+    /**
+     * Encola una transferencia entre cuentas en el carril de sus cuentas. Las
+     * transferencias que tocan una misma cuenta se ejecutan una tras otra, en
+     * el orden en que llegan a su carril.
+     *
+     * @param claveIdempotencia clave enviada por el cliente, o null si no usa una
+     * @return futuro con el mismo mensaje de TransactionService.transferirACuenta,
+     *         o que falla con EntityNotFoundException o BusinessLogicException
+     */
+    public CompletableFuture<String> transferirACuenta(Long cOrigen, Long cDestino, Money monto, String claveIdempotencia) {
+        CompletableFuture<String> resultado = new CompletableFuture<>();
+        Operacion<String> transferencia = () -> transactionService.transferirACuenta(cOrigen, cDestino, monto, claveIdempotencia);
+        int primero = Math.min(carril(cOrigen), carril(cDestino));
+        int segundo = Math.max(carril(cOrigen), carril(cDestino));
+
+        // 1. Si las dos cuentas están en el mismo carril, la transferencia se ejecuta ahí
+        if (primero == segundo) {
+            carriles[primero].enviar(() -> ejecutar(transferencia, resultado));
+            return resultado;
+        }
+
+        // 2. Si no, se ejecuta en el carril menor después de reservar el mayor
+        carriles[primero].enviar(() -> {
+            CountDownLatch reservado = new CountDownLatch(1);
+            CountDownLatch liberado = new CountDownLatch(1);
+            carriles[segundo].enviar(() -> {
+                reservado.countDown();
+                esperar(liberado);
+            });
+            esperar(reservado);
+            try {
+                ejecutar(transferencia, resultado);
+            } finally {
+                liberado.countDown();
+            }
+        });
+        return resultado;
+    }
+
+    private int carril(Long accountId) {
+        // NOTE: Un id en null va al carril 0; la validación de TransactionService responde que la cuenta no existe
+        return accountId != null ? (int) Math.floorMod(accountId, (long) carriles.length) : 0;
+    }
+
+    private static void ejecutar(Operacion<String> transferencia, CompletableFuture<String> resultado) {
+        try {
+            resultado.complete(transferencia.ejecutar());
+        } catch (EntityNotFoundException | BusinessLogicException | RuntimeException e) {
+            resultado.completeExceptionally(e);
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        // NOTE: Los carriles no se interrumpen; si pasa, se sigue esperando para no romper el orden
+        boolean interrumpido = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
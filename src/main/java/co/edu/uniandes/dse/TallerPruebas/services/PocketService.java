@@ -1,16 +1,18 @@
 package co.edu.uniandes.dse.TallerPruebas.services;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
 import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
 import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountSaldoView;
 import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,6 +29,32 @@ public class PocketService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private TransactionRunner transactionRunner;
+
+    @Autowired
+    private OperationMetrics metrics;
+
+    @Autowired
+    private AccountSnapshotCache accountSnapshotCache;
+
+    /**
+     * Obtiene los bolsillos de una cuenta.
+     *
+     * @param accountId id de la cuenta
+     * @return bolsillos de la cuenta
+     * @throws EntityNotFoundException si la cuenta no existe
+     */
+    public List<PocketEntity> getPockets(Long accountId) throws EntityNotFoundException {
+        log.info("Inicia proceso de consultar los bolsillos de la cuenta con id = {}", accountId);
+        if (!accountRepository.existsById(accountId)) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        List<PocketEntity> pockets = pocketRepository.findByAccountId(accountId);
+        log.info("Termina proceso de consultar los bolsillos de la cuenta con id = {}", accountId);
+        return pockets;
+    }
+
     /**
      * Crea un bolsillo para una cuenta.
      * 
@@ -36,12 +64,16 @@ public class PocketService {
      * @throws EntityNotFoundException si la cuenta no existe
      * @throws BusinessLogicException si la cuenta está bloqueada o si ya existe un bolsillo con el mismo nombre en la cuenta
      */
-    @Transactional
     public PocketEntity createPocket(Long accountId, PocketEntity pocketEntity) throws EntityNotFoundException, BusinessLogicException {
-        log.info("Inicia proceso de creación de un bolsillo para la cuenta con id = {}", accountId);
-        
+        return metrics.medir(OperationMetrics.CREATE_POCKET, accountId, pocketEntity.getNombre(),
+                () -> transactionRunner.enTransaccion(() -> crearBolsillo(accountId, pocketEntity)));
+    }
+
+    private PocketEntity crearBolsillo(Long accountId, PocketEntity pocketEntity) throws EntityNotFoundException, BusinessLogicException {
+        // NOTE: El resultado de la creación lo registra OperationMetrics en una sola línea
         // 1. Verificar que la cuenta existe
-        Optional<AccountEntity> accountEntity = accountRepository.findById(accountId);
+        // NOTE: Solo se leen las columnas necesarias para validar; la cuenta no se carga como entidad
+        Optional<AccountSaldoView> accountEntity = accountRepository.findSaldoById(accountId);
         if (accountEntity.isEmpty()) {
             throw new EntityNotFoundException("La cuenta no existe");
         }
@@ -52,15 +84,20 @@ public class PocketService {
         }
 
         // 3. Verificar que no exista un bolsillo con el mismo nombre en esa cuenta
-        for (PocketEntity p : accountEntity.get().getPockets()) {
-            if (p.getNombre().equals(pocketEntity.getNombre())) {
-                throw new BusinessLogicException("Ya existe un bolsillo con el mismo nombre en esta cuenta");
-            }
+        if (pocketRepository.existsByAccountIdAndNombre(accountId, pocketEntity.getNombre())) {
+            throw new BusinessLogicException("Ya existe un bolsillo con el mismo nombre en esta cuenta");
         }
 
         // 4. Asociar el bolsillo a la cuenta y guardar
-        pocketEntity.setAccount(accountEntity.get());
-        log.info("Termina proceso de creación de un bolsillo para la cuenta con id = {}", accountId);
+        // NOTE: Un bolsillo sin saldo inicial empieza en cero para que las transferencias puedan sumarle
+        if (pocketEntity.getSaldo() == null) {
+            pocketEntity.setSaldo(Money.ZERO);
+        }
+        // NOTE: El saldo inicial no pasa por el libro contable; se guarda para que la conciliación parta de él
+        pocketEntity.setSaldoInicial(pocketEntity.getSaldo());
+        pocketEntity.setAccount(accountRepository.getReferenceById(accountId));
+        // NOTE: El resumen de bolsillos de la cuenta cambia, así que su foto en caché deja de ser válida
+        accountSnapshotCache.invalidarDespuesDelCommit(accountId);
         return pocketRepository.save(pocketEntity);
     }
 }
@@ -0,0 +1,136 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante no bloqueante de las transferencias y de la creación de bolsillos,
+ * para clientes reactivos.
+ *
+ * Los métodos retornan un Mono y no bloquean a quien se suscribe: la operación
+ * la hacen TransactionService y PocketService, con sus mismas validaciones,
+ * reintentos, idempotencia y métricas, en un pool fijo de
+ * transfer.reactive.threads hilos. Las operaciones que esperan un hilo quedan
+ * en una cola de transfer.reactive.queue-capacity; si la cola está llena, el
+ * Mono falla de inmediato con RejectedExecutionException (la API responde 503)
+ * en vez de acumular operaciones o crear más hilos. Así, el número de hilos no
+ * depende del número de peticiones en curso.
+ *
+ * Como JPA y el driver de H2 son bloqueantes, no hay una versión reactiva de la
+ * base de datos: el pool solo aísla los hilos que esperan a la base de datos.
+ */
+@Slf4j
+@Service
+public class ReactiveTransferService {
+
+    private static final String MENSAJE_SATURADO = "Hay demasiadas operaciones en curso, intenta de nuevo más tarde";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PocketService pocketService;
+
+    // NOTE: Cada hilo ocupa a lo sumo una conexión a la vez; más hilos que conexiones en el pool solo agregan espera
+    @Value("${transfer.reactive.threads:10}")
+    private int numeroHilos;
+
+    @Value("${transfer.reactive.queue-capacity:10000}")
+    private int capacidadCola;
+
+    private ThreadPoolExecutor hilos;
+
+    @PostConstruct
+    void iniciar() {
+        hilos = new ThreadPoolExecutor(numeroHilos, numeroHilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                Thread.ofPlatform().name("transferencias-reactivas-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Inicia el pool de transferencias reactivas con {} hilos y una cola de {}", numeroHilos, capacidadCola);
+    }
+
+    @PreDestroy
+    void detener() {
+        // NOTE: Las operaciones ya encoladas se ejecutan antes de que los hilos terminen
+        hilos.shutdown();
+    }
+
+    public Mono<String> transferirACuenta(Long cOrigen, Long cDestino, Money monto) {
+        return transferirACuenta(cOrigen, cDestino, monto, null);
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas sin bloquear a quien se suscribe.
+     *
+     * @param claveIdempotencia clave enviada por el cliente, o null si no usa una
+     * @return Mono con el mismo mensaje de TransactionService.transferirACuenta,
+     *         o que falla con EntityNotFoundException, BusinessLogicException o,
+     *         si el pool está saturado, RejectedExecutionException
+     */
+    public Mono<String> transferirACuenta(Long cOrigen, Long cDestino, Money monto, String claveIdempotencia) {
+        return ejecutar(() -> transactionService.transferirACuenta(cOrigen, cDestino, monto, claveIdempotencia));
+    }
+
+    public Mono<String> transferirABolsillo(Long accountId, String nombreBolsillo, Money monto) {
+        return transferirABolsillo(accountId, nombreBolsillo, monto, null);
+    }
+
+    /**
+     * Transfiere dinero de una cuenta a uno de sus bolsillos sin bloquear a
+     * quien se suscribe.
+     *
+     * @param claveIdempotencia clave enviada por el cliente, o null si no usa una
+     * @return Mono con el mismo mensaje de TransactionService.transferirABolsillo,
+     *         o que falla con EntityNotFoundException, BusinessLogicException o,
+     *         si el pool está saturado, RejectedExecutionException
+     */
+    public Mono<String> transferirABolsillo(Long accountId, String nombreBolsillo, Money monto, String claveIdempotencia) {
+        return ejecutar(() -> transactionService.transferirABolsillo(accountId, nombreBolsillo, monto, claveIdempotencia));
+    }
+
+    /**
+     * Crea un bolsillo para una cuenta sin bloquear a quien se suscribe.
+     *
+     * @return Mono con el bolsillo creado por PocketService.createPocket, o que
+     *         falla con EntityNotFoundException, BusinessLogicException o, si el
+     *         pool está saturado, RejectedExecutionException
+     */
+    public Mono<PocketEntity> createPocket(Long accountId, PocketEntity pocketEntity) {
+        return ejecutar(() -> pocketService.createPocket(accountId, pocketEntity));
+    }
+
+    /**
+     * Encola la operación en el pool cada vez que alguien se suscribe al Mono.
+     * Es visible en el paquete para que las pruebas puedan ocupar el pool.
+     */
+    <T> Mono<T> ejecutar(Callable<T> operacion) {
+        return Mono.create(sink -> {
+            try {
+                hilos.execute(() -> {
+                    // NOTE: Si el suscriptor cancela, la operación igual termina; no se interrumpe a mitad de una transacción
+                    try {
+                        sink.success(operacion.call());
+                    } catch (Exception e) {
+                        sink.error(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                sink.error(new RejectedExecutionException(MENSAJE_SATURADO, e));
+            }
+        });
+    }
+}
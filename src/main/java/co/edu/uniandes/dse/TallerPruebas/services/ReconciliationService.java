@@ -0,0 +1,274 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.ReconciliationReport;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceSnapshotRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa la conciliación de los saldos de todas las cuentas
+ * contra los bolsillos y el libro contable.
+ *
+ * Para cada cuenta se verifica que:
+ * - LIBRO: el saldo (con el de sus franjas, si las tiene) coincide con su
+ *   última foto de saldo más los movimientos posteriores (las cuentas sin
+ *   foto se cuentan pero no se verifican).
+ * - BOLSILLOS: la suma de los saldos de sus bolsillos coincide con la de sus
+ *   saldos iniciales (los que traían al crearlos o importarlos) más el dinero
+ *   que el libro contable registra como movido hacia ellos.
+ * Además, la suma de todos los movimientos entre cuentas debe ser cero.
+ *
+ * Las cuentas se recorren por rangos de id que se procesan en paralelo. Cada
+ * rango se lee con consultas agregadas (SUM agrupado por cuenta) dentro de una
+ * transacción de solo lectura REPEATABLE_READ, así que sus cifras son
+ * consistentes entre sí aunque haya transferencias en curso. La memoria usada
+ * depende del tamaño de los rangos y del paralelismo, no del número de
+ * cuentas: las discrepancias se escriben a un CSV a medida que aparecen.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    public static final String LIBRO = "LIBRO";
+    public static final String BOLSILLOS = "BOLSILLOS";
+
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${reconciliation.chunk-size:10000}")
+    private int tamanoBloque;
+
+    // NOTE: Cada rango en curso usa una conexión, así que no debe superar el tamaño del pool
+    @Value("${reconciliation.parallelism:4}")
+    private int paralelismo;
+
+    @Value("${reconciliation.report-dir:./reports}")
+    private String directorioReportes;
+
+    @Value("${reconciliation.progress-interval:PT10S}")
+    private Duration intervaloProgreso;
+
+    /**
+     * Concilia todas las cuentas y escribe las discrepancias en un CSV en
+     * reconciliation.report-dir.
+     *
+     * @return resumen de la conciliación
+     * @throws IOException si no se puede escribir el reporte
+     */
+    public ReconciliationReport conciliar() throws IOException {
+        Path directorio = Files.createDirectories(Path.of(directorioReportes));
+        Path archivo = directorio.resolve("conciliacion-" + LocalDateTime.now().format(FORMATO_ARCHIVO) + ".csv");
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        long totalCuentas = accountRepository.count();
+        log.info("Inicia la conciliación de {} cuentas en rangos de {} ids con paralelismo {}", totalCuentas, tamanoBloque, paralelismo);
+
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo)) {
+            salida.write("cuenta,tipo,esperado,actual,diferencia");
+            salida.newLine();
+            Ejecucion ejecucion = new Ejecucion(salida, totalCuentas);
+            if (minId != null) {
+                recorrer(minId, maxId, ejecucion);
+            }
+            ReconciliationReport reporte = ejecucion.reporte(archivo);
+            log.info("Termina la conciliación: {} cuentas, {} sin foto, {} discrepancias, neto entre cuentas {}, {} ms ({} cuentas/s)",
+                    reporte.getCuentas(), reporte.getCuentasSinFoto(), reporte.getDiscrepancias(), reporte.getNetoEntreCuentas(),
+                    reporte.getDuracionMillis(), Math.round(reporte.getCuentasPorSegundo()));
+            return reporte;
+        }
+    }
+
+    private void recorrer(long minId, long maxId, Ejecucion ejecucion) throws IOException {
+        Semaphore enCurso = new Semaphore(paralelismo);
+        AtomicReference<RuntimeException> error = new AtomicReference<>();
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long desde = minId; desde <= maxId && error.get() == null; desde += tamanoBloque) {
+                long inicioRango = desde;
+                long finRango = Math.min(desde + tamanoBloque, maxId + 1);
+                // NOTE: Se espera un cupo antes de crear la tarea para no tener más de paralelismo rangos en memoria
+                enCurso.acquireUninterruptibly();
+                ejecutor.submit(() -> {
+                    try {
+                        conciliarRango(inicioRango, finRango, ejecucion);
+                    } catch (RuntimeException e) {
+                        error.compareAndSet(null, e);
+                    } finally {
+                        enCurso.release();
+                    }
+                });
+            }
+        }
+        if (error.get() != null) {
+            if (error.get() instanceof UncheckedIOException e) {
+                throw e.getCause();
+            }
+            throw error.get();
+        }
+    }
+
+    private void conciliarRango(long desde, long hasta, Ejecucion ejecucion) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        transaccion.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transaccion.executeWithoutResult(status -> {
+            // 1. Leer los saldos de las cuentas del rango
+            List<Object[]> cuentas = accountRepository.findSaldosInRange(desde, hasta);
+            if (cuentas.isEmpty()) {
+                return;
+            }
+
+            // 2. Leer los totales por cuenta de bolsillos, fotos y libro contable
+            Map<Long, Long> saldosBolsillos = porCuenta(pocketRepository.sumSaldosByAccountInRange(desde, hasta));
+            Map<Long, Long> saldosInicialesBolsillos = porCuenta(pocketRepository.sumSaldosInicialesByAccountInRange(desde, hasta));
+            Map<Long, Long> movimientosBolsillos = porCuenta(transactionRepository.sumPocketMovementsByAccountInRange(desde, hasta));
+            Map<Long, Long> fotos = porCuenta(balanceSnapshotRepository.findLatestSaldosInRange(desde, hasta));
+            Map<Long, Long> movimientosPosteriores = porCuenta(transactionRepository.sumMovementsAfterSnapshotByAccountInRange(desde, hasta));
+            long netoEntreCuentas = transactionRepository.sumAccountMovementsInRange(desde, hasta);
+
+            // 3. Comparar cada cuenta con sus totales
+            List<String> discrepancias = new ArrayList<>();
+            long sinFoto = 0;
+            for (Object[] fila : cuentas) {
+                long accountId = ((Number) fila[0]).longValue();
+                long saldo = fila[1] != null ? ((Number) fila[1]).longValue() : 0L;
+                Long foto = fotos.get(accountId);
+                if (foto == null) {
+                    sinFoto++;
+                } else {
+                    long esperado = foto + movimientosPosteriores.getOrDefault(accountId, 0L);
+                    if (esperado != saldo) {
+                        discrepancias.add(linea(accountId, LIBRO, esperado, saldo));
+                    }
+                }
+                long esperadoBolsillos = saldosInicialesBolsillos.getOrDefault(accountId, 0L) + movimientosBolsillos.getOrDefault(accountId, 0L);
+                long actualBolsillos = saldosBolsillos.getOrDefault(accountId, 0L);
+                if (esperadoBolsillos != actualBolsillos) {
+                    discrepancias.add(linea(accountId, BOLSILLOS, esperadoBolsillos, actualBolsillos));
+                }
+            }
+            ejecucion.registrar(cuentas.size(), sinFoto, netoEntreCuentas, discrepancias);
+        });
+    }
+
+    private static Map<Long, Long> porCuenta(List<Object[]> filas) {
+        Map<Long, Long> totales = new HashMap<>(filas.size() * 2);
+        for (Object[] fila : filas) {
+            totales.put(((Number) fila[0]).longValue(), fila[1] != null ? ((Number) fila[1]).longValue() : 0L);
+        }
+        return totales;
+    }
+
+    private static String linea(long accountId, String tipo, long esperado, long actual) {
+        return accountId + "," + tipo + "," + Money.ofCents(esperado) + "," + Money.ofCents(actual) + "," + Money.ofCents(actual - esperado);
+    }
+
+    /**
+     * Estado compartido por los rangos de una conciliación: contadores,
+     * archivo del reporte y registro del progreso.
+     */
+    private final class Ejecucion {
+
+        private final BufferedWriter salida;
+        // NOTE: ReentrantLock y no synchronized para no fijar los hilos virtuales mientras se escribe
+        private final ReentrantLock escritura = new ReentrantLock();
+        private final long totalCuentas;
+        private final long inicio = System.nanoTime();
+        private final AtomicLong cuentas = new AtomicLong();
+        private final AtomicLong cuentasSinFoto = new AtomicLong();
+        private final AtomicLong discrepancias = new AtomicLong();
+        private final AtomicLong netoEntreCuentas = new AtomicLong();
+        private final AtomicLong ultimoProgreso = new AtomicLong(System.nanoTime());
+
+        Ejecucion(BufferedWriter salida, long totalCuentas) {
+            this.salida = salida;
+            this.totalCuentas = totalCuentas;
+        }
+
+        void registrar(int cuentasRango, long sinFotoRango, long netoRango, List<String> discrepanciasRango) {
+            if (!discrepanciasRango.isEmpty()) {
+                escritura.lock();
+                try {
+                    for (String discrepancia : discrepanciasRango) {
+                        salida.write(discrepancia);
+                        salida.newLine();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    escritura.unlock();
+                }
+            }
+            long procesadas = cuentas.addAndGet(cuentasRango);
+            cuentasSinFoto.addAndGet(sinFotoRango);
+            discrepancias.addAndGet(discrepanciasRango.size());
+            netoEntreCuentas.addAndGet(netoRango);
+            reportarProgreso(procesadas);
+        }
+
+        private void reportarProgreso(long procesadas) {
+            long ahora = System.nanoTime();
+            long anterior = ultimoProgreso.get();
+            // NOTE: Solo el hilo que gana el compareAndSet escribe la línea de progreso del intervalo
+            if (ahora - anterior < intervaloProgreso.toNanos() || !ultimoProgreso.compareAndSet(anterior, ahora)) {
+                return;
+            }
+            log.info("Conciliación: {} de {} cuentas ({}%), {} cuentas/s, {} discrepancias", procesadas, totalCuentas,
+                    totalCuentas > 0 ? procesadas * 100 / totalCuentas : 100, Math.round(cuentasPorSegundo(procesadas)), discrepancias.get());
+        }
+
+        private double cuentasPorSegundo(long procesadas) {
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            return segundos > 0 ? procesadas / segundos : 0;
+        }
+
+        ReconciliationReport reporte(Path archivo) {
+            long procesadas = cuentas.get();
+            return new ReconciliationReport(procesadas, cuentasSinFoto.get(), discrepancias.get(),
+                    Money.ofCents(netoEntreCuentas.get()), (System.nanoTime() - inicio) / 1_000_000,
+                    cuentasPorSegundo(procesadas), archivo.toString());
+        }
+    }
+}
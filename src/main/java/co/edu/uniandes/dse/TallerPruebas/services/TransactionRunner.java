@@ -0,0 +1,41 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+
+/**
+ * Ejecuta operaciones de los servicios dentro de una transacción.
+ *
+ * Se usa en lugar de @Transactional cuando el servicio necesita hacer algo
+ * alrededor de la transacción completa (incluido el commit), como reintentarla
+ * o medir su duración.
+ */
+@Component
+public class TransactionRunner {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Ejecuta una operación dentro de una transacción (o se une a la actual) y
+     * hace rollback si la operación lanza cualquier excepción.
+     */
+    public <T> T enTransaccion(Operacion<T> operacion) throws EntityNotFoundException, BusinessLogicException {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        T resultado;
+        try {
+            resultado = operacion.ejecutar();
+        } catch (Throwable e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return resultado;
+    }
+}
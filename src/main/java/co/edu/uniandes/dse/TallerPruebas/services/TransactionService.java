@@ -1,17 +1,39 @@
 package co.edu.uniandes.dse.TallerPruebas.services;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferRequest;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferResult;
+import co.edu.uniandes.dse.TallerPruebas.engine.TransferEngine;
 import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceStripeEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
 import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
 import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
 import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
@@ -19,79 +41,493 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Service
 public class TransactionService {
+    // NOTE: Máximo de ids por consulta IN al cargar las cuentas de un lote
+    private static final int IDS_POR_CONSULTA = 1000;
+
+    private static final String ENTRADA = "ENTRADA";
+    private static final String SALIDA = "SALIDA";
+
+    // NOTE: Límites por defecto del extracto; se usan en vez de condiciones "is null" para que la consulta siempre use el índice
+    private static final Date FECHA_MINIMA = new Date(0);
+    private static final Date FECHA_MAXIMA = Date.from(Instant.parse("9999-12-31T23:59:59Z"));
+
+    // NOTE: Bloqueos por clave de idempotencia en modo MEMORY; la clave elige uno de ellos por su hash
+    private static final int BLOQUEOS_CLAVES = 64;
+
     @Autowired
     private AccountRepository accountRepository;
     
     @Autowired
     private PocketRepository pocketRepository;
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionRunner transactionRunner;
+
+    @Autowired
+    private OperationMetrics metrics;
+
+    @Autowired
+    private AccountSnapshotCache accountSnapshotCache;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private BalanceStripeService balanceStripeService;
+
+    @Value("${transfer.lock-mode:PESSIMISTIC}")
+    private TransferLockMode lockMode;
+
+    @Value("${transfer.max-retries:5}")
+    private int maxRetries;
+
+    // NOTE: Solo existe con transfer.engine=MEMORY o JOURNAL; en esos modos las transferencias las aplica el motor
+    @Autowired(required = false)
+    private TransferEngine motor;
+
+    private final ReentrantLock[] bloqueosClaves = crearBloqueos();
+
     // NOTE: Método que transfiere plata de una cuenta a un bolsillo
     // NOTE: El método retorna el saldo nuevo de la cuenta y del bolsillo después de la transferencia
-    @Transactional
-    public String transferirABolsillo(Long accountId, String nombreBolsillo, Double monto) throws EntityNotFoundException, BusinessLogicException {
-        log.info("Inicia proceso de transferir {} de la cuenta con id = {} al bolsillo {}", monto, accountId, nombreBolsillo);
-        
-        // 1. Verificar que la cuenta existe
-        Optional<AccountEntity> accountEntity = accountRepository.findById(accountId);
+    public String transferirABolsillo(Long accountId, String nombreBolsillo, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        return transferirABolsillo(accountId, nombreBolsillo, monto, null);
+    }
+
+    /**
+     * Transfiere dinero de una cuenta a uno de sus bolsillos. Con una clave de
+     * idempotencia la transferencia se hace una sola vez: las llamadas
+     * siguientes con la misma clave retornan el resultado original sin tocar
+     * las cuentas.
+     *
+     * @param claveIdempotencia clave enviada por el cliente, o null si no usa una
+     */
+    public String transferirABolsillo(Long accountId, String nombreBolsillo, Money monto, String claveIdempotencia) throws EntityNotFoundException, BusinessLogicException {
+        String solicitud = claveIdempotencia == null ? null
+                : OperationMetrics.TRANSFERIR_A_BOLSILLO + ":" + accountId + ":" + nombreBolsillo + ":" + monto;
+        if (motor != null) {
+            return ejecutarUnaVezConMotor(claveIdempotencia, solicitud, () -> metrics.medirTransferencia(OperationMetrics.TRANSFERIR_A_BOLSILLO, accountId, nombreBolsillo, monto,
+                    () -> transferirABolsilloConMotor(accountId, nombreBolsillo, monto)));
+        }
+        return ejecutarUnaVez(claveIdempotencia, solicitud, () -> metrics.medirTransferencia(OperationMetrics.TRANSFERIR_A_BOLSILLO, accountId, nombreBolsillo, monto,
+                () -> transactionRunner.enTransaccion(() -> registrarClave(claveIdempotencia, solicitud,
+                        ejecutarTransferenciaABolsillo(accountId, nombreBolsillo, monto)))));
+    }
+
+    private String transferirABolsilloConMotor(Long accountId, String nombreBolsillo, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        // NOTE: El bolsillo se busca en la base de datos; la validación y los saldos los maneja el motor
+        Optional<PocketEntity> bolsillo = pocketRepository.findWithAccountByAccountIdAndNombre(accountId, nombreBolsillo);
+        TransferEngine.SaldosBolsillo saldos = motor.transferirABolsillo(accountId,
+                bolsillo.map(PocketEntity::getId).orElse(null), bolsillo.map(PocketEntity::getSaldo).orElse(null), monto);
+        return "Transferencia realizada con éxito. El nuevo saldo de la cuenta es: " + saldos.cuenta() + " y el nuevo saldo del bolsillo es: " + saldos.bolsillo();
+    }
+
+    private String ejecutarTransferenciaABolsillo(Long accountId, String nombreBolsillo, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        // NOTE: El resultado de la transferencia lo registra OperationMetrics en una sola línea
+        // NOTE: Una cuenta con franjas se bloquea antes de leerla, para que su saldo disponible sea exacto (ver BalanceStripeService)
+        if (balanceStripeService.tieneFranjas(accountId)) {
+            accountRepository.findByIdForUpdate(accountId);
+        }
+
+        // 1. Buscar el bolsillo junto con su cuenta en una sola consulta
+        // NOTE: Solo si el bolsillo no se encuentra se consulta la cuenta por separado, para reportar el error correcto
+        Optional<PocketEntity> bolsillo = pocketRepository.findWithAccountByAccountIdAndNombre(accountId, nombreBolsillo);
+        Optional<AccountEntity> accountEntity = bolsillo.isPresent() ? Optional.of(bolsillo.get().getAccount())
+                : accountRepository.findById(accountId);
+
+        // 2. Verificar que la cuenta existe
         if (accountEntity.isEmpty()) {
             throw new EntityNotFoundException("La cuenta no existe");
         }
 
-        // 2. Verificar que la cuenta esté activa
+        // 3. Verificar que la cuenta esté activa
         if (!"ACTIVA".equals(accountEntity.get().getEstado())) {
             throw new BusinessLogicException("La cuenta debe estar en estado ACTIVA para transferir a bolsillos");
         }
 
-        // 3. Verificar que el bolsillo existe en esa cuenta
-        List<PocketEntity> bolsillos = accountEntity.get().getPockets();
-        int p = 0;
-        boolean existe = false;
-        PocketEntity bolsillo = null;
-        while (p < bolsillos.size() && !existe) {
-            if (bolsillos.get(p).getNombre().equals(nombreBolsillo)) {
-                existe = true;
-                bolsillo = bolsillos.get(p);
-            }
-            p++;
-        }
-        if (!existe) {
+        // 4. Verificar que el bolsillo existe en esa cuenta
+        if (bolsillo.isEmpty()) {
             throw new EntityNotFoundException("El bolsillo no existe");
         }
 
-        // 4. Verificar que el monto a transferir es positivo
-        if (monto <= 0) {
+        // 5. Verificar que el monto a transferir es positivo
+        if (monto == null || !monto.isPositive()) {
             throw new BusinessLogicException("El monto a transferir debe ser positivo");
         }
 
-        // 5. Verificar que la cuenta tiene saldo suficiente
-        if (accountEntity.get().getSaldo() < monto) {
-            throw new BusinessLogicException("La cuenta no tiene saldo suficiente para la transferencia");
+        // 6. Verificar que la cuenta tiene saldo suficiente
+        Money disponible = balanceStripeService.saldoDisponible(accountEntity.get());
+        if (disponible.isLessThan(monto)) {
+            throw new InsufficientFundsException("La cuenta no tiene saldo suficiente para la transferencia");
         }
-        // 6. Realizar la transferencia
+        // 7. Realizar la transferencia
         // NOTE: Aquí se actualizan los saldos de la cuenta y el bolsillo
-        Double saldoCuenta = accountEntity.get().getSaldo() - monto;
-        accountEntity.get().setSaldo(saldoCuenta);
+        // NOTE: En una cuenta con franjas la fila puede quedar en negativo mientras sus franjas lo cubran; el plegado lo corrige
+        Money saldoCuenta = disponible.minus(monto);
+        accountEntity.get().setSaldo(accountEntity.get().getSaldo().minus(monto));
         accountRepository.save(accountEntity.get());
 
-        Double saldoBolsillo = bolsillo.getSaldo() + monto;
-        bolsillo.setSaldo(saldoBolsillo);
-        pocketRepository.save(bolsillo);
-        
-        log.info("Termina proceso de transferir {} de la cuenta con id = {} al bolsillo {}", monto, accountId, nombreBolsillo);
+        Money saldoBolsillo = bolsillo.get().getSaldo().plus(monto);
+        bolsillo.get().setSaldo(saldoBolsillo);
+        pocketRepository.save(bolsillo.get());
+        accountSnapshotCache.invalidarDespuesDelCommit(accountId);
+
+        // 8. Registrar el movimiento en el libro contable
+        registrarMovimiento(accountEntity.get(), bolsillo.get(), monto, SALIDA, new Date());
+
         return "Transferencia realizada con éxito. El nuevo saldo de la cuenta es: " + saldoCuenta + " y el nuevo saldo del bolsillo es: " + saldoBolsillo;
     }
 
+    /**
+     * Transfiere dinero entre dos cuentas.
+     * 
+     * Las filas de ambas cuentas se bloquean siempre en orden de id, de modo que
+     * A->B y B->A concurrentes no pueden quedar en deadlock. Si la transacción
+     * falla por un conflicto de concurrencia (versión desactualizada o timeout de
+     * bloqueo) se reintenta hasta transfer.max-retries veces.
+     * 
+     * @param cOrigen id de la cuenta origen
+     * @param cDestino id de la cuenta destino
+     * @param monto monto a transferir
+     * @return mensaje con el nuevo saldo de la cuenta origen
+     * @throws EntityNotFoundException si alguna de las cuentas no existe
+     * @throws BusinessLogicException si la transferencia incumple alguna regla de negocio
+     */
+    public String transferirACuenta(Long cOrigen, Long cDestino, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        return transferirACuenta(cOrigen, cDestino, monto, null);
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas. Con una clave de idempotencia la
+     * transferencia se hace una sola vez: las llamadas siguientes con la misma
+     * clave retornan el resultado original sin tocar las cuentas, así que el
+     * cliente puede reintentar sin riesgo de mover el dinero dos veces.
+     *
+     * @param claveIdempotencia clave enviada por el cliente, o null si no usa una
+     * @throws BusinessLogicException también si la clave ya se usó para otra transferencia
+     */
+    public String transferirACuenta(Long cOrigen, Long cDestino, Money monto, String claveIdempotencia) throws EntityNotFoundException, BusinessLogicException {
+        String solicitud = claveIdempotencia == null ? null
+                : OperationMetrics.TRANSFERIR_A_CUENTA + ":" + cOrigen + ":" + cDestino + ":" + monto;
+        if (motor != null) {
+            return ejecutarUnaVezConMotor(claveIdempotencia, solicitud, () -> metrics.medirTransferencia(OperationMetrics.TRANSFERIR_A_CUENTA, cOrigen, cDestino, monto,
+                    () -> "Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + motor.transferir(cOrigen, cDestino, monto)));
+        }
+        return ejecutarUnaVez(claveIdempotencia, solicitud, () -> metrics.medirTransferencia(OperationMetrics.TRANSFERIR_A_CUENTA, cOrigen, cDestino, monto,
+                () -> transferirACuentaConReintentos(cOrigen, cDestino, monto, claveIdempotencia, solicitud)));
+    }
+
+    private String transferirACuentaConReintentos(Long cOrigen, Long cDestino, Money monto, String claveIdempotencia, String solicitud) throws EntityNotFoundException, BusinessLogicException {
+        // NOTE: Si ya hay una transacción abierta no tiene sentido reintentar, el conflicto la deja marcada para rollback
+        boolean puedeReintentar = !TransactionSynchronizationManager.isActualTransactionActive();
+        int intento = 1;
+        while (true) {
+            try {
+                return transactionRunner.enTransaccion(() -> registrarClave(claveIdempotencia, solicitud,
+                        ejecutarTransferenciaACuenta(cOrigen, cDestino, monto)));
+            } catch (ConcurrencyFailureException e) {
+                if (!puedeReintentar || intento >= maxRetries) {
+                    throw e;
+                }
+                log.warn("Conflicto de concurrencia transfiriendo de la cuenta con id = {} a la cuenta con id = {} (intento {})", cOrigen, cDestino, intento);
+                esperarAntesDeReintentar(intento, e);
+                intento++;
+            }
+        }
+    }
+
+    private String ejecutarTransferenciaACuenta(Long cOrigen, Long cDestino, Money monto) throws EntityNotFoundException, BusinessLogicException {
+        // NOTE: Si la cuenta destino tiene franjas, el crédito va a una de ellas: la franja se bloquea primero y la fila destino no se bloquea
+        Optional<BalanceStripeEntity> franja = balanceStripeService.reservarFranja(cDestino);
+
+        // NOTE: Las cuentas se cargan (y bloquean) en orden de id para evitar deadlocks
+        Optional<AccountEntity> cuentaOrigen;
+        Optional<AccountEntity> cuentaDestino;
+        if (franja.isPresent()) {
+            cuentaOrigen = buscarCuentaOrigen(cOrigen);
+            cuentaDestino = accountRepository.findById(cDestino);
+        } else if (cOrigen.compareTo(cDestino) <= 0) {
+            cuentaOrigen = buscarCuentaOrigen(cOrigen);
+            cuentaDestino = buscarCuenta(cDestino);
+        } else {
+            cuentaDestino = buscarCuenta(cDestino);
+            cuentaOrigen = buscarCuentaOrigen(cOrigen);
+        }
+        Money disponible = validarTransferencia(cOrigen, cDestino, cuentaOrigen.orElse(null), cuentaDestino.orElse(null), monto);
+
+        // 6. Realizar la transferencia
+        // NOTE: Aquí se actualizan los saldos de las cuentas de origen y destino (solo se muestra el del origen por privacidad)
+        Money saldoOrigen = disponible.minus(monto);
+        cuentaOrigen.get().setSaldo(cuentaOrigen.get().getSaldo().minus(monto));
+        accountRepository.save(cuentaOrigen.get());
+
+        if (franja.isPresent()) {
+            franja.get().setSaldo(franja.get().getSaldo().plus(monto));
+        } else {
+            Money saldoDestino = cuentaDestino.get().getSaldo().plus(monto);
+            cuentaDestino.get().setSaldo(saldoDestino);
+            accountRepository.save(cuentaDestino.get());
+        }
+        accountSnapshotCache.invalidarDespuesDelCommit(List.of(cOrigen, cDestino));
+
+        // 7. Registrar los movimientos en el libro contable
+        Date fecha = new Date();
+        registrarMovimiento(cuentaOrigen.get(), null, monto, SALIDA, fecha);
+        registrarMovimiento(cuentaDestino.get(), null, monto, ENTRADA, fecha);
+
+        // NOTE: En modo optimista se fuerza el flush para que un conflicto de versión se detecte aquí y se pueda reintentar
+        if (lockMode == TransferLockMode.OPTIMISTIC) {
+            accountRepository.flush();
+        }
+
+        return "Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + saldoOrigen;
+    }
+
+    /**
+     * Ejecuta una transferencia a lo sumo una vez por clave de idempotencia.
+     * Sin clave la transferencia se ejecuta normalmente.
+     */
+    private String ejecutarUnaVez(String claveIdempotencia, String solicitud, Operacion<String> transferencia) throws EntityNotFoundException, BusinessLogicException {
+        if (claveIdempotencia == null) {
+            return transferencia.ejecutar();
+        }
+        // 1. Si la clave ya se usó, retornar el resultado original
+        Optional<String> original = idempotencyStore.buscar(claveIdempotencia, solicitud);
+        if (original.isPresent()) {
+            log.debug("Transferencia repetida con la clave de idempotencia {}", claveIdempotencia);
+            return original.get();
+        }
+
+        // 2. Hacer la transferencia; la clave se registra en la misma transacción
+        try {
+            return transferencia.ejecutar();
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // NOTE: Otra petición con la misma clave hizo commit primero, y esta transacción hizo rollback
+            original = idempotencyStore.buscar(claveIdempotencia, solicitud);
+            if (original.isPresent()) {
+                return original.get();
+            }
+            if (e instanceof DataIntegrityViolationException) {
+                throw new BusinessLogicException("Hay otra transferencia en curso con la misma clave de idempotencia");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Ejecuta una transferencia del motor a lo sumo una vez por clave de
+     * idempotencia. Como la transferencia no corre en una transacción de la
+     * base de datos, las peticiones con la misma clave se serializan con un
+     * bloqueo en memoria (el motor solo corre en una instancia) y la clave se
+     * registra después de la transferencia.
+     */
+    private String ejecutarUnaVezConMotor(String claveIdempotencia, String solicitud, Operacion<String> transferencia) throws EntityNotFoundException, BusinessLogicException {
+        if (claveIdempotencia == null) {
+            return transferencia.ejecutar();
+        }
+        ReentrantLock bloqueo = bloqueosClaves[Math.floorMod(claveIdempotencia.hashCode(), BLOQUEOS_CLAVES)];
+        bloqueo.lock();
+        try {
+            // 1. Si la clave ya se usó, retornar el resultado original
+            Optional<String> original = idempotencyStore.buscar(claveIdempotencia, solicitud);
+            if (original.isPresent()) {
+                log.debug("Transferencia repetida con la clave de idempotencia {}", claveIdempotencia);
+                return original.get();
+            }
+
+            // 2. Hacer la transferencia y registrar la clave
+            // NOTE: Si la aplicación cae entre los dos pasos la clave no queda registrada y un reintento repite la transferencia
+            String resultado = transferencia.ejecutar();
+            return transactionRunner.enTransaccion(() -> registrarClave(claveIdempotencia, solicitud, resultado));
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Registra la clave de idempotencia (si hay) en la transacción actual.
+     *
+     * @return el resultado de la transferencia, sin cambios
+     */
+    private String registrarClave(String claveIdempotencia, String solicitud, String resultado) {
+        if (claveIdempotencia != null) {
+            idempotencyStore.registrar(claveIdempotencia, solicitud, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica un lote de transferencias entre cuentas en una sola transacción.
+     * 
+     * Todas las cuentas involucradas se cargan y bloquean con unas pocas
+     * consultas (en orden de id) y las transferencias se aplican en el orden
+     * recibido sobre los saldos en memoria, de modo que cada validación de saldo
+     * ve el efecto de las transferencias anteriores del lote. Al final cada cuenta
+     * modificada se escribe una sola vez con su saldo neto, y los UPDATE se
+     * agrupan en batches JDBC (hibernate.jdbc.batch_size).
+     * 
+     * Una transferencia inválida no detiene el lote: queda registrada como
+     * fallida en su resultado y no modifica ningún saldo.
+     * 
+     * @param transferencias transferencias a aplicar, en orden
+     * @return un resultado por cada transferencia, en el mismo orden
+     */
     @Transactional
-    public String transferirACuenta(Long cOrigen, Long cDestino, Double monto) throws EntityNotFoundException, BusinessLogicException {
-        log.info("Inicia proceso de transferir {} de la cuenta con id = {} a la cuenta con id = {}", monto, cOrigen, cDestino);
-        
+    public List<TransferResult> transferirEnLote(List<TransferRequest> transferencias) {
+        log.info("Inicia proceso de transferir un lote de {} transferencias", transferencias.size());
+        if (motor != null) {
+            return transferirEnLoteConMotor(transferencias);
+        }
+
+        // 1. Cargar y bloquear todas las cuentas del lote
+        Map<Long, AccountEntity> cuentas = cargarCuentasDelLote(transferencias);
+
+        // 2. Aplicar cada transferencia sobre los saldos en memoria
+        Date fecha = new Date();
+        List<TransferResult> resultados = new ArrayList<>(transferencias.size());
+        int exitosas = 0;
+        for (int i = 0; i < transferencias.size(); i++) {
+            TransferRequest transferencia = transferencias.get(i);
+            AccountEntity origen = cuentas.get(transferencia.getCuentaOrigen());
+            AccountEntity destino = cuentas.get(transferencia.getCuentaDestino());
+            try {
+                validarTransferencia(transferencia.getCuentaOrigen(), transferencia.getCuentaDestino(), origen, destino, transferencia.getMonto());
+            } catch (EntityNotFoundException | BusinessLogicException e) {
+                resultados.add(TransferResult.fallida(i, e.getMessage()));
+                continue;
+            }
+            origen.setSaldo(origen.getSaldo().minus(transferencia.getMonto()));
+            destino.setSaldo(destino.getSaldo().plus(transferencia.getMonto()));
+            registrarMovimiento(origen, null, transferencia.getMonto(), SALIDA, fecha);
+            registrarMovimiento(destino, null, transferencia.getMonto(), ENTRADA, fecha);
+            resultados.add(TransferResult.exitosa(i));
+            exitosas++;
+        }
+
+        // 3. Las cuentas están administradas por el EntityManager: el flush escribe un UPDATE por cuenta modificada
+        if (exitosas > 0) {
+            accountSnapshotCache.invalidarDespuesDelCommit(new ArrayList<>(cuentas.keySet()));
+        }
+        // NOTE: Los movimientos del libro contable se insertan en batches gracias a los ids por secuencia
+        log.info("Termina proceso de transferir un lote: {} exitosas de {} sobre {} cuentas", exitosas, transferencias.size(), cuentas.size());
+        return resultados;
+    }
+
+    /**
+     * Aplica un lote con el motor, una transferencia tras otra y en el orden
+     * recibido, con los mismos resultados que transferirEnLote.
+     */
+    private List<TransferResult> transferirEnLoteConMotor(List<TransferRequest> transferencias) {
+        List<TransferResult> resultados = new ArrayList<>(transferencias.size());
+        int exitosas = 0;
+        for (int i = 0; i < transferencias.size(); i++) {
+            TransferRequest transferencia = transferencias.get(i);
+            try {
+                motor.transferir(transferencia.getCuentaOrigen(), transferencia.getCuentaDestino(), transferencia.getMonto());
+            } catch (EntityNotFoundException | BusinessLogicException e) {
+                resultados.add(TransferResult.fallida(i, e.getMessage()));
+                continue;
+            }
+            resultados.add(TransferResult.exitosa(i));
+            exitosas++;
+        }
+        log.info("Termina proceso de transferir un lote con el motor: {} exitosas de {}", exitosas, transferencias.size());
+        return resultados;
+    }
+
+    private Map<Long, AccountEntity> cargarCuentasDelLote(List<TransferRequest> transferencias) {
+        // NOTE: TreeSet para pedir los bloqueos por bloques en orden ascendente de id, igual que las transferencias individuales
+        TreeSet<Long> ids = new TreeSet<>();
+        for (TransferRequest transferencia : transferencias) {
+            if (transferencia.getCuentaOrigen() != null) {
+                ids.add(transferencia.getCuentaOrigen());
+            }
+            if (transferencia.getCuentaDestino() != null) {
+                ids.add(transferencia.getCuentaDestino());
+            }
+        }
+
+        Map<Long, AccountEntity> cuentas = new HashMap<>();
+        List<Long> bloque = new ArrayList<>(IDS_POR_CONSULTA);
+        for (Long id : ids) {
+            bloque.add(id);
+            if (bloque.size() == IDS_POR_CONSULTA) {
+                accountRepository.findAllByIdForUpdate(bloque).forEach(c -> cuentas.put(c.getId(), c));
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            accountRepository.findAllByIdForUpdate(bloque).forEach(c -> cuentas.put(c.getId(), c));
+        }
+        return cuentas;
+    }
+
+    /**
+     * Obtiene la primera página del extracto de una cuenta, ordenado por fecha.
+     * 
+     * @param accountId id de la cuenta
+     * @param desde fecha inicial (inclusiva) del extracto, o null para desde el inicio
+     * @param hasta fecha final (exclusiva) del extracto, o null para sin límite
+     * @param limite número máximo de movimientos de la página
+     * @return movimientos de la página
+     * @throws EntityNotFoundException si la cuenta no existe
+     */
+    @Transactional
+    public List<TransactionEntity> getPrimeraPaginaExtracto(Long accountId, Date desde, Date hasta, int limite) throws EntityNotFoundException {
+        if (!accountRepository.existsById(accountId)) {
+            throw new EntityNotFoundException("La cuenta no existe");
+        }
+        // NOTE: Con id 0 como cursor la condición (fecha, id) > (desde, 0) incluye los movimientos de la fecha inicial
+        return transactionRepository.findStatementPage(accountId, desde != null ? desde : FECHA_MINIMA, 0L,
+                hasta != null ? hasta : FECHA_MAXIMA, PageRequest.ofSize(limite));
+    }
+
+    /**
+     * Obtiene la página del extracto que sigue a un movimiento ya leído
+     * (paginación por llave sobre fecha e id), de modo que leer la página n no
+     * requiere recorrer las anteriores.
+     * 
+     * @param accountId id de la cuenta
+     * @param ultimo último movimiento de la página anterior
+     * @param hasta fecha final (exclusiva) del extracto, o null para sin límite
+     * @param limite número máximo de movimientos de la página
+     * @return movimientos de la página, vacía al llegar al final del extracto
+     */
+    @Transactional
+    public List<TransactionEntity> getSiguientePaginaExtracto(Long accountId, TransactionEntity ultimo, Date hasta, int limite) {
+        return transactionRepository.findStatementPage(accountId, ultimo.getFecha(), ultimo.getId(),
+                hasta != null ? hasta : FECHA_MAXIMA, PageRequest.ofSize(limite));
+    }
+
+    /**
+     * Agrega un movimiento al libro contable de una cuenta. Los movimientos solo
+     * se insertan; la colección transactions de la cuenta no se toca para no
+     * tener que cargarla.
+     */
+    private void registrarMovimiento(AccountEntity cuenta, PocketEntity bolsillo, Money monto, String tipo, Date fecha) {
+        TransactionEntity movimiento = new TransactionEntity();
+        movimiento.setAccount(cuenta);
+        movimiento.setPocket(bolsillo);
+        movimiento.setMonto(monto);
+        movimiento.setTipo(tipo);
+        movimiento.setFecha(fecha);
+        transactionRepository.save(movimiento);
+    }
+
+    /**
+     * Valida las reglas de negocio de una transferencia entre cuentas. Las
+     * cuentas en null son cuentas que no existen.
+     *
+     * @return saldo disponible de la cuenta origen antes de la transferencia
+     */
+    private Money validarTransferencia(Long cOrigen, Long cDestino, AccountEntity cuentaOrigen, AccountEntity cuentaDestino, Money monto) throws EntityNotFoundException, BusinessLogicException {
         // 1. Verificar que las cuentas existen
-        Optional<AccountEntity> cuentaOrigen = accountRepository.findById(cOrigen);
-        if (cuentaOrigen.isEmpty()) {
+        if (cuentaOrigen == null) {
             throw new EntityNotFoundException("La cuenta origen no existe");
         }
-        Optional<AccountEntity> cuentaDestino = accountRepository.findById(cDestino);
-        if (cuentaDestino.isEmpty()) {
+        if (cuentaDestino == null) {
             throw new EntityNotFoundException("La cuenta destino no existe");
         }
 
@@ -101,33 +537,62 @@ public class TransactionService {
         }
 
         // 3. Verificar que las cuentas estén activas
-        if (!"ACTIVA".equals(cuentaOrigen.get().getEstado())) {
+        if (!"ACTIVA".equals(cuentaOrigen.getEstado())) {
             throw new BusinessLogicException("La cuenta origen debe estar en estado ACTIVA para transferir a otra cuenta");
         }
-        if (!"ACTIVA".equals(cuentaDestino.get().getEstado())) {
+        if (!"ACTIVA".equals(cuentaDestino.getEstado())) {
             throw new BusinessLogicException("La cuenta destino debe estar en estado ACTIVA para recibir transferencias");
         }
 
         // 4. Verificar que el monto a transferir es positivo
-        if (monto <= 0) {
+        if (monto == null || !monto.isPositive()) {
             throw new BusinessLogicException("El monto a transferir debe ser positivo");
         }
 
         // 5. Verificar que la cuenta origen tiene saldo suficiente
-        if (cuentaOrigen.get().getSaldo() < monto) {
-            throw new BusinessLogicException("La cuenta origen no tiene saldo suficiente para la transferencia");
+        Money disponible = balanceStripeService.saldoDisponible(cuentaOrigen);
+        if (disponible.isLessThan(monto)) {
+            throw new InsufficientFundsException("La cuenta origen no tiene saldo suficiente para la transferencia");
         }
+        return disponible;
+    }
 
-        // 6. Realizar la transferencia
-        // NOTE: Aquí se actualizan los saldos de las cuentas de origen y destino (solo se muestra el del origen por privacidad)
-        Double saldoOrigen = cuentaOrigen.get().getSaldo() - monto;
-        cuentaOrigen.get().setSaldo(saldoOrigen);
-        accountRepository.save(cuentaOrigen.get());
+    /**
+     * Busca una cuenta según la estrategia de concurrencia configurada.
+     */
+    private Optional<AccountEntity> buscarCuenta(Long accountId) {
+        if (lockMode == TransferLockMode.PESSIMISTIC) {
+            return accountRepository.findByIdForUpdate(accountId);
+        }
+        return accountRepository.findById(accountId);
+    }
 
-        Double saldoDestino = cuentaDestino.get().getSaldo() + monto;
-        cuentaDestino.get().setSaldo(saldoDestino);
-        accountRepository.save(cuentaDestino.get());
+    /**
+     * Busca la cuenta origen de una transferencia. Una cuenta con franjas se
+     * bloquea en cualquier modo, para que su saldo disponible sea exacto.
+     */
+    private Optional<AccountEntity> buscarCuentaOrigen(Long accountId) {
+        if (balanceStripeService.tieneFranjas(accountId)) {
+            return accountRepository.findByIdForUpdate(accountId);
+        }
+        return buscarCuenta(accountId);
+    }
 
-        return "Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + saldoOrigen;
+    private static ReentrantLock[] crearBloqueos() {
+        ReentrantLock[] bloqueos = new ReentrantLock[BLOQUEOS_CLAVES];
+        for (int i = 0; i < bloqueos.length; i++) {
+            bloqueos[i] = new ReentrantLock();
+        }
+        return bloqueos;
+    }
+
+    private void esperarAntesDeReintentar(int intento, ConcurrencyFailureException causa) {
+        try {
+            // NOTE: Espera aleatoria creciente para que los hilos en conflicto no vuelvan a chocar al mismo tiempo
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * intento + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw causa;
+        }
     }
 }
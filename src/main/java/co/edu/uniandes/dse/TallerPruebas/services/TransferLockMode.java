@@ -0,0 +1,16 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+/**
+ * Estrategia de control de concurrencia usada al transferir entre cuentas.
+ * Se configura con la propiedad transfer.lock-mode
+ */
+public enum TransferLockMode {
+    /**
+     * Bloquea las filas de ambas cuentas (SELECT ... FOR UPDATE) en orden de id
+     */
+    PESSIMISTIC,
+    /**
+     * No bloquea; detecta conflictos con la versión de la cuenta y reintenta
+     */
+    OPTIMISTIC
+}
@@ -0,0 +1,39 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clase que implementa la lógica de los usuarios
+ */
+@Slf4j
+@Service
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Obtiene un usuario con sus cuentas, cargadas en la misma consulta.
+     *
+     * @param userId id del usuario
+     * @return entidad del usuario con sus cuentas
+     * @throws EntityNotFoundException si el usuario no existe
+     */
+    public UserEntity getUser(Long userId) throws EntityNotFoundException {
+        log.info("Inicia proceso de consultar el usuario con id = {}", userId);
+        Optional<UserEntity> userEntity = userRepository.findWithAccountsById(userId);
+        if (userEntity.isEmpty()) {
+            throw new EntityNotFoundException("El usuario no existe");
+        }
+        log.info("Termina proceso de consultar el usuario con id = {}", userId);
+        return userEntity.get();
+    }
+}
@@ -0,0 +1,53 @@
+-- Esquema inicial. Debe coincidir con el mapeo de las entidades: el perfil prod
+-- arranca con spring.jpa.hibernate.ddl-auto=validate
+
+-- Secuencias por entidad; el incremento coincide con el allocationSize por defecto (50)
+create sequence account_entity_seq start with 1 increment by 50;
+create sequence pocket_entity_seq start with 1 increment by 50;
+create sequence transaction_entity_seq start with 1 increment by 50;
+create sequence user_entity_seq start with 1 increment by 50;
+
+create table user_entity (
+    id bigint not null,
+    cedula varchar(255),
+    email varchar(255),
+    login varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table account_entity (
+    id bigint not null,
+    estado varchar(255),
+    numero_cuenta varchar(255),
+    saldo bigint,
+    version bigint,
+    user_id bigint,
+    primary key (id),
+    constraint fk_account_user foreign key (user_id) references user_entity (id)
+);
+
+create table pocket_entity (
+    id bigint not null,
+    meta_ahorro bigint,
+    nombre varchar(255),
+    saldo bigint,
+    account_id bigint,
+    primary key (id),
+    constraint uk_pocket_account_nombre unique (account_id, nombre),
+    constraint fk_pocket_account foreign key (account_id) references account_entity (id)
+);
+
+create table transaction_entity (
+    id bigint not null,
+    fecha timestamp(6),
+    monto bigint,
+    tipo varchar(255),
+    account_id bigint,
+    pocket_id bigint,
+    primary key (id),
+    constraint fk_transaction_account foreign key (account_id) references account_entity (id),
+    constraint fk_transaction_pocket foreign key (pocket_id) references pocket_entity (id)
+);
+
+create index idx_transaction_account_fecha on transaction_entity (account_id, fecha, id);
@@ -0,0 +1,14 @@
+-- Claves de idempotencia de las transferencias. La restricción única sobre la
+-- clave es la que impide que dos peticiones con la misma clave hagan commit
+
+create sequence idempotency_key_entity_seq start with 1 increment by 50;
+
+create table idempotency_key_entity (
+    id bigint not null,
+    clave varchar(255),
+    fecha timestamp(6),
+    resultado varchar(1000),
+    solicitud varchar(1000),
+    primary key (id),
+    constraint uk_idempotency_key_clave unique (clave)
+);
@@ -0,0 +1,18 @@
+-- Fotos periódicas del saldo de las cuentas, para verificar saldos y consultar
+-- saldos históricos sin recorrer todo el libro contable
+
+create sequence balance_snapshot_entity_seq start with 1 increment by 50;
+
+create table balance_snapshot_entity (
+    id bigint not null,
+    account_id bigint,
+    fecha timestamp(6),
+    saldo bigint,
+    ultimo_movimiento_id bigint,
+    primary key (id)
+);
+
+create index idx_balance_snapshot_account_fecha on balance_snapshot_entity (account_id, fecha);
+
+-- Lectura de la cola del libro contable a partir del último movimiento de una foto
+create index idx_transaction_account_id on transaction_entity (account_id, id);
@@ -0,0 +1,6 @@
+-- Búsqueda de usuarios y cuentas por su clave natural al importar archivos de
+-- otros bancos (ImportService)
+
+create index idx_user_login on user_entity (login);
+
+create index idx_account_numero_cuenta on account_entity (numero_cuenta);
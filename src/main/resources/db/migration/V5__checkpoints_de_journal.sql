@@ -0,0 +1,12 @@
+-- Último segmento aplicado de cada journal local del motor de cuentas en
+-- memoria (transfer.engine=MEMORY)
+
+create sequence journal_checkpoint_entity_seq start with 1 increment by 50;
+
+create table journal_checkpoint_entity (
+    id bigint not null,
+    nombre varchar(255),
+    segmento bigint,
+    primary key (id),
+    constraint uk_journal_checkpoint_nombre unique (nombre)
+);
@@ -0,0 +1,16 @@
+-- Franjas de saldo de las cuentas que reciben muchos créditos a la vez: los
+-- créditos se reparten entre las franjas y se pasan periódicamente al saldo
+
+create sequence balance_stripe_entity_seq start with 1 increment by 50;
+
+create table balance_stripe_entity (
+    id bigint not null,
+    account_id bigint,
+    franja integer,
+    saldo bigint,
+    primary key (id),
+    constraint uk_balance_stripe_account_franja unique (account_id, franja)
+);
+
+-- Número de franjas de cada cuenta; null si la cuenta no reparte sus créditos
+alter table account_entity add column franjas_saldo integer;
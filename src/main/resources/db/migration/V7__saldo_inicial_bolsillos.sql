@@ -0,0 +1,10 @@
+-- Saldo con el que se creó cada bolsillo, que no tiene movimiento en el libro
+-- contable; la conciliación lo toma como la primera foto del bolsillo
+
+alter table pocket_entity add column saldo_inicial bigint;
+
+-- Los bolsillos existentes parten de su saldo actual menos lo que el libro
+-- contable registra como movido hacia ellos
+update pocket_entity p set saldo_inicial = p.saldo - coalesce((
+    select sum(case when t.tipo = 'SALIDA' then t.monto else -t.monto end)
+    from transaction_entity t where t.pocket_id = p.id), 0);
@@ -0,0 +1,67 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.MainApplication;
+
+/**
+ * Arranca la aplicación sin servidor web para los benchmarks, sobre la base de
+ * datos H2 embebida configurada en application.properties. Las pruebas de
+ * carga usan iniciarServidor para tener además el servidor HTTP.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * @param propiedades propiedades adicionales con la forma clave=valor
+     * @return el contexto de Spring, que el benchmark debe cerrar en su TearDown
+     */
+    public static ConfigurableApplicationContext iniciar(String... propiedades) {
+        return new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos(propiedades));
+    }
+
+    /**
+     * @param perfil perfil de Spring a activar, por ejemplo prod
+     * @param propiedades propiedades adicionales con la forma clave=valor
+     * @return el contexto de Spring, que el benchmark debe cerrar en su TearDown
+     */
+    public static ConfigurableApplicationContext iniciarConPerfil(String perfil, String... propiedades) {
+        return new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(perfil)
+                .run(argumentos(propiedades));
+    }
+
+    /**
+     * Arranca la aplicación con el servidor web en un puerto libre, que queda
+     * en la propiedad local.server.port del contexto.
+     *
+     * @param propiedades propiedades adicionales con la forma clave=valor
+     * @return el contexto de Spring, que quien lo inicia debe cerrar
+     */
+    public static ConfigurableApplicationContext iniciarServidor(String... propiedades) {
+        return new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                .run(argumentos(propiedades));
+    }
+
+    /**
+     * Convierte las propiedades en argumentos de línea de comandos, que a
+     * diferencia de SpringApplicationBuilder.properties tienen prioridad sobre
+     * application.properties.
+     */
+    private static String[] argumentos(String... propiedades) {
+        String[] argumentos = new String[propiedades.length];
+        for (int i = 0; i < propiedades.length; i++) {
+            argumentos[i] = "--" + propiedades[i];
+        }
+        return argumentos;
+    }
+}
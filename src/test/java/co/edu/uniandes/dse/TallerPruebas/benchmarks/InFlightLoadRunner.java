@@ -0,0 +1,279 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+
+/**
+ * Prueba de carga con muchas peticiones en curso a la vez (10.000 por
+ * defecto). Compara el costo en hilos y memoria de atender las transferencias
+ * con un hilo de Tomcat por petición, con hilos virtuales y con el endpoint
+ * reactivo (ver ReactiveTransferService). El primer argumento es el modo:
+ * bloqueante, virtual o reactivo.
+ *
+ * Cada cliente hace sus peticiones una tras otra, así que hay tantas
+ * peticiones en curso como clientes. Mientras corre se miden el pico de hilos
+ * de plataforma del proceso, el pico de heap usado y el pico de memoria
+ * residente (VmHWM, solo en Linux). Los resultados se agregan al CSV para
+ * comparar los modos.
+ *
+ * Se ejecuta con el perfil in-flight-test, que corre cada modo en su propia
+ * JVM. Los clientes usan hilos virtuales en todos los modos, que no cuentan
+ * como hilos de plataforma; su heap sí se mide, pero es el mismo en los tres.
+ */
+public final class InFlightLoadRunner {
+
+    private static final Money SALDO_INICIAL = Money.of(1_000_000);
+
+    private InFlightLoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String modo = args[0];
+        boolean hilosVirtuales = "virtual".equals(modo);
+        int enCurso = Integer.getInteger("load.in-flight", 10_000);
+        int peticiones = Integer.getInteger("load.requests", 5);
+        int cuentas = Integer.getInteger("load.accounts", 1000);
+        Path resultados = Path.of(System.getProperty("load.result-file", "target/in-flight-test-result.csv"));
+
+        List<String> propiedades = new ArrayList<>(List.of(
+                "transfer.log.sample-every=1000",
+                "server.tomcat.max-connections=" + (enCurso + 1000),
+                "server.tomcat.accept-count=" + enCurso,
+                // NOTE: Las peticiones esperan una conexión más tiempo que con poca carga; no deben fallar por eso
+                "spring.datasource.hikari.connection-timeout=120000",
+                "spring.threads.virtual.enabled=" + hilosVirtuales));
+        String ruta;
+        switch (modo) {
+            case "bloqueante" -> {
+                // NOTE: Un hilo de Tomcat por petición en curso; con los 200 de siempre las demás esperarían en la cola de conexiones
+                propiedades.add("server.tomcat.threads.max=" + enCurso);
+                ruta = "/api/accounts/transfers";
+            }
+            case "virtual" -> ruta = "/api/accounts/transfers";
+            case "reactivo" -> {
+                propiedades.add("transfer.reactive.queue-capacity=" + enCurso);
+                ruta = "/api/reactive/accounts/transfers";
+            }
+            default -> throw new IllegalArgumentException("Modo desconocido: " + modo);
+        }
+
+        ConfigurableApplicationContext contexto = BenchmarkContext.iniciarServidor(propiedades.toArray(String[]::new));
+        try {
+            List<Long> ids = crearCuentas(contexto.getBean(AccountRepository.class), cuentas);
+            URI uri = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + ruta);
+
+            try (ExecutorService hilosClientes = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                        .executor(hilosClientes)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(60))
+                        .build();
+
+                // 1. Calentar con pocas peticiones para no medir la carga de clases
+                ejecutar(http, hilosClientes, uri, ids, Math.min(enCurso, 100), 5, null);
+
+                // 2. Medir con todas las peticiones en curso
+                Muestreo muestreo = new Muestreo();
+                Thread.ofPlatform().name("muestreo-memoria").daemon().start(muestreo);
+                Resultado resultado = ejecutar(http, hilosClientes, uri, ids, enCurso, peticiones, muestreo);
+                muestreo.detener();
+                reportar(resultado, muestreo, modo, enCurso, resultados);
+            }
+        } finally {
+            contexto.close();
+        }
+    }
+
+    private static List<Long> crearCuentas(AccountRepository accountRepository, int cantidad) {
+        List<AccountEntity> cuentas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            AccountEntity cuenta = new AccountEntity();
+            cuenta.setNumeroCuenta(String.valueOf(i));
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldo(SALDO_INICIAL);
+            cuentas.add(cuenta);
+        }
+        List<Long> ids = new ArrayList<>(cantidad);
+        for (AccountEntity cuenta : accountRepository.saveAll(cuentas)) {
+            ids.add(cuenta.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Lanza los clientes y espera a que todos terminen, contando cuántas
+     * peticiones llegan a estar en curso a la vez.
+     */
+    private static Resultado ejecutar(HttpClient http, ExecutorService hilosClientes, URI uri, List<Long> ids,
+            int clientes, int peticiones, Muestreo muestreo) throws Exception {
+        long[][] latencias = new long[clientes][peticiones];
+        AtomicLong errores = new AtomicLong();
+        AtomicInteger actuales = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>(clientes);
+        if (muestreo != null) {
+            muestreo.reiniciar();
+        }
+
+        long inicio = System.nanoTime();
+        for (int c = 0; c < clientes; c++) {
+            long[] latenciasCliente = latencias[c];
+            tareas.add(hilosClientes.submit(() -> {
+                for (int i = 0; i < peticiones; i++) {
+                    maximo.accumulateAndGet(actuales.incrementAndGet(), Math::max);
+                    long t0 = System.nanoTime();
+                    if (!transferir(http, uri, ids)) {
+                        errores.incrementAndGet();
+                    }
+                    latenciasCliente[i] = System.nanoTime() - t0;
+                    actuales.decrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        long duracion = System.nanoTime() - inicio;
+
+        long[] todas = new long[clientes * peticiones];
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latencias[c], 0, todas, c * peticiones, peticiones);
+        }
+        Arrays.sort(todas);
+        return new Resultado(todas, errores.get(), duracion, maximo.get());
+    }
+
+    private static boolean transferir(HttpClient http, URI uri, List<Long> ids) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int origen = random.nextInt(ids.size());
+        int destino = (origen + 1 + random.nextInt(ids.size() - 1)) % ids.size();
+        String cuerpo = "{\"cuentaOrigen\":" + ids.get(origen) + ",\"cuentaDestino\":" + ids.get(destino)
+                + ",\"monto\":" + Money.ofCents(random.nextInt(1, 1000)) + "}";
+        HttpRequest peticion = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+        try {
+            return http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void reportar(Resultado resultado, Muestreo muestreo, String modo, int enCurso, Path archivo) throws IOException {
+        long[] latencias = resultado.latencias();
+        double porSegundo = latencias.length / (resultado.duracionNanos() / 1_000_000_000.0);
+        double p50 = percentilMillis(latencias, 0.50);
+        double p99 = percentilMillis(latencias, 0.99);
+        double heapMb = muestreo.heapMaximo() / (1024.0 * 1024.0);
+        double residenteMb = memoriaResidenteMaximaKb() / 1024.0;
+
+        System.out.printf(Locale.ROOT, "Modo %s, %d en curso (pico %d): %d peticiones (%d errores), %.1f peticiones/s, p50 %.2f ms, p99 %.2f ms, "
+                + "pico de %d hilos de plataforma, heap %.1f MB, memoria residente %.1f MB%n",
+                modo, enCurso, resultado.enCursoMaximo(), latencias.length, resultado.errores(), porSegundo, p50, p99,
+                muestreo.hilosMaximo(), heapMb, residenteMb);
+
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        if (!Files.exists(archivo)) {
+            Files.writeString(archivo, "modo,en_curso,en_curso_pico,peticiones,errores,peticiones_por_segundo,p50_ms,p99_ms,hilos_pico,heap_pico_mb,residente_pico_mb\n");
+        }
+        Files.writeString(archivo, String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.2f,%.2f,%d,%.1f,%.1f%n", modo, enCurso,
+                resultado.enCursoMaximo(), latencias.length, resultado.errores(), porSegundo, p50, p99,
+                muestreo.hilosMaximo(), heapMb, residenteMb), StandardOpenOption.APPEND);
+    }
+
+    private static double percentilMillis(long[] ordenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Pico de memoria residente del proceso en KB según /proc/self/status, o
+     * -1 si no está disponible (fuera de Linux).
+     */
+    private static long memoriaResidenteMaximaKb() {
+        try {
+            for (String linea : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (linea.startsWith("VmHWM:")) {
+                    return Long.parseLong(linea.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Sin /proc no hay dato de memoria residente
+        }
+        return -1;
+    }
+
+    /**
+     * Toma cada 10 ms el heap usado y guarda el máximo. El pico de hilos lo
+     * lleva la JVM desde el último reinicio.
+     */
+    private static final class Muestreo implements Runnable {
+
+        private final MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        private volatile boolean activo = true;
+        private volatile long heapMaximo;
+
+        void reiniciar() {
+            hilos.resetPeakThreadCount();
+            heapMaximo = 0;
+        }
+
+        void detener() {
+            activo = false;
+        }
+
+        long heapMaximo() {
+            return heapMaximo;
+        }
+
+        int hilosMaximo() {
+            return hilos.getPeakThreadCount();
+        }
+
+        @Override
+        public void run() {
+            while (activo) {
+                heapMaximo = Math.max(heapMaximo, memoria.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Resultado(long[] latencias, long errores, long duracionNanos, int enCursoMaximo) {
+    }
+}
@@ -0,0 +1,119 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountDetailDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransactionDTO;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.mappers.DtoMapper;
+
+/**
+ * Compara ModelMapper (como lo registraba ApplicationConfig) con DtoMapper
+ * para un objeto y para una página del extracto. Con -prof gc se ve además la
+ * memoria asignada por operación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final Type LISTA_TRANSACCIONES = new TypeToken<List<TransactionDTO>>() {
+    }.getType();
+
+    @Param({ "10000" })
+    public int tamanoPagina;
+
+    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
+
+    private AccountEntity cuenta;
+    private TransactionEntity movimiento;
+    private List<TransactionEntity> pagina;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        dtoMapper = new DtoMapper();
+
+        cuenta = new AccountEntity();
+        cuenta.setId(1L);
+        cuenta.setNumeroCuenta("1");
+        cuenta.setEstado("ACTIVA");
+        cuenta.setSaldo(Money.of(1000));
+        for (int i = 0; i < 5; i++) {
+            PocketEntity bolsillo = new PocketEntity();
+            bolsillo.setId((long) i);
+            bolsillo.setNombre("Bolsillo " + i);
+            bolsillo.setSaldo(Money.of(i));
+            bolsillo.setMetaAhorro(Money.of(100));
+            bolsillo.setAccount(cuenta);
+            cuenta.getPockets().add(bolsillo);
+        }
+
+        pagina = new ArrayList<>(tamanoPagina);
+        for (int i = 0; i < tamanoPagina; i++) {
+            TransactionEntity t = new TransactionEntity();
+            t.setId((long) i);
+            t.setAccount(cuenta);
+            t.setMonto(Money.ofCents(i));
+            t.setFecha(new Date(i));
+            t.setTipo(i % 2 == 0 ? "ENTRADA" : "SALIDA");
+            pagina.add(t);
+        }
+        movimiento = pagina.get(0);
+    }
+
+    @Benchmark
+    public TransactionDTO movimientoModelMapper() {
+        return modelMapper.map(movimiento, TransactionDTO.class);
+    }
+
+    @Benchmark
+    public TransactionDTO movimientoDtoMapper() {
+        return dtoMapper.toTransactionDTO(movimiento);
+    }
+
+    @Benchmark
+    public AccountDetailDTO cuentaConBolsillosModelMapper() {
+        return modelMapper.map(cuenta, AccountDetailDTO.class);
+    }
+
+    @Benchmark
+    public AccountDetailDTO cuentaConBolsillosDtoMapper() {
+        return dtoMapper.toAccountDetailDTO(cuenta);
+    }
+
+    @Benchmark
+    public List<TransactionDTO> paginaModelMapper() {
+        return modelMapper.map(pagina, LISTA_TRANSACCIONES);
+    }
+
+    @Benchmark
+    public List<TransactionDTO> paginaDtoMapper() {
+        return dtoMapper.toTransactionDTOs(pagina);
+    }
+}
@@ -0,0 +1,117 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+
+/**
+ * Compara la aritmética de saldos con Double (como estaba antes en los
+ * servicios) contra Money. Cada invocación aplica una secuencia de
+ * transferencias: verificar saldo, restar al origen y sumar al destino, que es
+ * lo que hace el camino caliente de TransactionService. Con -prof gc (activo
+ * en el perfil benchmarks) se ve además la asignación de memoria por operación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({ "1000" })
+    public int transferencias;
+
+    private Double[] montosDouble;
+    private Money[] montosMoney;
+
+    @Setup
+    public void setUp() {
+        Random r = new Random(42);
+        montosDouble = new Double[transferencias];
+        montosMoney = new Money[transferencias];
+        for (int i = 0; i < transferencias; i++) {
+            long cents = 1 + r.nextInt(1_000_000);
+            montosDouble[i] = cents / 100.0;
+            montosMoney[i] = Money.ofCents(cents);
+        }
+    }
+
+    @Benchmark
+    public Double transferenciasDouble() {
+        Double saldoOrigen = 1_000_000_000.0;
+        Double saldoDestino = 0.0;
+        for (Double monto : montosDouble) {
+            if (saldoOrigen < monto) {
+                continue;
+            }
+            saldoOrigen = saldoOrigen - monto;
+            saldoDestino = saldoDestino + monto;
+        }
+        return saldoOrigen + saldoDestino;
+    }
+
+    @Benchmark
+    public Money transferenciasMoney() {
+        Money saldoOrigen = Money.ofCents(100_000_000_000L);
+        Money saldoDestino = Money.ZERO;
+        for (Money monto : montosMoney) {
+            if (saldoOrigen.isLessThan(monto)) {
+                continue;
+            }
+            saldoOrigen = saldoOrigen.minus(monto);
+            saldoDestino = saldoDestino.plus(monto);
+        }
+        return saldoOrigen.plus(saldoDestino);
+    }
+
+    /**
+     * Suma de un lote, como al netear los montos por cuenta. Con Double el
+     * resultado acumula error de redondeo; con Money es exacto. Ambos crean un
+     * objeto por suma: Double por el autoboxing y Money con plus, que es como
+     * acumulan AccountService.getSnapshot y JournalApplier.
+     */
+    @Benchmark
+    public Double sumaLoteDouble() {
+        Double total = 0.0;
+        for (Double monto : montosDouble) {
+            total = total + monto;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumaLoteMoney() {
+        Money total = Money.ZERO;
+        for (Money monto : montosMoney) {
+            total = total.plus(monto);
+        }
+        return total;
+    }
+
+    /**
+     * Línea base de la suma de un lote: acumula los centavos en un long, sin
+     * crear objetos.
+     */
+    @Benchmark
+    public long sumaLoteCentavos() {
+        long total = 0;
+        for (Money monto : montosMoney) {
+            total += monto.getCents();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,148 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.PocketService;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Benchmark de los caminos calientes de los servicios contra la base de datos
+ * H2 embebida: transferirABolsillo, transferirACuenta y createPocket.
+ *
+ * Reporta throughput y la distribución de latencia (p50, p99, p99.9...). Se
+ * parametriza por número de cuentas, bolsillos por cuenta y motor de
+ * transferencias (JPA, MEMORY o JOURNAL, ver transfer.engine); el número de
+ * hilos se elige con -Djmh.threads al ejecutar el perfil benchmarks, por
+ * ejemplo:
+ *
+ * mvn -Pbenchmarks verify -Djmh.include=ServiceBenchmark -Djmh.threads=8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    // NOTE: Los saldos son lo bastante grandes para que ninguna transferencia falle por saldo insuficiente
+    private static final Money SALDO_INICIAL = Money.ofCents(1_000_000_000_000L);
+    private static final Money MONTO = Money.ofCents(1);
+
+    @Param({ "10", "1000" })
+    public int cuentas;
+
+    @Param({ "1", "100" })
+    public int bolsillosPorCuenta;
+
+    // Nivel de log de la aplicación y muestreo de las líneas por operación, para medir el costo del logging en el camino caliente
+    @Param({ "INFO", "WARN" })
+    public String nivelLog;
+
+    @Param({ "1", "100" })
+    public int muestreoLog;
+
+    @Param({ "JPA", "MEMORY", "JOURNAL" })
+    public String motor;
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionService transactionService;
+    private PocketService pocketService;
+    private long[] accountIds;
+    private final AtomicLong bolsillosCreados = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // NOTE: Cada ejecución usa un journal nuevo; uno anterior se aplicaría sobre la base de datos recién creada
+        contexto = BenchmarkContext.iniciar("logging.level.co.edu.uniandes.dse.TallerPruebas=" + nivelLog,
+                "transfer.log.sample-every=" + muestreoLog, "transfer.engine=" + motor,
+                "transfer.memory.journal-dir=" + Files.createTempDirectory("journal"),
+                "transfer.journal.dir=" + Files.createTempDirectory("wal"));
+        transactionService = contexto.getBean(TransactionService.class);
+        pocketService = contexto.getBean(PocketService.class);
+        accountIds = crearDatos(contexto.getBean(AccountRepository.class), contexto.getBean(PocketRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String transferirABolsillo() throws EntityNotFoundException, BusinessLogicException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long accountId = accountIds[random.nextInt(accountIds.length)];
+        return transactionService.transferirABolsillo(accountId, "Bolsillo " + random.nextInt(bolsillosPorCuenta), MONTO);
+    }
+
+    @Benchmark
+    public String transferirACuenta() throws EntityNotFoundException, BusinessLogicException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int origen = random.nextInt(accountIds.length);
+        int destino = (origen + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+        return transactionService.transferirACuenta(accountIds[origen], accountIds[destino], MONTO);
+    }
+
+    @Benchmark
+    public PocketEntity createPocket() throws EntityNotFoundException, BusinessLogicException {
+        long accountId = accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)];
+        PocketEntity bolsillo = new PocketEntity();
+        bolsillo.setNombre("Meta " + bolsillosCreados.incrementAndGet());
+        bolsillo.setMetaAhorro(Money.of(1000));
+        return pocketService.createPocket(accountId, bolsillo);
+    }
+
+    private long[] crearDatos(AccountRepository accountRepository, PocketRepository pocketRepository) {
+        List<AccountEntity> cuentasCreadas = new ArrayList<>();
+        for (int i = 0; i < cuentas; i++) {
+            AccountEntity cuenta = new AccountEntity();
+            cuenta.setNumeroCuenta(String.valueOf(i));
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldo(SALDO_INICIAL);
+            cuentasCreadas.add(cuenta);
+        }
+        cuentasCreadas = accountRepository.saveAll(cuentasCreadas);
+
+        List<PocketEntity> bolsillos = new ArrayList<>();
+        for (AccountEntity cuenta : cuentasCreadas) {
+            for (int j = 0; j < bolsillosPorCuenta; j++) {
+                PocketEntity bolsillo = new PocketEntity();
+                bolsillo.setNombre("Bolsillo " + j);
+                bolsillo.setSaldo(Money.ZERO);
+                bolsillo.setAccount(cuenta);
+                bolsillos.add(bolsillo);
+            }
+        }
+        pocketRepository.saveAll(bolsillos);
+
+        return cuentasCreadas.stream().mapToLong(AccountEntity::getId).toArray();
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.OrderedTransferService;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Benchmark de transferencias entre cuentas con carga sesgada: el 1% de las
+ * cuentas (las cuentas calientes, como las de recaudo de un comercio) recibe
+ * la mitad de las transferencias. Compara transferirACuenta con bloqueo
+ * pesimista u optimista contra OrderedTransferService, que ejecuta en orden
+ * las transferencias de cada cuenta en vez de esperar por sus filas.
+ *
+ * Se ejecuta con varios hilos para que haya contención, por ejemplo:
+ *
+ * mvn -Pbenchmarks verify -Djmh.include=SkewedTransferBenchmark -Djmh.threads=32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SkewedTransferBenchmark {
+
+    // NOTE: Los saldos son lo bastante grandes para que ninguna transferencia falle por saldo insuficiente
+    private static final Money SALDO_INICIAL = Money.ofCents(1_000_000_000_000L);
+    private static final Money MONTO = Money.ofCents(1);
+
+    @Param({ "1000" })
+    public int cuentas;
+
+    // PESSIMISTIC y OPTIMISTIC usan transferirACuenta con ese transfer.lock-mode; ORDERED usa OrderedTransferService
+    @Param({ "PESSIMISTIC", "OPTIMISTIC", "ORDERED" })
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionService transactionService;
+    private OrderedTransferService orderedTransferService;
+    private long[] accountIds;
+    private int calientes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // NOTE: Los reintentos optimistas se suben para que los conflictos con las cuentas calientes no terminen en error
+        contexto = BenchmarkContext.iniciar("transfer.log.sample-every=1000", "transfer.max-retries=100",
+                "transfer.lock-mode=" + ("ORDERED".equals(modo) ? "PESSIMISTIC" : modo));
+        transactionService = contexto.getBean(TransactionService.class);
+        orderedTransferService = contexto.getBean(OrderedTransferService.class);
+        accountIds = crearCuentas(contexto.getBean(AccountRepository.class));
+        calientes = Math.max(1, cuentas / 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String transferirACuenta() throws EntityNotFoundException, BusinessLogicException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 1. La mitad de las transferencias va a una cuenta caliente y la otra mitad a cualquier cuenta
+        int destino = random.nextBoolean() ? random.nextInt(calientes) : random.nextInt(accountIds.length);
+        int origen = (destino + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+
+        // 2. Transferir; el modo ordenado espera el futuro para medir la latencia completa
+        if ("ORDERED".equals(modo)) {
+            return orderedTransferService.transferirACuenta(accountIds[origen], accountIds[destino], MONTO).join();
+        }
+        return transactionService.transferirACuenta(accountIds[origen], accountIds[destino], MONTO);
+    }
+
+    private long[] crearCuentas(AccountRepository accountRepository) {
+        List<AccountEntity> cuentasCreadas = new ArrayList<>();
+        for (int i = 0; i < cuentas; i++) {
+            AccountEntity cuenta = new AccountEntity();
+            cuenta.setNumeroCuenta(String.valueOf(i));
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldo(SALDO_INICIAL);
+            cuentasCreadas.add(cuenta);
+        }
+        return accountRepository.saveAll(cuentasCreadas).stream().mapToLong(AccountEntity::getId).toArray();
+    }
+}
@@ -0,0 +1,91 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Mide el tiempo de arranque en frío de la aplicación. Cada medición es un
+ * arranque en una JVM nueva (un fork por medición, sin calentamiento):
+ *
+ * - create-drop: base en memoria con el esquema generado por Hibernate, como
+ *   en el perfil por defecto.
+ * - existente: perfil prod contra una base en archivo que ya tiene el
+ *   esquema (migraciones de Flyway) y 1M de cuentas.
+ *
+ * La base existente se crea la primera vez en target/startup-benchmark y se
+ * reutiliza en las siguientes ejecuciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    private static final String CREATE_DROP = "create-drop";
+    private static final String EXISTENTE = "existente";
+    private static final int CUENTAS = 1_000_000;
+    private static final Path DIRECTORIO = Path.of("target", "startup-benchmark").toAbsolutePath();
+
+    @Param({ CREATE_DROP, EXISTENTE })
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (EXISTENTE.equals(modo) && !Files.exists(DIRECTORIO.resolve("TallerPruebas.mv.db"))) {
+            crearBaseExistente();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (contexto != null) {
+            contexto.close();
+            contexto = null;
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext arrancar() {
+        if (EXISTENTE.equals(modo)) {
+            contexto = iniciarExistente();
+        } else {
+            contexto = BenchmarkContext.iniciar();
+        }
+        return contexto;
+    }
+
+    private ConfigurableApplicationContext iniciarExistente() {
+        return BenchmarkContext.iniciarConPerfil("prod", "app.data-dir=" + DIRECTORIO);
+    }
+
+    private void crearBaseExistente() {
+        // NOTE: El primer arranque con el perfil prod aplica las migraciones; las cuentas se insertan directamente en H2
+        try (ConfigurableApplicationContext inicial = iniciarExistente()) {
+            JdbcTemplate jdbcTemplate = inicial.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("insert into account_entity (id, numero_cuenta, saldo, estado, version) "
+                    + "select x, cast(x as varchar), 100000, 'ACTIVA', 0 from system_range(1, ?)", CUENTAS);
+            jdbcTemplate.execute("alter sequence account_entity_seq restart with " + (CUENTAS + 1));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.BalanceStripeService;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Benchmark de créditos concurrentes a una sola cuenta (una cuenta de recaudo
+ * que recibe los pagos de muchos clientes). Compara transferirACuenta hacia
+ * esa cuenta sin franjas, donde todos los créditos esperan por su fila, y con
+ * franjas de saldo, donde solo se esperan los que caen en la misma franja.
+ *
+ * Se ejecuta con varios hilos para que haya contención, por ejemplo:
+ *
+ * mvn -Pbenchmarks verify -Djmh.include=StripedCreditBenchmark -Djmh.threads=32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StripedCreditBenchmark {
+
+    // NOTE: Los saldos son lo bastante grandes para que ninguna transferencia falle por saldo insuficiente
+    private static final Money SALDO_INICIAL = Money.ofCents(1_000_000_000_000L);
+    private static final Money MONTO = Money.ofCents(1);
+
+    // NOTE: Hay más cuentas origen que hilos para que la contención sea solo la de la cuenta destino
+    @Param({ "1000" })
+    public int origenes;
+
+    // 0 = sin franjas: cada crédito modifica la fila de la cuenta destino
+    @Param({ "0", "16", "64" })
+    public int franjas;
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionService transactionService;
+    private long[] accountIds;
+    private long destino;
+
+    @Setup(Level.Trial)
+    public void setUp() throws EntityNotFoundException, BusinessLogicException {
+        contexto = BenchmarkContext.iniciar("transfer.log.sample-every=1000", "transfer.stripes.fold-interval=PT1S");
+        transactionService = contexto.getBean(TransactionService.class);
+        accountIds = crearCuentas(contexto.getBean(AccountRepository.class));
+        destino = accountIds[0];
+        if (franjas > 0) {
+            contexto.getBean(BalanceStripeService.class).activarFranjas(destino, franjas);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String acreditar() throws EntityNotFoundException, BusinessLogicException {
+        int origen = 1 + ThreadLocalRandom.current().nextInt(accountIds.length - 1);
+        return transactionService.transferirACuenta(accountIds[origen], destino, MONTO);
+    }
+
+    private long[] crearCuentas(AccountRepository accountRepository) {
+        List<AccountEntity> cuentasCreadas = new ArrayList<>();
+        for (int i = 0; i <= origenes; i++) {
+            AccountEntity cuenta = new AccountEntity();
+            cuenta.setNumeroCuenta(String.valueOf(i));
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldo(SALDO_INICIAL);
+            cuentasCreadas.add(cuenta);
+        }
+        return accountRepository.saveAll(cuentasCreadas).stream().mapToLong(AccountEntity::getId).toArray();
+    }
+}
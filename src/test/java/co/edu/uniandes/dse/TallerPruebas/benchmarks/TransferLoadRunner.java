@@ -0,0 +1,177 @@
+package co.edu.uniandes.dse.TallerPruebas.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+
+/**
+ * Prueba de carga de las transferencias entre cuentas por HTTP. Arranca la
+ * aplicación con hilos de plataforma o con hilos virtuales (primer argumento:
+ * false o true), crea las cuentas y lanza clientes concurrentes que hacen
+ * transferencias entre pares de cuentas al azar. Reporta peticiones por
+ * segundo y percentiles de latencia, y agrega una línea al CSV de resultados
+ * para comparar los dos modos.
+ *
+ * Se ejecuta con el perfil load-test, que corre cada modo en su propia JVM.
+ * Los clientes usan hilos virtuales en ambos casos para que el generador de
+ * carga no sea el cuello de botella.
+ */
+public final class TransferLoadRunner {
+
+    private static final Money SALDO_INICIAL = Money.of(1_000_000);
+
+    private TransferLoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean hilosVirtuales = Boolean.parseBoolean(args[0]);
+        int clientes = Integer.getInteger("load.clients", 5000);
+        int peticiones = Integer.getInteger("load.requests", 20);
+        int calentamiento = Integer.getInteger("load.warmup-requests", 5);
+        int cuentas = Integer.getInteger("load.accounts", 1000);
+        Path resultados = Path.of(System.getProperty("load.result-file", "target/load-test-result.csv"));
+
+        ConfigurableApplicationContext contexto = BenchmarkContext.iniciarServidor(
+                "spring.threads.virtual.enabled=" + hilosVirtuales,
+                "transfer.log.sample-every=1000");
+        try {
+            List<Long> ids = crearCuentas(contexto.getBean(AccountRepository.class), cuentas);
+            URI uri = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                    + "/api/accounts/transfers");
+
+            try (ExecutorService hilosClientes = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                        .executor(hilosClientes)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+
+                ejecutar(http, hilosClientes, uri, ids, clientes, calentamiento);
+                Resultado resultado = ejecutar(http, hilosClientes, uri, ids, clientes, peticiones);
+                reportar(resultado, hilosVirtuales ? "virtual" : "plataforma", clientes, resultados);
+            }
+        } finally {
+            contexto.close();
+        }
+    }
+
+    private static List<Long> crearCuentas(AccountRepository accountRepository, int cantidad) {
+        List<AccountEntity> cuentas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            AccountEntity cuenta = new AccountEntity();
+            cuenta.setNumeroCuenta(String.valueOf(i));
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldo(SALDO_INICIAL);
+            cuentas.add(cuenta);
+        }
+        List<Long> ids = new ArrayList<>(cantidad);
+        for (AccountEntity cuenta : accountRepository.saveAll(cuentas)) {
+            ids.add(cuenta.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Lanza los clientes y espera a que todos terminen. Cada cliente hace sus
+     * peticiones una tras otra, como un usuario que espera la respuesta antes
+     * de la siguiente transferencia.
+     */
+    private static Resultado ejecutar(HttpClient http, ExecutorService hilosClientes, URI uri, List<Long> ids,
+            int clientes, int peticiones) throws Exception {
+        long[][] latencias = new long[clientes][peticiones];
+        AtomicLong errores = new AtomicLong();
+        List<Future<?>> tareas = new ArrayList<>(clientes);
+
+        long inicio = System.nanoTime();
+        for (int c = 0; c < clientes; c++) {
+            long[] latenciasCliente = latencias[c];
+            tareas.add(hilosClientes.submit(() -> {
+                for (int i = 0; i < peticiones; i++) {
+                    long t0 = System.nanoTime();
+                    if (!transferir(http, uri, ids)) {
+                        errores.incrementAndGet();
+                    }
+                    latenciasCliente[i] = System.nanoTime() - t0;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        long duracion = System.nanoTime() - inicio;
+
+        long[] todas = new long[clientes * peticiones];
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latencias[c], 0, todas, c * peticiones, peticiones);
+        }
+        Arrays.sort(todas);
+        return new Resultado(todas, errores.get(), duracion);
+    }
+
+    private static boolean transferir(HttpClient http, URI uri, List<Long> ids) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int origen = random.nextInt(ids.size());
+        int destino = (origen + 1 + random.nextInt(ids.size() - 1)) % ids.size();
+        String cuerpo = "{\"cuentaOrigen\":" + ids.get(origen) + ",\"cuentaDestino\":" + ids.get(destino)
+                + ",\"monto\":" + Money.ofCents(random.nextInt(1, 1000)) + "}";
+        HttpRequest peticion = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+        try {
+            return http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void reportar(Resultado resultado, String modo, int clientes, Path archivo) throws IOException {
+        long[] latencias = resultado.latencias();
+        double porSegundo = latencias.length / (resultado.duracionNanos() / 1_000_000_000.0);
+        double p50 = percentilMillis(latencias, 0.50);
+        double p99 = percentilMillis(latencias, 0.99);
+        double maximo = percentilMillis(latencias, 1.0);
+
+        System.out.printf(Locale.ROOT, "Hilos %s, %d clientes: %d peticiones (%d errores), %.1f peticiones/s, p50 %.2f ms, p99 %.2f ms, máx %.2f ms%n",
+                modo, clientes, latencias.length, resultado.errores(), porSegundo, p50, p99, maximo);
+
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        if (!Files.exists(archivo)) {
+            Files.writeString(archivo, "modo,clientes,peticiones,errores,peticiones_por_segundo,p50_ms,p99_ms,max_ms\n");
+        }
+        Files.writeString(archivo, String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f%n", modo, clientes,
+                latencias.length, resultado.errores(), porSegundo, p50, p99, maximo), StandardOpenOption.APPEND);
+    }
+
+    private static double percentilMillis(long[] ordenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+
+    private record Resultado(long[] latencias, long errores, long duracionNanos) {
+    }
+}
@@ -0,0 +1,364 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.AccountSnapshotCache;
+import co.edu.uniandes.dse.TallerPruebas.services.BalanceStripeService;
+import co.edu.uniandes.dse.TallerPruebas.services.IdempotencyStore;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionRunner;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de TransactionService con el motor de cuentas en memoria. El motor
+ * usa sus propios hilos y transacciones, así que los datos de la prueba deben
+ * hacer commit. Hay dos shards, de modo que las cuentas de ids pares e
+ * impares quedan en shards distintos, y la escritura en la base de datos solo
+ * ocurre al llamar sincronizar.
+ */
+@DataJpaTest(properties = { "transfer.engine=MEMORY", "transfer.memory.shards=2",
+        "transfer.memory.journal-dir=target/memory-engine-test", "transfer.memory.flush-interval=PT1H" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ InMemoryAccountEngine.class, JournalApplier.class, TransactionService.class, TransactionRunner.class, OperationMetrics.class,
+        AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class InMemoryAccountEngineTest {
+
+    private static final Money SALDO_INICIAL = Money.of(1000);
+
+    @Autowired
+    private InMemoryAccountEngine motor;
+
+    @Autowired
+    private JournalApplier journalApplier;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia los datos creados por la prueba, después de escribir lo pendiente
+     * del motor.
+     */
+    @AfterEach
+    void tearDown() {
+        motor.sincronizar();
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba una transferencia entre cuentas del mismo shard: el saldo cambia
+     * en memoria enseguida y en la base de datos después de sincronizar.
+     */
+    @Test
+    void testTransferirMismoShard() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuentaEnShard(origen.getId() % 2, "ACTIVA");
+
+        String resultado = transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100));
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(900), resultado);
+        assertEquals(Money.of(1100), motor.getSaldo(destino.getId()).orElseThrow());
+        assertEquals(SALDO_INICIAL, accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+
+        motor.sincronizar();
+
+        assertEquals(Money.of(900), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(1100), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    /**
+     * Prueba una transferencia entre cuentas de shards distintos.
+     */
+    @Test
+    void testTransferirEntreShards() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuentaEnShard(1 - origen.getId() % 2, "ACTIVA");
+
+        transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(250));
+
+        assertEquals(Money.of(750), motor.getSaldo(origen.getId()).orElseThrow());
+        assertEquals(Money.of(1250), motor.getSaldo(destino.getId()).orElseThrow());
+        motor.sincronizar();
+        assertEquals(Money.of(750), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(1250), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    /**
+     * Prueba que si el shard de la cuenta destino queda fuera de servicio
+     * entre el débito y el crédito, la transferencia igual se confirma y el
+     * crédito se aplica en memoria y en la base de datos. El shard origen se
+     * ocupa hasta que el destino ya falló, para que el débito llegue después.
+     * El contexto se descarta porque el shard no vuelve a servicio.
+     */
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void testTransferirEntreShardsConDestinoFallido() throws Exception {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuentaEnShard(1 - origen.getId() % 2, "ACTIVA");
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        motor.shard(origen.getId()).enviar(s -> {
+            ocupado.countDown();
+            try {
+                return liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> transferencia = executor.submit(() -> transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(250)));
+            motor.shard(destino.getId()).fallar().join();
+            liberar.countDown();
+
+            assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(750), transferencia.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(Money.of(1250), motor.getSaldo(destino.getId()).orElseThrow());
+        assertThrows(IllegalStateException.class, () -> {
+            transactionService.transferirACuenta(destino.getId(), origen.getId(), Money.of(10));
+        });
+
+        motor.sincronizar();
+        assertEquals(Money.of(750), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(1250), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    /**
+     * Prueba que las validaciones del motor tienen los mismos mensajes que las
+     * de TransactionService y que una transferencia inválida no cambia saldos.
+     */
+    @Test
+    void testTransferirInvalida() {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuentaEnShard(1 - origen.getId() % 2, "ACTIVA");
+        AccountEntity bloqueada = crearCuentaEnShard(1 - origen.getId() % 2, "BLOQUEADA");
+
+        Exception e = assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(1000.01));
+        });
+        assertEquals("La cuenta origen no tiene saldo suficiente para la transferencia", e.getMessage());
+        e = assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), bloqueada.getId(), Money.of(10));
+        });
+        assertEquals("La cuenta destino debe estar en estado ACTIVA para recibir transferencias", e.getMessage());
+        e = assertThrows(EntityNotFoundException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), 0L, Money.of(10));
+        });
+        assertEquals("La cuenta destino no existe", e.getMessage());
+        e = assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), origen.getId(), Money.of(10));
+        });
+        assertEquals("La cuenta origen y destino no pueden ser la misma", e.getMessage());
+        e = assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), destino.getId(), null);
+        });
+        assertEquals("El monto a transferir debe ser positivo", e.getMessage());
+
+        assertEquals(SALDO_INICIAL, motor.getSaldo(origen.getId()).orElseThrow());
+        assertEquals(SALDO_INICIAL, motor.getSaldo(destino.getId()).orElseThrow());
+        motor.sincronizar();
+        assertEquals(0, transactionRepository.count());
+    }
+
+    /**
+     * Prueba una transferencia a un bolsillo y a un bolsillo que no existe.
+     */
+    @Test
+    void testTransferirABolsillo() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity cuenta = crearCuenta("ACTIVA");
+        PocketEntity bolsillo = factory.manufacturePojo(PocketEntity.class);
+        bolsillo.setAccount(cuenta);
+        bolsillo.setSaldo(Money.of(50));
+        bolsillo = pocketRepository.save(bolsillo);
+
+        String resultado = transactionService.transferirABolsillo(cuenta.getId(), bolsillo.getNombre(), Money.of(30));
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de la cuenta es: " + Money.of(970)
+                + " y el nuevo saldo del bolsillo es: " + Money.of(80), resultado);
+        Exception e = assertThrows(EntityNotFoundException.class, () -> {
+            transactionService.transferirABolsillo(cuenta.getId(), "no-existe", Money.of(30));
+        });
+        assertEquals("El bolsillo no existe", e.getMessage());
+
+        motor.sincronizar();
+        assertEquals(Money.of(970), accountRepository.findById(cuenta.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(80), pocketRepository.findById(bolsillo.getId()).orElseThrow().getSaldo());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    /**
+     * Prueba que una clave de idempotencia repetida no mueve el dinero dos
+     * veces.
+     */
+    @Test
+    void testTransferirConClaveDeIdempotencia() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuenta("ACTIVA");
+        String clave = UUID.randomUUID().toString();
+
+        String primera = transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100), clave);
+        String segunda = transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100), clave);
+
+        assertEquals(primera, segunda);
+        assertEquals(Money.of(900), motor.getSaldo(origen.getId()).orElseThrow());
+    }
+
+    /**
+     * Prueba que transferencias concurrentes en todos los sentidos, dentro de
+     * un shard y entre shards, conservan el total en memoria y en la base de
+     * datos.
+     */
+    @Test
+    void testTransferenciasConcurrentesConservanSaldo() throws Exception {
+        List<AccountEntity> cuentas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            cuentas.add(crearCuenta("ACTIVA"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                resultados.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        AccountEntity origen = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+                        AccountEntity destino = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+                        try {
+                            transactionService.transferirACuenta(origen.getId(), destino.getId(),
+                                    Money.ofCents(ThreadLocalRandom.current().nextInt(1, 50000)));
+                        } catch (BusinessLogicException e) {
+                            // Saldo insuficiente o misma cuenta: son resultados válidos
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long totalEnMemoria = 0;
+        for (AccountEntity cuenta : cuentas) {
+            Money saldo = motor.getSaldo(cuenta.getId()).orElseThrow();
+            assertFalse(saldo.isNegative());
+            totalEnMemoria += saldo.getCents();
+        }
+        assertEquals(SALDO_INICIAL.getCents() * cuentas.size(), totalEnMemoria);
+
+        motor.sincronizar();
+        long totalEnBaseDeDatos = 0;
+        for (AccountEntity cuenta : cuentas) {
+            Money saldo = accountRepository.findById(cuenta.getId()).orElseThrow().getSaldo();
+            assertEquals(motor.getSaldo(cuenta.getId()).orElseThrow(), saldo);
+            totalEnBaseDeDatos += saldo.getCents();
+        }
+        assertEquals(totalEnMemoria, totalEnBaseDeDatos);
+    }
+
+    /**
+     * Prueba que un segmento del journal que quedó de una caída se aplica a la
+     * base de datos una sola vez. Usa su propio directorio: recuperar el del
+     * motor tomaría los segmentos abiertos de los shards activos.
+     */
+    @Test
+    void testRecuperarSegmento() throws IOException {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuenta("ACTIVA");
+        Path directorio = Files.createDirectories(Path.of("target/memory-engine-test-recuperar"));
+        // NOTE: Un shard que no existe en esta configuración, para que su numeración no choque con la de los shards activos
+        int shard = 9;
+        long numero = System.currentTimeMillis();
+
+        escribirSegmento(directorio, shard, numero, origen, destino);
+        journalApplier.recuperar(directorio, "memory-shard-");
+
+        assertFalse(Files.exists(ShardJournal.archivo(directorio, shard, numero)));
+        assertEquals(Money.of(900), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(1100), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+        assertEquals(2, transactionRepository.count());
+
+        escribirSegmento(directorio, shard, numero, origen, destino);
+        journalApplier.recuperar(directorio, "memory-shard-");
+
+        assertEquals(Money.of(900), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    private void escribirSegmento(Path directorio, int shard, long numero, AccountEntity origen, AccountEntity destino) throws IOException {
+        long fecha = System.currentTimeMillis();
+        try (ShardJournal journal = new ShardJournal(directorio, shard, numero, false)) {
+            journal.agregar(new Movimiento(origen.getId(), 0, 10000, false, fecha));
+            journal.agregar(new Movimiento(destino.getId(), 0, 10000, true, fecha));
+            journal.confirmar();
+        }
+    }
+
+    private AccountEntity crearCuenta(String estado) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado(estado);
+        accountEntity.setSaldo(SALDO_INICIAL);
+        return accountRepository.save(accountEntity);
+    }
+
+    private AccountEntity crearCuentaEnShard(long shard, String estado) {
+        AccountEntity cuenta = crearCuenta(estado);
+        while (cuenta.getId() % 2 != shard) {
+            cuenta = crearCuenta(estado);
+        }
+        return cuenta;
+    }
+}
@@ -0,0 +1,79 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.benchmarks.BenchmarkContext;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+
+/**
+ * Proceso que JournaledTransferEngineCrashTest mata a la mitad de su trabajo.
+ * Arranca la aplicación con el motor de journal sobre una base de datos H2 en
+ * archivo, crea las cuentas e imprime sus ids en una línea CUENTAS, y después
+ * hace transferencias al azar una tras otra, imprimiendo una línea OK por cada
+ * transferencia confirmada, hasta que lo matan.
+ *
+ * Argumentos: directorio de la base de datos y directorio del journal.
+ */
+public final class JournalCrashProcess {
+
+    static final int CUENTAS = 20;
+    static final Money SALDO_INICIAL = Money.of(1000);
+
+    private JournalCrashProcess() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext contexto = BenchmarkContext.iniciar(propiedades(args[0], args[1]));
+
+        List<Long> ids = new ArrayList<>(CUENTAS);
+        for (int i = 0; i < CUENTAS; i++) {
+            AccountEntity cuenta = new AccountEntity();
+            cuenta.setNumeroCuenta("crash-" + i);
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldo(SALDO_INICIAL);
+            ids.add(contexto.getBean(AccountRepository.class).save(cuenta).getId());
+        }
+        System.out.println("CUENTAS " + String.join(",", ids.stream().map(String::valueOf).toList()));
+
+        TransactionService transactionService = contexto.getBean(TransactionService.class);
+        Random random = new Random();
+        while (true) {
+            long origen = ids.get(random.nextInt(CUENTAS));
+            long destino = ids.get(random.nextInt(CUENTAS));
+            long centavos = random.nextInt(1, 50000);
+            try {
+                transactionService.transferirACuenta(origen, destino, Money.ofCents(centavos));
+            } catch (BusinessLogicException e) {
+                // Saldo insuficiente o misma cuenta: no se confirma nada
+                continue;
+            }
+            // NOTE: La línea se imprime después de que la transferencia está en el journal, como la respuesta a un cliente
+            System.out.println("OK " + origen + " " + destino + " " + centavos);
+        }
+    }
+
+    /**
+     * Propiedades con las que arrancan el proceso y la prueba después de
+     * matarlo, sobre la misma base de datos y el mismo journal.
+     */
+    static String[] propiedades(String directorioBaseDeDatos, String directorioJournal) {
+        return new String[] {
+                // NOTE: WRITE_DELAY=0 para que H2 escriba cada commit antes de responder; si no, matar el proceso perdería commits ya hechos
+                "spring.datasource.url=jdbc:h2:file:" + directorioBaseDeDatos + "/crash;WRITE_DELAY=0",
+                "spring.jpa.hibernate.ddl-auto=update",
+                "transfer.engine=JOURNAL",
+                "transfer.journal.dir=" + directorioJournal,
+                "transfer.journal.flush-interval=PT0.05S",
+                "transfer.log.sample-every=100000",
+                "ledger.snapshot.enabled=false",
+                "reconciliation.enabled=false" };
+    }
+}
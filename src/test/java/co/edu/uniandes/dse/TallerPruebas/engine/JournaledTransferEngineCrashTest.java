@@ -0,0 +1,119 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import co.edu.uniandes.dse.TallerPruebas.benchmarks.BenchmarkContext;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+
+/**
+ * Prueba de recuperación del motor de journal: mata con kill -9 un proceso
+ * (JournalCrashProcess) que está haciendo transferencias y arranca la
+ * aplicación otra vez sobre la misma base de datos y el mismo journal. Toda
+ * transferencia que el proceso alcanzó a confirmar debe quedar aplicada una
+ * sola vez. La única diferencia permitida es la transferencia que estaba en
+ * curso: pudo llegar al journal sin que el proceso alcanzara a imprimirla.
+ */
+public class JournaledTransferEngineCrashTest {
+
+    private static final int CONFIRMADAS_ANTES_DE_MATAR = 500;
+
+    @Test
+    void testRecuperarDespuesDeMatarElProceso() throws Exception {
+        Path directorio = Files.createTempDirectory("journal-crash");
+        String baseDeDatos = directorio.resolve("db").toString();
+        String journal = directorio.resolve("journal").toString();
+
+        // 1. Lanzar el proceso y leer sus transferencias confirmadas hasta matarlo
+        // NOTE: Surefire arranca las pruebas con un jar que solo tiene el classpath en su manifiesto
+        String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        Process proceso = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-cp", classpath,
+                JournalCrashProcess.class.getName(), baseDeDatos, journal).redirectErrorStream(true).start();
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Long> esperados = new HashMap<>();
+        int confirmadas = 0;
+        try (BufferedReader salida = new BufferedReader(new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while (confirmadas < CONFIRMADAS_ANTES_DE_MATAR && (linea = salida.readLine()) != null) {
+                confirmadas += leerLinea(linea, ids, esperados);
+            }
+            // NOTE: Se mata por su ProcessHandle porque Process.destroyForcibly cierra la salida que falta por leer
+            proceso.toHandle().destroyForcibly();
+            // NOTE: El proceso va adelante de la lectura; las líneas OK que alcanzó a escribir antes de morir también son transferencias confirmadas
+            while ((linea = salida.readLine()) != null) {
+                confirmadas += leerLinea(linea, ids, esperados);
+            }
+        } finally {
+            proceso.destroyForcibly();
+        }
+        assertTrue(proceso.waitFor(1, TimeUnit.MINUTES));
+        assertTrue(confirmadas >= CONFIRMADAS_ANTES_DE_MATAR, "El proceso terminó antes de confirmar las transferencias");
+
+        // 2. Arrancar otra vez: el motor aplica los segmentos que quedaron en el journal
+        ConfigurableApplicationContext contexto = BenchmarkContext.iniciar(JournalCrashProcess.propiedades(baseDeDatos, journal));
+        try {
+            AccountRepository accountRepository = contexto.getBean(AccountRepository.class);
+            long movimientos = contexto.getBean(TransactionRepository.class).count();
+            assertTrue(movimientos == 2L * confirmadas || movimientos == 2L * confirmadas + 2,
+                    "Movimientos en el libro contable: " + movimientos + " para " + confirmadas + " transferencias confirmadas");
+
+            // 3. Comparar los saldos con las transferencias confirmadas
+            long total = 0;
+            List<Long> diferencias = new ArrayList<>();
+            for (Long id : ids) {
+                AccountEntity cuenta = accountRepository.findById(id).orElseThrow();
+                total += cuenta.getSaldo().getCents();
+                long diferencia = cuenta.getSaldo().getCents() - esperados.get(id);
+                if (diferencia != 0) {
+                    diferencias.add(diferencia);
+                }
+            }
+            assertEquals(JournalCrashProcess.SALDO_INICIAL.getCents() * ids.size(), total);
+            if (movimientos == 2L * confirmadas) {
+                assertEquals(List.of(), diferencias);
+            } else {
+                assertEquals(2, diferencias.size());
+                assertEquals(0, diferencias.get(0) + diferencias.get(1));
+            }
+        } finally {
+            contexto.close();
+        }
+    }
+
+    /**
+     * Registra una línea de la salida del proceso: las cuentas creadas o una
+     * transferencia confirmada.
+     *
+     * @return 1 si la línea es una transferencia confirmada, 0 si no
+     */
+    private static int leerLinea(String linea, List<Long> ids, Map<Long, Long> esperados) {
+        if (linea.startsWith("CUENTAS ")) {
+            for (String id : linea.substring("CUENTAS ".length()).split(",")) {
+                ids.add(Long.parseLong(id));
+                esperados.put(Long.parseLong(id), JournalCrashProcess.SALDO_INICIAL.getCents());
+            }
+        } else if (linea.startsWith("OK ")) {
+            String[] partes = linea.split(" ");
+            long monto = Long.parseLong(partes[3]);
+            esperados.merge(Long.parseLong(partes[1]), -monto, Long::sum);
+            esperados.merge(Long.parseLong(partes[2]), monto, Long::sum);
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,243 @@
+package co.edu.uniandes.dse.TallerPruebas.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.TransactionRepository;
+import co.edu.uniandes.dse.TallerPruebas.services.AccountSnapshotCache;
+import co.edu.uniandes.dse.TallerPruebas.services.BalanceStripeService;
+import co.edu.uniandes.dse.TallerPruebas.services.IdempotencyStore;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionRunner;
+import co.edu.uniandes.dse.TallerPruebas.services.TransactionService;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de TransactionService con el motor de transferencias con journal.
+ * El motor usa sus propios hilos y transacciones, así que los datos de la
+ * prueba deben hacer commit. El journal solo se aplica a la base de datos al
+ * llamar sincronizar, de modo que las pruebas ven los saldos con movimientos
+ * aún no aplicados. La recuperación después de matar el proceso está en
+ * JournaledTransferEngineCrashTest.
+ */
+@DataJpaTest(properties = { "transfer.engine=JOURNAL", "transfer.journal.dir=target/journal-engine-test",
+        "transfer.journal.flush-interval=PT1H" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ JournaledTransferEngine.class, JournalApplier.class, TransactionService.class, TransactionRunner.class,
+        OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class JournaledTransferEngineTest {
+
+    private static final Money SALDO_INICIAL = Money.of(1000);
+
+    @Autowired
+    private JournaledTransferEngine motor;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia los datos creados por la prueba, después de aplicar lo pendiente
+     * del journal.
+     */
+    @AfterEach
+    void tearDown() {
+        motor.sincronizar();
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba una transferencia: se confirma sin cambiar la base de datos, la
+     * siguiente transferencia ve su efecto y sincronizar la aplica.
+     */
+    @Test
+    void testTransferir() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuenta("ACTIVA");
+
+        String resultado = transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(600));
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(400), resultado);
+        assertEquals(SALDO_INICIAL, accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(1600), motor.getSaldo(destino.getId()).orElseThrow());
+        Exception e = assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(600));
+        });
+        assertEquals("La cuenta origen no tiene saldo suficiente para la transferencia", e.getMessage());
+
+        motor.sincronizar();
+
+        assertEquals(Money.of(400), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(1600), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(400), motor.getSaldo(origen.getId()).orElseThrow());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    /**
+     * Prueba que las validaciones del motor tienen los mismos mensajes que las
+     * de TransactionService y que una transferencia inválida no se escribe.
+     */
+    @Test
+    void testTransferirInvalida() {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity bloqueada = crearCuenta("BLOQUEADA");
+
+        Exception e = assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), bloqueada.getId(), Money.of(10));
+        });
+        assertEquals("La cuenta destino debe estar en estado ACTIVA para recibir transferencias", e.getMessage());
+        e = assertThrows(EntityNotFoundException.class, () -> {
+            transactionService.transferirACuenta(0L, origen.getId(), Money.of(10));
+        });
+        assertEquals("La cuenta origen no existe", e.getMessage());
+        e = assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), origen.getId(), Money.of(10));
+        });
+        assertEquals("La cuenta origen y destino no pueden ser la misma", e.getMessage());
+
+        motor.sincronizar();
+        assertEquals(SALDO_INICIAL, accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+        assertEquals(0, transactionRepository.count());
+    }
+
+    /**
+     * Prueba dos transferencias a un bolsillo antes de aplicar el journal: la
+     * segunda ve los saldos de la primera.
+     */
+    @Test
+    void testTransferirABolsillo() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity cuenta = crearCuenta("ACTIVA");
+        PocketEntity bolsillo = factory.manufacturePojo(PocketEntity.class);
+        bolsillo.setAccount(cuenta);
+        bolsillo.setSaldo(Money.of(50));
+        bolsillo = pocketRepository.save(bolsillo);
+
+        transactionService.transferirABolsillo(cuenta.getId(), bolsillo.getNombre(), Money.of(30));
+        String resultado = transactionService.transferirABolsillo(cuenta.getId(), bolsillo.getNombre(), Money.of(20));
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de la cuenta es: " + Money.of(950)
+                + " y el nuevo saldo del bolsillo es: " + Money.of(100), resultado);
+        Exception e = assertThrows(EntityNotFoundException.class, () -> {
+            transactionService.transferirABolsillo(cuenta.getId(), "no-existe", Money.of(30));
+        });
+        assertEquals("El bolsillo no existe", e.getMessage());
+
+        motor.sincronizar();
+        assertEquals(Money.of(950), accountRepository.findById(cuenta.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(100), pocketRepository.findById(bolsillo.getId()).orElseThrow().getSaldo());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    /**
+     * Prueba que una clave de idempotencia repetida no mueve el dinero dos
+     * veces.
+     */
+    @Test
+    void testTransferirConClaveDeIdempotencia() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = crearCuenta("ACTIVA");
+        AccountEntity destino = crearCuenta("ACTIVA");
+        String clave = UUID.randomUUID().toString();
+
+        String primera = transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100), clave);
+        String segunda = transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100), clave);
+
+        assertEquals(primera, segunda);
+        assertEquals(Money.of(900), motor.getSaldo(origen.getId()).orElseThrow());
+    }
+
+    /**
+     * Prueba que transferencias concurrentes en todos los sentidos, aplicando
+     * el journal a la mitad, conservan el total y nunca dejan un saldo
+     * negativo.
+     */
+    @Test
+    void testTransferenciasConcurrentesConservanSaldo() throws Exception {
+        List<AccountEntity> cuentas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            cuentas.add(crearCuenta("ACTIVA"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                int hilo = h;
+                resultados.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        if (hilo == 0 && i % 50 == 0) {
+                            motor.sincronizar();
+                        }
+                        AccountEntity origen = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+                        AccountEntity destino = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+                        try {
+                            transactionService.transferirACuenta(origen.getId(), destino.getId(),
+                                    Money.ofCents(ThreadLocalRandom.current().nextInt(1, 50000)));
+                        } catch (BusinessLogicException e) {
+                            // Saldo insuficiente o misma cuenta: son resultados válidos
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long totalConfirmado = 0;
+        for (AccountEntity cuenta : cuentas) {
+            Money saldo = motor.getSaldo(cuenta.getId()).orElseThrow();
+            assertFalse(saldo.isNegative());
+            totalConfirmado += saldo.getCents();
+        }
+        assertEquals(SALDO_INICIAL.getCents() * cuentas.size(), totalConfirmado);
+
+        motor.sincronizar();
+        for (AccountEntity cuenta : cuentas) {
+            assertEquals(motor.getSaldo(cuenta.getId()).orElseThrow(), accountRepository.findById(cuenta.getId()).orElseThrow().getSaldo());
+        }
+    }
+
+    private AccountEntity crearCuenta(String estado) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado(estado);
+        accountEntity.setSaldo(SALDO_INICIAL);
+        return accountRepository.save(accountEntity);
+    }
+}
@@ -0,0 +1,112 @@
+package co.edu.uniandes.dse.TallerPruebas.mappers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountDetailDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.PocketDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransactionDTO;
+import co.edu.uniandes.dse.TallerPruebas.dto.UserDetailDTO;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de DtoMapper
+ */
+public class DtoMapperTest {
+
+    private DtoMapper dtoMapper = new DtoMapper();
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Prueba para convertir una cuenta con sus bolsillos.
+     */
+    @Test
+    void testToAccountDetailDTO() {
+        AccountEntity account = factory.manufacturePojo(AccountEntity.class);
+        account.setId(1L);
+        for (int i = 0; i < 3; i++) {
+            PocketEntity pocket = factory.manufacturePojo(PocketEntity.class);
+            pocket.setId((long) i);
+            account.getPockets().add(pocket);
+        }
+
+        AccountDetailDTO dto = dtoMapper.toAccountDetailDTO(account);
+
+        assertEquals(account.getId(), dto.getId());
+        assertEquals(account.getNumeroCuenta(), dto.getNumeroCuenta());
+        assertEquals(account.getSaldo(), dto.getSaldo());
+        assertEquals(account.getEstado(), dto.getEstado());
+        assertEquals(account.getPockets().size(), dto.getPockets().size());
+        for (int i = 0; i < account.getPockets().size(); i++) {
+            PocketEntity pocket = account.getPockets().get(i);
+            PocketDTO pocketDTO = dto.getPockets().get(i);
+            assertEquals(pocket.getId(), pocketDTO.getId());
+            assertEquals(pocket.getNombre(), pocketDTO.getNombre());
+            assertEquals(pocket.getSaldo(), pocketDTO.getSaldo());
+            assertEquals(pocket.getMetaAhorro(), pocketDTO.getMetaAhorro());
+        }
+    }
+
+    /**
+     * Prueba para convertir un bolsillo recibido a entidad.
+     */
+    @Test
+    void testToPocketEntity() {
+        PocketDTO dto = factory.manufacturePojo(PocketDTO.class);
+
+        PocketEntity entity = dtoMapper.toPocketEntity(dto);
+
+        assertEquals(dto.getId(), entity.getId());
+        assertEquals(dto.getNombre(), entity.getNombre());
+        assertEquals(dto.getSaldo(), entity.getSaldo());
+        assertEquals(dto.getMetaAhorro(), entity.getMetaAhorro());
+        assertNull(entity.getAccount());
+    }
+
+    /**
+     * Prueba para convertir un movimiento del extracto.
+     */
+    @Test
+    void testToTransactionDTO() {
+        TransactionEntity entity = factory.manufacturePojo(TransactionEntity.class);
+        entity.setId(1L);
+
+        TransactionDTO dto = dtoMapper.toTransactionDTO(entity);
+
+        assertEquals(entity.getId(), dto.getId());
+        assertEquals(entity.getMonto(), dto.getMonto());
+        assertEquals(entity.getFecha(), dto.getFecha());
+        assertEquals(entity.getTipo(), dto.getTipo());
+    }
+
+    /**
+     * Prueba para convertir un usuario con sus cuentas.
+     */
+    @Test
+    void testToUserDetailDTO() {
+        UserEntity user = factory.manufacturePojo(UserEntity.class);
+        user.setId(1L);
+        for (int i = 0; i < 2; i++) {
+            AccountEntity account = factory.manufacturePojo(AccountEntity.class);
+            account.setId((long) i);
+            user.getAccounts().add(account);
+        }
+
+        UserDetailDTO dto = dtoMapper.toUserDetailDTO(user);
+
+        assertEquals(user.getId(), dto.getId());
+        assertEquals(user.getName(), dto.getName());
+        assertEquals(user.getEmail(), dto.getEmail());
+        assertEquals(user.getLogin(), dto.getLogin());
+        assertEquals(user.getCedula(), dto.getCedula());
+        assertEquals(2, dto.getAccounts().size());
+        assertEquals(user.getAccounts().get(1).getNumeroCuenta(), dto.getAccounts().get(1).getNumeroCuenta());
+    }
+}
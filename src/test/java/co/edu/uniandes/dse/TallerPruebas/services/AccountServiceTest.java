@@ -0,0 +1,238 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.AccountSnapshot;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de lógica de AccountService y de la caché de cuentas. No se ejecutan
+ * dentro de la transacción de la prueba para que las transferencias hagan
+ * commit y la caché se invalide como en producción.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ AccountService.class, TransactionService.class, PocketService.class, TransactionRunner.class, OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class AccountServiceTest {
+
+    private static final int LECTORES = 4;
+    private static final int TRANSFERENCIAS = 100;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PocketService pocketService;
+
+    @Autowired
+    private AccountSnapshotCache accountSnapshotCache;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia las cuentas creadas por la prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba para consultar una cuenta con sus bolsillos. Los bolsillos se
+     * usan fuera de la transacción, así que deben venir cargados.
+     */
+    @Test
+    void testGetAccount() throws EntityNotFoundException {
+        AccountEntity account = crearCuenta(Money.of(1000));
+        crearBolsillo(account, Money.of(100));
+        crearBolsillo(account, Money.of(50));
+
+        AccountEntity result = accountService.getAccount(account.getId());
+
+        assertEquals(account.getId(), result.getId());
+        assertEquals(account.getNumeroCuenta(), result.getNumeroCuenta());
+        assertEquals(2, result.getPockets().size());
+    }
+
+    /**
+     * Prueba para consultar una cuenta que no existe.
+     */
+    @Test
+    void testGetAccountWithInvalidAccount() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            accountService.getAccount(0L);
+        });
+    }
+
+    /**
+     * Prueba para consultar la foto de una cuenta con sus bolsillos.
+     */
+    @Test
+    void testGetSnapshot() throws EntityNotFoundException {
+        AccountEntity account = crearCuenta(Money.of(1000));
+        crearBolsillo(account, Money.of(100));
+        crearBolsillo(account, Money.of(50));
+
+        AccountSnapshot snapshot = accountService.getSnapshot(account.getId());
+
+        assertEquals(account.getId(), snapshot.getId());
+        assertEquals("ACTIVA", snapshot.getEstado());
+        assertEquals(Money.of(1000), snapshot.getSaldo());
+        assertEquals(2, snapshot.getBolsillos());
+        assertEquals(Money.of(150), snapshot.getSaldoBolsillos());
+    }
+
+    /**
+     * Prueba para consultar la foto de una cuenta que no existe.
+     */
+    @Test
+    void testGetSnapshotWithInvalidAccount() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            accountService.getSnapshot(0L);
+        });
+    }
+
+    /**
+     * Prueba que la segunda consulta de una cuenta sale de la caché.
+     */
+    @Test
+    void testGetSnapshotUsaCache() throws EntityNotFoundException {
+        AccountEntity account = crearCuenta(Money.of(1000));
+        accountService.getSnapshot(account.getId());
+        long aciertos = accountSnapshotCache.getEstadisticas().hitCount();
+
+        accountService.getSnapshot(account.getId());
+
+        assertEquals(aciertos + 1, accountSnapshotCache.getEstadisticas().hitCount());
+    }
+
+    /**
+     * Prueba que después de una transferencia la caché no sirve los saldos
+     * anteriores de ninguna de las cuentas.
+     */
+    @Test
+    void testGetSnapshotDespuesDeTransferirACuenta() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = crearCuenta(Money.of(1000));
+        AccountEntity destino = crearCuenta(Money.of(0));
+        accountService.getSnapshot(origen.getId());
+        accountService.getSnapshot(destino.getId());
+
+        transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(300));
+
+        assertEquals(Money.of(700), accountService.getSnapshot(origen.getId()).getSaldo());
+        assertEquals(Money.of(300), accountService.getSnapshot(destino.getId()).getSaldo());
+    }
+
+    /**
+     * Prueba que después de transferir a un bolsillo o crear uno la caché no
+     * sirve el resumen de bolsillos anterior.
+     */
+    @Test
+    void testGetSnapshotDespuesDeOperarBolsillos() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity account = crearCuenta(Money.of(1000));
+        PocketEntity bolsillo = crearBolsillo(account, Money.of(0));
+        accountService.getSnapshot(account.getId());
+
+        transactionService.transferirABolsillo(account.getId(), bolsillo.getNombre(), Money.of(200));
+        AccountSnapshot snapshot = accountService.getSnapshot(account.getId());
+        assertEquals(Money.of(800), snapshot.getSaldo());
+        assertEquals(Money.of(200), snapshot.getSaldoBolsillos());
+
+        PocketEntity nuevo = factory.manufacturePojo(PocketEntity.class);
+        nuevo.setSaldo(Money.of(0));
+        pocketService.createPocket(account.getId(), nuevo);
+        assertEquals(2, accountService.getSnapshot(account.getId()).getBolsillos());
+    }
+
+    /**
+     * Prueba que mientras otros hilos leen (y recargan) la caché sin parar,
+     * cada lectura hecha después del commit de una transferencia ve el saldo
+     * nuevo.
+     */
+    @Test
+    void testGetSnapshotNuncaDesactualizadoConLecturasConcurrentes() throws Exception {
+        AccountEntity origen = crearCuenta(Money.of(1000));
+        AccountEntity destino = crearCuenta(Money.of(0));
+
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(LECTORES);
+        try {
+            List<Future<?>> lectores = new ArrayList<>();
+            for (int i = 0; i < LECTORES; i++) {
+                lectores.add(executor.submit(() -> {
+                    while (!terminado.get()) {
+                        accountService.getSnapshot(origen.getId());
+                        accountService.getSnapshot(destino.getId());
+                    }
+                    return null;
+                }));
+            }
+
+            Money esperadoOrigen = Money.of(1000);
+            Money esperadoDestino = Money.of(0);
+            Money monto = Money.of(1);
+            for (int i = 0; i < TRANSFERENCIAS; i++) {
+                transactionService.transferirACuenta(origen.getId(), destino.getId(), monto);
+                esperadoOrigen = esperadoOrigen.minus(monto);
+                esperadoDestino = esperadoDestino.plus(monto);
+                assertEquals(esperadoOrigen, accountService.getSnapshot(origen.getId()).getSaldo());
+                assertEquals(esperadoDestino, accountService.getSnapshot(destino.getId()).getSaldo());
+            }
+
+            terminado.set(true);
+            for (Future<?> lector : lectores) {
+                lector.get();
+            }
+        } finally {
+            terminado.set(true);
+            executor.shutdown();
+        }
+    }
+
+    private AccountEntity crearCuenta(Money saldo) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado("ACTIVA");
+        accountEntity.setSaldo(saldo);
+        return accountRepository.save(accountEntity);
+    }
+
+    private PocketEntity crearBolsillo(AccountEntity account, Money saldo) {
+        PocketEntity pocketEntity = factory.manufacturePojo(PocketEntity.class);
+        pocketEntity.setAccount(account);
+        pocketEntity.setSaldo(saldo);
+        return pocketRepository.save(pocketEntity);
+    }
+}
@@ -0,0 +1,11 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/**
+ * Ejecuta las pruebas de AccountService con hilos virtuales, en las que la
+ * caché de cuentas carga las fotos en un hilo aparte.
+ */
+@DataJpaTest(properties = { "spring.threads.virtual.enabled=true" })
+public class AccountServiceVirtualThreadsTest extends AccountServiceTest {
+}
@@ -0,0 +1,230 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceSnapshotEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de lógica de BalanceSnapshotService
+ *
+ * La cuenta de las pruebas recibe 1000 el 5 de enero, tiene una foto del 10
+ * de enero, recibe 500 el 15 y envía 200 el 20, así que su saldo es 1300.
+ */
+@DataJpaTest
+@Transactional
+@Import(BalanceSnapshotService.class)
+public class BalanceSnapshotServiceTest {
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private AccountEntity account;
+
+    /**
+     * Configuración inicial de la prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        clearData();
+        insertData();
+    }
+
+    /**
+     * Limpia las tablas que están implicadas en la prueba.
+     */
+    private void clearData() {
+        entityManager.getEntityManager().createQuery("delete from BalanceSnapshotEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from TransactionEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from PocketEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from AccountEntity").executeUpdate();
+    }
+
+    /**
+     * Inserta datos iniciales para el correcto funcionamiento de las pruebas.
+     */
+    private void insertData() {
+        account = factory.manufacturePojo(AccountEntity.class);
+        account.setEstado("ACTIVA");
+        account.setSaldo(Money.of(1300));
+        entityManager.persist(account);
+
+        TransactionEntity deposito = registrarMovimiento(Money.of(1000), "ENTRADA", "2024-01-05T00:00:00Z");
+        BalanceSnapshotEntity foto = new BalanceSnapshotEntity();
+        foto.setAccountId(account.getId());
+        foto.setSaldo(Money.of(1000));
+        foto.setUltimoMovimientoId(deposito.getId());
+        foto.setFecha(fecha("2024-01-10T00:00:00Z"));
+        entityManager.persist(foto);
+
+        registrarMovimiento(Money.of(500), "ENTRADA", "2024-01-15T00:00:00Z");
+        registrarMovimiento(Money.of(200), "SALIDA", "2024-01-20T00:00:00Z");
+    }
+
+    /**
+     * Prueba para tomar las fotos de un bloque de cuentas: solo se toma foto de
+     * las cuentas con movimientos posteriores a su última foto o sin fotos.
+     */
+    @Test
+    void testTomarFotos() {
+        AccountEntity sinMovimientos = factory.manufacturePojo(AccountEntity.class);
+        sinMovimientos.setSaldo(Money.of(50));
+        entityManager.persist(sinMovimientos);
+
+        Long ultimaCuenta = balanceSnapshotService.tomarFotos(0L, 100);
+
+        assertEquals(sinMovimientos.getId(), ultimaCuenta);
+        List<BalanceSnapshotEntity> fotos = buscarFotos(account.getId());
+        assertEquals(2, fotos.size());
+        assertEquals(Money.of(1300), fotos.get(1).getSaldo());
+        assertEquals(ultimoMovimientoId(), fotos.get(1).getUltimoMovimientoId());
+
+        List<BalanceSnapshotEntity> fotosSinMovimientos = buscarFotos(sinMovimientos.getId());
+        assertEquals(1, fotosSinMovimientos.size());
+        assertEquals(Money.of(50), fotosSinMovimientos.get(0).getSaldo());
+        assertEquals(0L, fotosSinMovimientos.get(0).getUltimoMovimientoId());
+    }
+
+    /**
+     * Prueba que una segunda pasada sin movimientos nuevos no toma fotos.
+     */
+    @Test
+    void testTomarFotosSinMovimientosNuevos() {
+        balanceSnapshotService.tomarFotos(0L, 100);
+        balanceSnapshotService.tomarFotos(0L, 100);
+
+        assertEquals(2, buscarFotos(account.getId()).size());
+    }
+
+    /**
+     * Prueba que el recorrido por bloques termina después de la última cuenta.
+     */
+    @Test
+    void testTomarFotosSinCuentasRestantes() {
+        assertNull(balanceSnapshotService.tomarFotos(account.getId(), 100));
+    }
+
+    /**
+     * Prueba para verificar un saldo que coincide con el libro contable.
+     */
+    @Test
+    void testVerificarSaldo() throws EntityNotFoundException, BusinessLogicException {
+        assertTrue(balanceSnapshotService.verificarSaldo(account.getId()));
+    }
+
+    /**
+     * Prueba para verificar un saldo que no coincide con el libro contable.
+     */
+    @Test
+    void testVerificarSaldoAlterado() throws EntityNotFoundException, BusinessLogicException {
+        account.setSaldo(Money.of(1299));
+        entityManager.merge(account);
+
+        assertFalse(balanceSnapshotService.verificarSaldo(account.getId()));
+    }
+
+    /**
+     * Prueba para verificar el saldo de una cuenta que no existe.
+     */
+    @Test
+    void testVerificarSaldoWithInvalidAccount() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            balanceSnapshotService.verificarSaldo(0L);
+        });
+    }
+
+    /**
+     * Prueba para verificar el saldo de una cuenta sin fotos.
+     */
+    @Test
+    void testVerificarSaldoSinFotos() {
+        AccountEntity sinFotos = factory.manufacturePojo(AccountEntity.class);
+        sinFotos.setSaldo(Money.of(50));
+        entityManager.persist(sinFotos);
+
+        assertThrows(BusinessLogicException.class, () -> {
+            balanceSnapshotService.verificarSaldo(sinFotos.getId());
+        });
+    }
+
+    /**
+     * Prueba para consultar el saldo en fechas posteriores a la foto.
+     */
+    @Test
+    void testGetSaldoEnDespuesDeLaFoto() throws EntityNotFoundException {
+        assertEquals(Money.of(1000), balanceSnapshotService.getSaldoEn(account.getId(), fecha("2024-01-12T00:00:00Z")));
+        assertEquals(Money.of(1500), balanceSnapshotService.getSaldoEn(account.getId(), fecha("2024-01-17T00:00:00Z")));
+        assertEquals(Money.of(1300), balanceSnapshotService.getSaldoEn(account.getId(), fecha("2024-01-25T00:00:00Z")));
+    }
+
+    /**
+     * Prueba para consultar el saldo en una fecha anterior a todas las fotos.
+     */
+    @Test
+    void testGetSaldoEnAntesDeLaFoto() throws EntityNotFoundException {
+        assertEquals(Money.of(1000), balanceSnapshotService.getSaldoEn(account.getId(), fecha("2024-01-07T00:00:00Z")));
+        assertEquals(Money.ZERO, balanceSnapshotService.getSaldoEn(account.getId(), fecha("2024-01-01T00:00:00Z")));
+    }
+
+    /**
+     * Prueba para consultar el saldo histórico de una cuenta que no existe.
+     */
+    @Test
+    void testGetSaldoEnWithInvalidAccount() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            balanceSnapshotService.getSaldoEn(0L, new Date());
+        });
+    }
+
+    private TransactionEntity registrarMovimiento(Money monto, String tipo, String fecha) {
+        TransactionEntity movimiento = new TransactionEntity();
+        movimiento.setAccount(account);
+        movimiento.setMonto(monto);
+        movimiento.setTipo(tipo);
+        movimiento.setFecha(fecha(fecha));
+        entityManager.persist(movimiento);
+        return movimiento;
+    }
+
+    private Long ultimoMovimientoId() {
+        return entityManager.getEntityManager()
+                .createQuery("select max(t.id) from TransactionEntity t where t.account.id = :accountId", Long.class)
+                .setParameter("accountId", account.getId())
+                .getSingleResult();
+    }
+
+    private List<BalanceSnapshotEntity> buscarFotos(Long accountId) {
+        return entityManager.getEntityManager()
+                .createQuery("select s from BalanceSnapshotEntity s where s.accountId = :accountId order by s.ultimoMovimientoId, s.id", BalanceSnapshotEntity.class)
+                .setParameter("accountId", accountId)
+                .getResultList();
+    }
+
+    private static Date fecha(String instante) {
+        return Date.from(Instant.parse(instante));
+    }
+}
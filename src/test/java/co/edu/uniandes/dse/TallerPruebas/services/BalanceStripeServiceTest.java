@@ -0,0 +1,269 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.BalanceStripeEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceSnapshotRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceStripeRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de las franjas de saldo y de las transferencias hacia y desde
+ * cuentas con franjas. No se ejecutan dentro de la transacción de la prueba
+ * para que los créditos concurrentes compitan por los bloqueos de las franjas.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BalanceStripeService.class, BalanceSnapshotService.class, TransactionService.class, TransactionRunner.class,
+        OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class })
+public class BalanceStripeServiceTest {
+
+    private static final Money SALDO_INICIAL = Money.of(1000);
+
+    @Autowired
+    private BalanceStripeService balanceStripeService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private BalanceStripeRepository balanceStripeRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia los datos creados por la prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAll();
+        balanceStripeRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba que activar las franjas crea una fila por franja y que su número
+     * solo puede aumentar.
+     */
+    @Test
+    void testActivarFranjas() throws Exception {
+        AccountEntity cuenta = crearCuenta(SALDO_INICIAL);
+
+        balanceStripeService.activarFranjas(cuenta.getId(), 4);
+
+        assertEquals(4, accountRepository.findById(cuenta.getId()).orElseThrow().getFranjasSaldo().intValue());
+        assertEquals(Money.ZERO, saldoFranjas(cuenta.getId()));
+        assertTrue(balanceStripeService.tieneFranjas(cuenta.getId()));
+        balanceStripeService.activarFranjas(cuenta.getId(), 6);
+        assertEquals(6, balanceStripeRepository.findAll().stream().filter(f -> f.getAccountId().equals(cuenta.getId())).count());
+
+        assertThrows(BusinessLogicException.class, () -> balanceStripeService.activarFranjas(cuenta.getId(), 2));
+        assertThrows(BusinessLogicException.class, () -> balanceStripeService.activarFranjas(cuenta.getId(), 0));
+        assertThrows(EntityNotFoundException.class, () -> balanceStripeService.activarFranjas(0L, 4));
+    }
+
+    /**
+     * Prueba que los créditos a una cuenta con franjas no modifican su fila y
+     * que su saldo incluye el de las franjas.
+     */
+    @Test
+    void testCreditosVanALasFranjas() throws Exception {
+        AccountEntity caliente = crearCuenta(SALDO_INICIAL);
+        AccountEntity origen = crearCuenta(SALDO_INICIAL);
+        balanceStripeService.activarFranjas(caliente.getId(), 4);
+
+        for (int i = 0; i < 3; i++) {
+            transactionService.transferirACuenta(origen.getId(), caliente.getId(), Money.of(100));
+        }
+
+        assertEquals(SALDO_INICIAL, accountRepository.findById(caliente.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.of(300), saldoFranjas(caliente.getId()));
+        assertEquals(Money.of(1300), Money.ofCents(accountRepository.findSaldoTotalById(caliente.getId())));
+        assertEquals(Money.of(700), accountRepository.findById(origen.getId()).orElseThrow().getSaldo());
+    }
+
+    /**
+     * Prueba que los débitos de una cuenta con franjas pueden usar el saldo de
+     * las franjas, pero no más: el saldo insuficiente se detecta igual que en
+     * una cuenta sin franjas.
+     */
+    @Test
+    void testDebitosUsanElSaldoDeLasFranjas() throws Exception {
+        AccountEntity caliente = crearCuenta(Money.of(100));
+        AccountEntity otra = crearCuenta(SALDO_INICIAL);
+        balanceStripeService.activarFranjas(caliente.getId(), 4);
+        transactionService.transferirACuenta(otra.getId(), caliente.getId(), Money.of(50));
+
+        String resultado = transactionService.transferirACuenta(caliente.getId(), otra.getId(), Money.of(120));
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(30), resultado);
+        assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transferirACuenta(caliente.getId(), otra.getId(), Money.of(31));
+        });
+
+        PocketEntity bolsillo = crearBolsillo(caliente);
+        resultado = transactionService.transferirABolsillo(caliente.getId(), bolsillo.getNombre(), Money.of(30));
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de la cuenta es: " + Money.ZERO
+                + " y el nuevo saldo del bolsillo es: " + Money.of(30), resultado);
+        assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transferirABolsillo(caliente.getId(), bolsillo.getNombre(), Money.ofCents(1));
+        });
+        assertEquals(Money.ZERO, Money.ofCents(accountRepository.findSaldoTotalById(caliente.getId())));
+    }
+
+    /**
+     * Prueba que plegar pasa el saldo de las franjas a la fila sin cambiar el
+     * saldo de la cuenta.
+     */
+    @Test
+    void testPlegar() throws Exception {
+        AccountEntity caliente = crearCuenta(SALDO_INICIAL);
+        AccountEntity origen = crearCuenta(SALDO_INICIAL);
+        balanceStripeService.activarFranjas(caliente.getId(), 4);
+        for (int i = 0; i < 5; i++) {
+            transactionService.transferirACuenta(origen.getId(), caliente.getId(), Money.of(10));
+        }
+
+        assertEquals(Money.of(50), balanceStripeService.plegar(caliente.getId()));
+
+        assertEquals(Money.of(1050), accountRepository.findById(caliente.getId()).orElseThrow().getSaldo());
+        assertEquals(Money.ZERO, saldoFranjas(caliente.getId()));
+        assertEquals(Money.ZERO, balanceStripeService.plegar(caliente.getId()));
+    }
+
+    /**
+     * Prueba que las fotos y la verificación de saldos incluyen las franjas.
+     */
+    @Test
+    void testVerificarSaldoConFranjas() throws Exception {
+        AccountEntity caliente = crearCuenta(SALDO_INICIAL);
+        AccountEntity origen = crearCuenta(SALDO_INICIAL);
+        balanceStripeService.activarFranjas(caliente.getId(), 4);
+        transactionService.transferirACuenta(origen.getId(), caliente.getId(), Money.of(10));
+        balanceSnapshotService.tomarFotos(0L, 100);
+
+        transactionService.transferirACuenta(origen.getId(), caliente.getId(), Money.of(20));
+        assertTrue(balanceSnapshotService.verificarSaldo(caliente.getId()));
+        balanceStripeService.plegar(caliente.getId());
+        assertTrue(balanceSnapshotService.verificarSaldo(caliente.getId()));
+    }
+
+    /**
+     * Prueba muchos créditos concurrentes a una cuenta con franjas, con débitos
+     * y plegados al mismo tiempo: el dinero total se conserva y ninguna cuenta
+     * queda con saldo negativo.
+     */
+    @Test
+    void testCreditosConcurrentesConservanSaldo() throws Exception {
+        AccountEntity caliente = crearCuenta(SALDO_INICIAL);
+        List<AccountEntity> cuentas = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            cuentas.add(crearCuenta(SALDO_INICIAL));
+        }
+        balanceStripeService.activarFranjas(caliente.getId(), 8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(cuentas.size() + 1);
+        AtomicBoolean terminado = new AtomicBoolean();
+        try {
+            Future<?> plegados = executor.submit(() -> {
+                while (!terminado.get()) {
+                    balanceStripeService.plegar(caliente.getId());
+                }
+                return null;
+            });
+            List<Future<?>> resultados = new ArrayList<>();
+            for (AccountEntity cuenta : cuentas) {
+                resultados.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        // NOTE: Uno de cada cinco movimientos es un débito de la cuenta caliente
+                        boolean debito = ThreadLocalRandom.current().nextInt(5) == 0;
+                        try {
+                            transactionService.transferirACuenta(debito ? caliente.getId() : cuenta.getId(),
+                                    debito ? cuenta.getId() : caliente.getId(), Money.ofCents(ThreadLocalRandom.current().nextInt(1, 5000)));
+                        } catch (BusinessLogicException e) {
+                            // Saldo insuficiente: es un resultado válido bajo concurrencia
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+            terminado.set(true);
+            plegados.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        long total = accountRepository.findSaldoTotalById(caliente.getId());
+        assertTrue(total >= 0);
+        for (AccountEntity cuenta : cuentas) {
+            Money saldo = accountRepository.findById(cuenta.getId()).orElseThrow().getSaldo();
+            assertFalse(saldo.isNegative());
+            total += saldo.getCents();
+        }
+        assertEquals(SALDO_INICIAL.getCents() * (cuentas.size() + 1), total);
+    }
+
+    private Money saldoFranjas(Long accountId) {
+        Money saldo = Money.ZERO;
+        for (BalanceStripeEntity franja : balanceStripeRepository.findAll()) {
+            if (franja.getAccountId().equals(accountId)) {
+                saldo = saldo.plus(franja.getSaldo());
+            }
+        }
+        return saldo;
+    }
+
+    private AccountEntity crearCuenta(Money saldo) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado("ACTIVA");
+        accountEntity.setSaldo(saldo);
+        return accountRepository.save(accountEntity);
+    }
+
+    private PocketEntity crearBolsillo(AccountEntity cuenta) {
+        PocketEntity pocketEntity = factory.manufacturePojo(PocketEntity.class);
+        pocketEntity.setSaldo(Money.ZERO);
+        pocketEntity.setAccount(cuenta);
+        return pocketRepository.save(pocketEntity);
+    }
+}
@@ -0,0 +1,303 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.ImportReport;
+import co.edu.uniandes.dse.TallerPruebas.dto.ReconciliationReport;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de lógica de ImportService. Los lotes son de dos filas para que los
+ * duplicados y los errores queden repartidos en varios lotes.
+ */
+@DataJpaTest(properties = { "import.batch-size=2", "import.queue-capacity=1", "import.report-dir=target/import-test",
+        "reconciliation.report-dir=target/import-test" })
+@Transactional
+@Import({ ImportService.class, AccountSnapshotCache.class, ReconciliationService.class, BalanceSnapshotService.class })
+public class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    private Path directorio;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private UserEntity usuario;
+
+    private AccountEntity cuentaActiva;
+
+    private AccountEntity cuentaBloqueada;
+
+    /**
+     * Configuración inicial de la prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        clearData();
+        insertData();
+    }
+
+    /**
+     * Limpia las tablas que están implicadas en la prueba.
+     */
+    private void clearData() {
+        entityManager.getEntityManager().createQuery("delete from BalanceSnapshotEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from TransactionEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from PocketEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from AccountEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from UserEntity").executeUpdate();
+    }
+
+    /**
+     * Inserta datos iniciales para el correcto funcionamiento de las pruebas.
+     */
+    private void insertData() {
+        usuario = factory.manufacturePojo(UserEntity.class);
+        usuario.setLogin("existente");
+        entityManager.persist(usuario);
+
+        cuentaActiva = crearCuenta("100", "ACTIVA");
+        cuentaBloqueada = crearCuenta("200", "BLOQUEADA");
+
+        PocketEntity bolsillo = factory.manufacturePojo(PocketEntity.class);
+        bolsillo.setNombre("Viajes");
+        bolsillo.setSaldoInicial(bolsillo.getSaldo());
+        bolsillo.setAccount(cuentaActiva);
+        entityManager.persist(bolsillo);
+    }
+
+    /**
+     * Prueba para importar usuarios desde un CSV con valores entre comillas,
+     * filas incompletas y logins repetidos en el archivo y en la base de datos.
+     */
+    @Test
+    void testImportarUsuariosCsv() throws IOException {
+        Path archivo = escribir("usuarios.csv",
+                "name,email,login,cedula",
+                "\"Pérez, Ana\",ana@banco.co,ana,101",
+                "Luis,luis@banco.co,luis,102",
+                "",
+                "Sin login,sin@banco.co,,103",
+                "Otra Ana,ana2@banco.co,ana,104",
+                "Repetido,rep@banco.co,existente,105",
+                "Email,no-es-email,email,106",
+                "Marta,marta@banco.co,marta,107");
+
+        ImportReport reporte = importService.importar(ImportKind.USUARIOS, archivo);
+
+        assertEquals(7, reporte.getFilas());
+        assertEquals(3, reporte.getImportadas());
+        assertEquals(4, reporte.getRechazadas());
+        UserEntity ana = buscarUsuario("ana");
+        assertEquals("Pérez, Ana", ana.getName());
+        assertEquals("101", ana.getCedula());
+        assertNotNull(buscarUsuario("marta"));
+
+        List<String> errores = Files.readAllLines(Path.of(reporte.getArchivoErrores()));
+        assertEquals(List.of("linea,error",
+                "5,\"El campo login es obligatorio\"",
+                "6,\"Ya existe un usuario con el login ana\"",
+                "7,\"Ya existe un usuario con el login existente\"",
+                "8,\"El email no-es-email no es válido\""), errores);
+    }
+
+    /**
+     * Prueba para importar cuentas desde NDJSON con usuarios inexistentes,
+     * montos inválidos y JSON mal formado.
+     */
+    @Test
+    void testImportarCuentasNdjson() throws IOException {
+        Path archivo = escribir("cuentas.ndjson",
+                "{\"numeroCuenta\":\"300\",\"saldo\":\"1500.50\",\"login\":\"existente\"}",
+                "{\"numeroCuenta\":\"301\",\"estado\":\"BLOQUEADA\",\"login\":\"existente\"}",
+                "{\"numeroCuenta\":\"302\",\"login\":\"nadie\"}",
+                "{\"numeroCuenta\":\"303\",\"saldo\":\"-1\",\"login\":\"existente\"}",
+                "{\"numeroCuenta\":\"304\",\"saldo\":\"mucho\",\"login\":\"existente\"}",
+                "{\"numeroCuenta\":\"100\",\"login\":\"existente\"}",
+                "{\"numeroCuenta\":",
+                "{\"numeroCuenta\":\"305\",\"estado\":\"CERRADA\",\"login\":\"existente\"}");
+
+        ImportReport reporte = importService.importar(ImportKind.CUENTAS, archivo);
+
+        assertEquals(8, reporte.getFilas());
+        assertEquals(2, reporte.getImportadas());
+        assertEquals(6, reporte.getRechazadas());
+        AccountEntity cuenta = buscarCuenta("300");
+        assertEquals(Money.of(1500.50), cuenta.getSaldo());
+        assertEquals("ACTIVA", cuenta.getEstado());
+        assertEquals(usuario.getId(), cuenta.getUser().getId());
+        assertEquals(Money.ZERO, buscarCuenta("301").getSaldo());
+
+        List<String> errores = Files.readAllLines(Path.of(reporte.getArchivoErrores()));
+        assertEquals(7, errores.size());
+        assertTrue(errores.contains("3,\"El usuario con login nadie no existe\""));
+        assertTrue(errores.contains("4,\"El campo saldo no puede ser negativo\""));
+        assertTrue(errores.contains("5,\"El campo saldo no es un monto válido: mucho\""));
+        assertTrue(errores.contains("6,\"Ya existe una cuenta con el número 100\""));
+        assertTrue(errores.contains("7,\"La fila no es un JSON válido\""));
+        assertTrue(errores.contains("8,\"El estado debe ser ACTIVA o BLOQUEADA\""));
+    }
+
+    /**
+     * Prueba para importar bolsillos en cuentas activas, bloqueadas e
+     * inexistentes, con nombres repetidos.
+     */
+    @Test
+    void testImportarBolsillos() throws IOException {
+        Path archivo = escribir("bolsillos.csv",
+                "numeroCuenta,nombre,saldo,metaAhorro",
+                "100,Carro,0,20000",
+                "100,Viajes,0,",
+                "100,Carro,10,",
+                "200,Casa,0,",
+                "999,Casa,0,",
+                "100,Casa,0,5000,extra");
+
+        ImportReport reporte = importService.importar(ImportKind.BOLSILLOS, archivo);
+
+        assertEquals(6, reporte.getFilas());
+        assertEquals(1, reporte.getImportadas());
+        assertEquals(5, reporte.getRechazadas());
+        PocketEntity carro = entityManager.getEntityManager()
+                .createQuery("select p from PocketEntity p where p.account.id = :accountId and p.nombre = 'Carro'", PocketEntity.class)
+                .setParameter("accountId", cuentaActiva.getId())
+                .getSingleResult();
+        assertEquals(Money.ZERO, carro.getSaldo());
+        assertEquals(Money.of(20000), carro.getMetaAhorro());
+
+        List<String> errores = Files.readAllLines(Path.of(reporte.getArchivoErrores()));
+        assertEquals(List.of("linea,error",
+                "3,\"Ya existe un bolsillo con el nombre Viajes en la cuenta 100\"",
+                "4,\"Ya existe un bolsillo con el nombre Carro en la cuenta 100\"",
+                "5,\"La cuenta 200 debe estar en estado ACTIVA para crear bolsillos\"",
+                "6,\"La cuenta 999 no existe\"",
+                "7,\"La fila tiene 5 columnas y el encabezado 4\""), errores);
+    }
+
+    /**
+     * Prueba que después de importar cuentas y bolsillos con saldo la
+     * conciliación no encuentra discrepancias: el saldo de cada bolsillo
+     * importado queda como su saldo inicial. La conciliación lee en sus propias
+     * transacciones, así que los datos importados deben hacer commit y se
+     * borran al final.
+     */
+    @Test
+    void testConciliarDespuesDeImportar() throws IOException {
+        importService.importar(ImportKind.CUENTAS, escribir("cuentas.csv",
+                "numeroCuenta,login,estado,saldo",
+                "300,existente,ACTIVA,500"));
+        ImportReport reporte = importService.importar(ImportKind.BOLSILLOS, escribir("bolsillos.csv",
+                "numeroCuenta,nombre,saldo,metaAhorro",
+                "300,Carro,120,",
+                "300,Viajes,0,",
+                "100,Casa,35.50,"));
+        assertEquals(3, reporte.getImportadas());
+        assertEquals(Money.of(120), buscarBolsillo("Carro").getSaldoInicial());
+        balanceSnapshotService.tomarFotos(0L, 100);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            ReconciliationReport conciliacion = reconciliationService.conciliar();
+
+            assertEquals(3, conciliacion.getCuentas());
+            assertEquals(0, conciliacion.getCuentasSinFoto());
+            assertEquals(0, conciliacion.getDiscrepancias());
+        } finally {
+            TestTransaction.start();
+            clearData();
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    /**
+     * Prueba para importar un archivo que solo tiene el encabezado.
+     */
+    @Test
+    void testImportarArchivoVacio() throws IOException {
+        Path archivo = escribir("usuarios.csv", "name,email,login,cedula");
+
+        ImportReport reporte = importService.importar(ImportKind.USUARIOS, archivo);
+
+        assertEquals(0, reporte.getFilas());
+        assertEquals(0, reporte.getImportadas());
+        assertEquals(List.of("linea,error"), Files.readAllLines(Path.of(reporte.getArchivoErrores())));
+    }
+
+    /**
+     * Prueba para importar un archivo que no existe.
+     */
+    @Test
+    void testImportarArchivoInexistente() {
+        assertThrows(IOException.class, () -> {
+            importService.importar(ImportKind.USUARIOS, directorio.resolve("no-existe.csv"));
+        });
+    }
+
+    private AccountEntity crearCuenta(String numeroCuenta, String estado) {
+        AccountEntity cuenta = factory.manufacturePojo(AccountEntity.class);
+        cuenta.setNumeroCuenta(numeroCuenta);
+        cuenta.setEstado(estado);
+        cuenta.setUser(usuario);
+        entityManager.persist(cuenta);
+        return cuenta;
+    }
+
+    private Path escribir(String nombre, String... lineas) throws IOException {
+        return Files.write(directorio.resolve(nombre), List.of(lineas));
+    }
+
+    private UserEntity buscarUsuario(String login) {
+        return entityManager.getEntityManager()
+                .createQuery("select u from UserEntity u where u.login = :login", UserEntity.class)
+                .setParameter("login", login)
+                .getSingleResult();
+    }
+
+    private PocketEntity buscarBolsillo(String nombre) {
+        return entityManager.getEntityManager()
+                .createQuery("select p from PocketEntity p where p.nombre = :nombre", PocketEntity.class)
+                .setParameter("nombre", nombre)
+                .getSingleResult();
+    }
+
+    private AccountEntity buscarCuenta(String numeroCuenta) {
+        return entityManager.getEntityManager()
+                .createQuery("select a from AccountEntity a where a.numeroCuenta = :numeroCuenta", AccountEntity.class)
+                .setParameter("numeroCuenta", numeroCuenta)
+                .getSingleResult();
+    }
+}
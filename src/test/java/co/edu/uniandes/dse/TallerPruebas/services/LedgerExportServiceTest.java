@@ -0,0 +1,195 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.LedgerExportReport;
+import co.edu.uniandes.dse.TallerPruebas.dto.LedgerSummary;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de lógica de LedgerExportService. Las páginas son de dos
+ * movimientos para que la exportación recorra varias.
+ *
+ * El libro de las pruebas tiene una transferencia de 100 de la cuenta origen a
+ * la destino y una de 30,25 de la cuenta origen a uno de sus bolsillos.
+ */
+@DataJpaTest(properties = "ledger.export.page-size=2")
+@Transactional
+@Import(LedgerExportService.class)
+public class LedgerExportServiceTest {
+
+    @Autowired
+    private LedgerExportService ledgerExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    private Path directorio;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private List<TransactionEntity> movimientos = new ArrayList<>();
+
+    /**
+     * Configuración inicial de la prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        clearData();
+        insertData();
+    }
+
+    /**
+     * Limpia las tablas que están implicadas en la prueba.
+     */
+    private void clearData() {
+        entityManager.getEntityManager().createQuery("delete from TransactionEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from PocketEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from AccountEntity").executeUpdate();
+    }
+
+    /**
+     * Inserta datos iniciales para el correcto funcionamiento de las pruebas.
+     */
+    private void insertData() {
+        AccountEntity origen = factory.manufacturePojo(AccountEntity.class);
+        entityManager.persist(origen);
+        AccountEntity destino = factory.manufacturePojo(AccountEntity.class);
+        entityManager.persist(destino);
+        PocketEntity bolsillo = factory.manufacturePojo(PocketEntity.class);
+        bolsillo.setAccount(origen);
+        entityManager.persist(bolsillo);
+
+        registrarMovimiento(origen, null, Money.of(100), "SALIDA", "2024-01-05T10:00:00Z");
+        registrarMovimiento(destino, null, Money.of(100), "ENTRADA", "2024-01-05T10:00:00Z");
+        registrarMovimiento(origen, bolsillo, Money.of(30.25), "SALIDA", "2024-01-06T08:30:00Z");
+        entityManager.flush();
+    }
+
+    /**
+     * Prueba que la exportación escribe todos los movimientos en orden de id y
+     * que el lector los devuelve con los mismos valores.
+     */
+    @Test
+    void testExportarYLeer() throws IOException {
+        Path archivo = directorio.resolve("libro.bin");
+
+        LedgerExportReport reporte = ledgerExportService.exportar(archivo);
+
+        assertEquals(3, reporte.getRegistros());
+        assertEquals(movimientos.get(2).getId(), reporte.getUltimoId());
+        assertEquals(24 + 3 * 33, reporte.getBytes());
+        assertEquals(reporte.getBytes(), Files.size(archivo));
+        assertFalse(Files.exists(directorio.resolve("libro.bin.part")));
+
+        try (LedgerFileReader lector = new LedgerFileReader(archivo)) {
+            assertEquals(3, lector.getRegistros());
+            for (TransactionEntity movimiento : movimientos) {
+                assertTrue(lector.siguiente());
+                assertEquals(movimiento.getId(), lector.getId());
+                assertEquals(movimiento.getAccount().getId(), lector.getAccountId());
+                assertEquals(movimiento.getFecha().getTime(), lector.getFechaMillis());
+                assertEquals(movimiento.getMonto().getCents(), lector.getMontoCents());
+                assertEquals("ENTRADA".equals(movimiento.getTipo()), lector.isEntrada());
+                assertEquals(movimiento.getPocket() != null, lector.isBolsillo());
+            }
+            assertFalse(lector.siguiente());
+        }
+    }
+
+    /**
+     * Prueba los totales de un archivo exportado.
+     */
+    @Test
+    void testResumir() throws IOException {
+        Path archivo = directorio.resolve("libro.bin");
+        ledgerExportService.exportar(archivo);
+
+        LedgerSummary resumen = ledgerExportService.resumir(archivo);
+
+        assertEquals(3, resumen.getRegistros());
+        assertEquals(movimientos.get(2).getId(), resumen.getUltimoId());
+        assertEquals(Money.ZERO, resumen.getNetoEntreCuentas());
+        assertEquals(Money.of(30.25), resumen.getHaciaBolsillos());
+    }
+
+    /**
+     * Prueba la exportación de un libro contable vacío.
+     */
+    @Test
+    void testExportarLibroVacio() throws IOException {
+        clearData();
+        Path archivo = directorio.resolve("libro.bin");
+
+        LedgerExportReport reporte = ledgerExportService.exportar(archivo);
+
+        assertEquals(0, reporte.getRegistros());
+        assertEquals(24, Files.size(archivo));
+        LedgerSummary resumen = ledgerExportService.resumir(archivo);
+        assertEquals(0, resumen.getRegistros());
+        assertEquals(Money.ZERO, resumen.getHaciaBolsillos());
+    }
+
+    /**
+     * Prueba que un archivo que no es una exportación se rechaza.
+     */
+    @Test
+    void testResumirArchivoInvalido() throws IOException {
+        Path archivo = Files.writeString(directorio.resolve("otro.bin"), "cuenta,monto\n1,100\n2,200\n");
+
+        assertThrows(IOException.class, () -> {
+            ledgerExportService.resumir(archivo);
+        });
+    }
+
+    /**
+     * Prueba que una exportación que no terminó se rechaza.
+     */
+    @Test
+    void testResumirExportacionIncompleta() throws IOException {
+        ByteBuffer encabezado = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+        encabezado.putInt(LedgerFileWriter.MAGICO).putInt(LedgerFileWriter.VERSION).putLong(-1).putLong(0);
+        Path archivo = Files.write(directorio.resolve("incompleto.bin"), encabezado.array());
+
+        assertThrows(IOException.class, () -> {
+            ledgerExportService.resumir(archivo);
+        });
+    }
+
+    private void registrarMovimiento(AccountEntity cuenta, PocketEntity bolsillo, Money monto, String tipo, String fecha) {
+        TransactionEntity movimiento = new TransactionEntity();
+        movimiento.setAccount(cuenta);
+        movimiento.setPocket(bolsillo);
+        movimiento.setMonto(monto);
+        movimiento.setTipo(tipo);
+        movimiento.setFecha(Date.from(Instant.parse(fecha)));
+        entityManager.persist(movimiento);
+        movimientos.add(movimiento);
+    }
+}
@@ -0,0 +1,147 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de OrderedTransferService. Las transferencias corren en los hilos de
+ * los carriles, así que los datos de la prueba deben hacer commit.
+ */
+@DataJpaTest(properties = "transfer.ordered.lanes=4")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ OrderedTransferService.class, TransactionService.class, TransactionRunner.class, OperationMetrics.class,
+        AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class OrderedTransferServiceTest {
+
+    private static final Money SALDO_INICIAL = Money.of(1000);
+
+    @Autowired
+    private OrderedTransferService orderedTransferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia las cuentas creadas por la prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba una transferencia y que los errores de validación llegan en el
+     * futuro con su mensaje.
+     */
+    @Test
+    void testTransferirACuenta() throws Exception {
+        AccountEntity origen = crearCuenta(SALDO_INICIAL);
+        AccountEntity destino = crearCuenta(SALDO_INICIAL);
+
+        String resultado = orderedTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100)).get();
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(900), resultado);
+        assertEquals(Money.of(1100), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> {
+            orderedTransferService.transferirACuenta(origen.getId(), 0L, Money.of(10)).get();
+        });
+        assertInstanceOf(EntityNotFoundException.class, e.getCause());
+        assertEquals("La cuenta destino no existe", e.getCause().getMessage());
+        e = assertThrows(ExecutionException.class, () -> {
+            orderedTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(5000)).get();
+        });
+        assertInstanceOf(InsufficientFundsException.class, e.getCause());
+    }
+
+    /**
+     * Prueba que las transferencias entre las mismas cuentas se ejecutan en el
+     * orden en que se envían: con otro orden el resultado de cada una sería
+     * distinto.
+     */
+    @Test
+    void testTransferenciasSeEjecutanEnOrden() throws Exception {
+        AccountEntity origen = crearCuenta(Money.of(10));
+        AccountEntity destino = crearCuenta(Money.ZERO);
+
+        CompletableFuture<String> primera = orderedTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(6));
+        CompletableFuture<String> segunda = orderedTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(4));
+        CompletableFuture<String> tercera = orderedTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(1));
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(4), primera.get());
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(0), segunda.get());
+        ExecutionException e = assertThrows(ExecutionException.class, tercera::get);
+        assertInstanceOf(InsufficientFundsException.class, e.getCause());
+    }
+
+    /**
+     * Prueba muchas transferencias concurrentes hacia y desde una cuenta
+     * caliente, con cuentas de todos los carriles: terminan todas y conservan
+     * el total.
+     */
+    @Test
+    void testCuentaCalienteConservaSaldo() throws Exception {
+        AccountEntity caliente = crearCuenta(SALDO_INICIAL);
+        List<AccountEntity> cuentas = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            cuentas.add(crearCuenta(SALDO_INICIAL));
+        }
+
+        List<CompletableFuture<String>> transferencias = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            AccountEntity otra = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+            AccountEntity origen = i % 2 == 0 ? otra : caliente;
+            AccountEntity destino = i % 2 == 0 ? caliente : otra;
+            transferencias.add(orderedTransferService.transferirACuenta(origen.getId(), destino.getId(),
+                    Money.ofCents(ThreadLocalRandom.current().nextInt(1, 50000))));
+        }
+        for (CompletableFuture<String> transferencia : transferencias) {
+            try {
+                transferencia.get();
+            } catch (ExecutionException e) {
+                // Saldo insuficiente: es un resultado válido
+                assertInstanceOf(BusinessLogicException.class, e.getCause());
+            }
+        }
+
+        long total = accountRepository.findById(caliente.getId()).orElseThrow().getSaldo().getCents();
+        for (AccountEntity cuenta : cuentas) {
+            Money saldo = accountRepository.findById(cuenta.getId()).orElseThrow().getSaldo();
+            assertFalse(saldo.isNegative());
+            total += saldo.getCents();
+        }
+        assertEquals(SALDO_INICIAL.getCents() * (cuentas.size() + 1), total);
+    }
+
+    private AccountEntity crearCuenta(Money saldo) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado("ACTIVA");
+        accountEntity.setSaldo(saldo);
+        return accountRepository.save(accountEntity);
+    }
+}
@@ -18,6 +18,7 @@ import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
 import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
@@ -26,7 +27,7 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
  */
 @DataJpaTest
 @Transactional
-@Import(PocketService.class)
+@Import({ PocketService.class, TransactionRunner.class, OperationMetrics.class, AccountSnapshotCache.class })
 public class PocketServiceTest {
 
     @Autowired
@@ -134,4 +135,59 @@ public class PocketServiceTest {
             pocketService.createPocket(account.getId(), newEntity);
         });
     }
+
+    /**
+     * Prueba que el nombre de un bolsillo solo debe ser único dentro de su cuenta.
+     */
+    @Test
+    void testCreatePocketWithNameUsedInOtherAccount() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity account = accountList.get(1);
+        PocketEntity newEntity = factory.manufacturePojo(PocketEntity.class);
+        newEntity.setNombre(pocketList.get(0).getNombre());
+
+        PocketEntity result = pocketService.createPocket(account.getId(), newEntity);
+
+        assertNotNull(result);
+        assertEquals(account.getId(), result.getAccount().getId());
+    }
+
+    /**
+     * Prueba para consultar los bolsillos de una cuenta.
+     */
+    @Test
+    void testGetPockets() throws EntityNotFoundException {
+        List<PocketEntity> pockets = pocketService.getPockets(accountList.get(0).getId());
+
+        assertEquals(pocketList.size(), pockets.size());
+        for (PocketEntity pocket : pocketList) {
+            assertTrue(pockets.stream().anyMatch(p -> p.getId().equals(pocket.getId())));
+        }
+    }
+
+    /**
+     * Prueba para consultar los bolsillos de una cuenta que no existe.
+     */
+    @Test
+    void testGetPocketsWithInvalidAccount() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            pocketService.getPockets(0L);
+        });
+    }
+
+    /**
+     * Prueba que toString y hashCode no recorren la relación bidireccional
+     * entre la cuenta y sus bolsillos.
+     */
+    @Test
+    void testToStringAndHashCodeWithBidirectionalPockets() {
+        AccountEntity account = accountList.get(0);
+        PocketEntity pocket = pocketList.get(0);
+
+        assertDoesNotThrow(() -> {
+            account.toString();
+            account.hashCode();
+            pocket.toString();
+            pocket.hashCode();
+        });
+    }
 }
@@ -0,0 +1,229 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.transaction.Transactional;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas del número de consultas que hace cada operación de los servicios,
+ * medido con las estadísticas de Hibernate. Si una operación empieza a cargar
+ * asociaciones con consultas adicionales (N+1) estas pruebas fallan.
+ *
+ * Las cuentas tienen usuario y bolsillos para que cargarlos de más se note.
+ * Antes de cada operación se vacía el contexto de persistencia para que todas
+ * las lecturas vayan a la base de datos. Para las consultas paginadas se
+ * revisa además el plan de H2 de la consulta que generó Hibernate.
+ */
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=co.edu.uniandes.dse.TallerPruebas.services.QueryCountTest$UltimaConsulta" })
+@Transactional
+@Import({ TransactionService.class, PocketService.class, TransactionRunner.class, OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class QueryCountTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PocketService pocketService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private Statistics statistics;
+
+    private AccountEntity origen;
+    private AccountEntity destino;
+    private PocketEntity bolsillo;
+
+    /**
+     * Configuración inicial de la prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        UserEntity user = factory.manufacturePojo(UserEntity.class);
+        entityManager.persist(user);
+
+        origen = crearCuenta(user);
+        destino = crearCuenta(user);
+        bolsillo = factory.manufacturePojo(PocketEntity.class);
+        bolsillo.setAccount(origen);
+        entityManager.persist(bolsillo);
+        for (int i = 0; i < 3; i++) {
+            PocketEntity otro = factory.manufacturePojo(PocketEntity.class);
+            otro.setAccount(origen);
+            entityManager.persist(otro);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    /**
+     * transferirABolsillo lee el bolsillo y su cuenta en una sola consulta y
+     * no carga el usuario ni los demás bolsillos.
+     */
+    @Test
+    void testTransferirABolsilloConsultas() throws EntityNotFoundException, BusinessLogicException {
+        transactionService.transferirABolsillo(origen.getId(), bolsillo.getNombre(), Money.ofCents(1));
+        entityManager.flush();
+
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+        assertNoHayCargasAdicionales();
+        assertEquals(2, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    /**
+     * transferirACuenta lee cada cuenta con una consulta y no carga su usuario.
+     */
+    @Test
+    void testTransferirACuentaConsultas() throws EntityNotFoundException, BusinessLogicException {
+        transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.ofCents(1));
+        entityManager.flush();
+
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+        assertNoHayCargasAdicionales();
+        assertEquals(2, statistics.getEntityUpdateCount());
+        assertEquals(2, statistics.getEntityInsertCount());
+    }
+
+    /**
+     * createPocket valida la cuenta con una proyección, sin cargarla como
+     * entidad, y verifica el nombre con una consulta de existencia.
+     */
+    @Test
+    void testCreatePocketConsultas() throws EntityNotFoundException, BusinessLogicException {
+        PocketEntity nuevo = factory.manufacturePojo(PocketEntity.class);
+        pocketService.createPocket(origen.getId(), nuevo);
+        entityManager.flush();
+
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertNoHayCargasAdicionales();
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    /**
+     * Una página profunda del extracto lee del índice solo las filas de la
+     * página: el rango empieza en el cursor y H2 no ordena el resto del
+     * historial.
+     */
+    @Test
+    void testPaginaProfundaExtractoLeeSoloLaPagina() throws Exception {
+        long inicio = System.currentTimeMillis() - 3_600_000;
+        for (int i = 0; i < 1000; i++) {
+            TransactionEntity movimiento = new TransactionEntity();
+            movimiento.setAccount(origen);
+            movimiento.setMonto(Money.ofCents(1));
+            movimiento.setTipo("ENTRADA");
+            movimiento.setFecha(new Date(inicio + i * 1000L));
+            entityManager.persist(movimiento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<TransactionEntity> extracto = transactionService.getPrimeraPaginaExtracto(origen.getId(), null, null, 500);
+        TransactionEntity cursor = extracto.get(extracto.size() - 1);
+
+        UltimaConsulta.sql = null;
+        assertEquals(50, transactionService.getSiguientePaginaExtracto(origen.getId(), cursor, null, 50).size());
+        String plan = plan(UltimaConsulta.sql, origen.getId(), cursor.getFecha(), cursor.getId(), 50);
+
+        assertTrue(plan.contains("/* index sorted */"), plan);
+        Matcher filas = Pattern.compile("scanCount: (\\d+)").matcher(plan);
+        assertTrue(filas.find(), plan);
+        assertTrue(Integer.parseInt(filas.group(1)) <= 51, plan);
+    }
+
+    /**
+     * Ejecuta EXPLAIN ANALYZE de la consulta de findStatementPage con los
+     * parámetros en el orden en que Hibernate los escribe.
+     */
+    private String plan(String sql, Long accountId, Date fecha, Long id, int limite) {
+        assertNotNull(sql);
+        Timestamp cursor = new Timestamp(fecha.getTime());
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(conexion -> {
+            try (PreparedStatement consulta = conexion.prepareStatement("explain analyze " + sql)) {
+                consulta.setLong(1, accountId);
+                consulta.setTimestamp(2, cursor);
+                consulta.setTimestamp(3, cursor);
+                consulta.setTimestamp(4, cursor);
+                consulta.setLong(5, id);
+                consulta.setTimestamp(6, Timestamp.valueOf("9999-12-31 00:00:00"));
+                // NOTE: Hibernate escribe el Pageable como offset ? rows fetch first ? rows only
+                consulta.setInt(7, 0);
+                consulta.setInt(8, limite);
+                try (ResultSet resultado = consulta.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1);
+                }
+            }
+        });
+    }
+
+    private AccountEntity crearCuenta(UserEntity user) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado("ACTIVA");
+        accountEntity.setSaldo(Money.of(1000));
+        accountEntity.setUser(user);
+        return entityManager.persist(accountEntity);
+    }
+
+    private void assertNoHayCargasAdicionales() {
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    /**
+     * Guarda la última consulta del extracto que Hibernate envía a la base de datos.
+     */
+    public static class UltimaConsulta implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String consulta) {
+            if (consulta.contains("transaction_entity") && consulta.contains("order by")) {
+                sql = consulta;
+            }
+            return consulta;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de ReactiveTransferService. Las operaciones corren en los hilos del
+ * pool, así que los datos de la prueba deben hacer commit. El pool tiene un
+ * solo hilo y una cola de una operación para poder llenarlo.
+ */
+@DataJpaTest(properties = { "transfer.reactive.threads=1", "transfer.reactive.queue-capacity=1" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReactiveTransferService.class, TransactionService.class, PocketService.class, TransactionRunner.class,
+        OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class ReactiveTransferServiceTest {
+
+    private static final Money SALDO_INICIAL = Money.of(1000);
+
+    @Autowired
+    private ReactiveTransferService reactiveTransferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia los datos creados por la prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba una transferencia entre cuentas, que no se hace hasta que alguien
+     * se suscribe, y que los errores de validación llegan en el Mono con su
+     * mensaje.
+     */
+    @Test
+    void testTransferirACuenta() {
+        AccountEntity origen = crearCuenta(SALDO_INICIAL);
+        AccountEntity destino = crearCuenta(SALDO_INICIAL);
+
+        Mono<String> transferencia = reactiveTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100));
+        assertEquals(SALDO_INICIAL, accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(900), transferencia.block());
+        assertEquals(Money.of(1100), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+
+        Throwable e = error(reactiveTransferService.transferirACuenta(origen.getId(), 0L, Money.of(10)));
+        assertInstanceOf(EntityNotFoundException.class, e);
+        assertEquals("La cuenta destino no existe", e.getMessage());
+        e = error(reactiveTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(5000)));
+        assertInstanceOf(InsufficientFundsException.class, e);
+        e = error(reactiveTransferService.transferirACuenta(origen.getId(), origen.getId(), Money.of(10)));
+        assertInstanceOf(BusinessLogicException.class, e);
+    }
+
+    /**
+     * Prueba la creación de un bolsillo y una transferencia hacia él, con los
+     * mismos errores de PocketService y TransactionService.
+     */
+    @Test
+    void testBolsillos() {
+        AccountEntity cuenta = crearCuenta(SALDO_INICIAL);
+        PocketEntity nuevo = factory.manufacturePojo(PocketEntity.class);
+        nuevo.setSaldo(Money.ZERO);
+
+        PocketEntity bolsillo = reactiveTransferService.createPocket(cuenta.getId(), nuevo).block();
+
+        assertNotNull(bolsillo.getId());
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de la cuenta es: " + Money.of(700)
+                + " y el nuevo saldo del bolsillo es: " + Money.of(300),
+                reactiveTransferService.transferirABolsillo(cuenta.getId(), bolsillo.getNombre(), Money.of(300)).block());
+
+        PocketEntity repetido = factory.manufacturePojo(PocketEntity.class);
+        repetido.setNombre(bolsillo.getNombre());
+        assertInstanceOf(BusinessLogicException.class, error(reactiveTransferService.createPocket(cuenta.getId(), repetido)));
+        assertInstanceOf(EntityNotFoundException.class,
+                error(reactiveTransferService.createPocket(0L, factory.manufacturePojo(PocketEntity.class))));
+        assertInstanceOf(EntityNotFoundException.class,
+                error(reactiveTransferService.transferirABolsillo(cuenta.getId(), "No existe", Money.of(10))));
+        assertInstanceOf(InsufficientFundsException.class,
+                error(reactiveTransferService.transferirABolsillo(cuenta.getId(), bolsillo.getNombre(), Money.of(701))));
+    }
+
+    /**
+     * Prueba que con el hilo ocupado y la cola llena las operaciones se
+     * rechazan de inmediato sin ejecutarse, y que la encolada se ejecuta
+     * cuando el hilo se libera.
+     */
+    @Test
+    void testPoolSaturadoRechaza() throws Exception {
+        AccountEntity origen = crearCuenta(SALDO_INICIAL);
+        AccountEntity destino = crearCuenta(SALDO_INICIAL);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> enCurso = reactiveTransferService.ejecutar(() -> {
+            ocupado.countDown();
+            return liberar.await(10, TimeUnit.SECONDS);
+        }).toFuture();
+        assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+        CompletableFuture<String> encolada = reactiveTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100)).toFuture();
+
+        Throwable e = error(reactiveTransferService.transferirACuenta(origen.getId(), destino.getId(), Money.of(200)));
+        assertInstanceOf(RejectedExecutionException.class, e);
+        assertEquals("Hay demasiadas operaciones en curso, intenta de nuevo más tarde", e.getMessage());
+
+        liberar.countDown();
+        assertTrue(enCurso.get());
+        assertEquals("Transferencia realizada con éxito. El nuevo saldo de tu cuenta es: " + Money.of(900), encolada.get());
+        assertEquals(Money.of(1100), accountRepository.findById(destino.getId()).orElseThrow().getSaldo());
+    }
+
+    /**
+     * Se suscribe al Mono y retorna el error con que falla, sin la envoltura
+     * que usa block para las excepciones verificadas.
+     */
+    private Throwable error(Mono<?> mono) {
+        RuntimeException e = assertThrows(RuntimeException.class, mono::block);
+        return Exceptions.unwrap(e);
+    }
+
+    private AccountEntity crearCuenta(Money saldo) {
+        AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+        accountEntity.setEstado("ACTIVA");
+        accountEntity.setSaldo(saldo);
+        return accountRepository.save(accountEntity);
+    }
+}
@@ -0,0 +1,199 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.dto.ReconciliationReport;
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.BalanceSnapshotRepository;
+import co.edu.uniandes.dse.TallerPruebas.repositories.PocketRepository;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de lógica de ReconciliationService. Los rangos se procesan en otros
+ * hilos con sus propias transacciones, así que los datos de la prueba deben
+ * hacer commit. Los rangos son pequeños para que las cuentas queden repartidas
+ * en varios.
+ */
+@DataJpaTest(properties = { "reconciliation.chunk-size=2", "reconciliation.parallelism=3",
+        "reconciliation.report-dir=target/reconciliation-test" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReconciliationService.class, BalanceSnapshotService.class, TransactionService.class, PocketService.class, TransactionRunner.class,
+        OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class ReconciliationServiceTest {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PocketService pocketService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PocketRepository pocketRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia los datos creados por la prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba que cuentas con transferencias entre cuentas y a bolsillos
+     * posteriores a su foto concilian sin discrepancias.
+     */
+    @Test
+    void testConciliarSinDiscrepancias() throws IOException, EntityNotFoundException, BusinessLogicException {
+        List<AccountEntity> cuentas = crearCuentas(5);
+        PocketEntity bolsillo = crearBolsillo(cuentas.get(0));
+        balanceSnapshotService.tomarFotos(0L, 100);
+
+        transactionService.transferirACuenta(cuentas.get(0).getId(), cuentas.get(4).getId(), Money.of(100));
+        transactionService.transferirACuenta(cuentas.get(3).getId(), cuentas.get(1).getId(), Money.of(50));
+        transactionService.transferirABolsillo(cuentas.get(0).getId(), bolsillo.getNombre(), Money.of(30));
+
+        ReconciliationReport reporte = reconciliationService.conciliar();
+
+        assertEquals(5, reporte.getCuentas());
+        assertEquals(0, reporte.getCuentasSinFoto());
+        assertEquals(0, reporte.getDiscrepancias());
+        assertEquals(Money.ZERO, reporte.getNetoEntreCuentas());
+        assertEquals(1, Files.readAllLines(Path.of(reporte.getArchivo())).size());
+    }
+
+    /**
+     * Prueba que un saldo de cuenta y uno de bolsillo alterados por fuera de
+     * las transferencias aparecen en el reporte.
+     */
+    @Test
+    void testConciliarConDiscrepancias() throws IOException, EntityNotFoundException, BusinessLogicException {
+        List<AccountEntity> cuentas = crearCuentas(4);
+        PocketEntity bolsillo = crearBolsillo(cuentas.get(1));
+        balanceSnapshotService.tomarFotos(0L, 100);
+        transactionService.transferirABolsillo(cuentas.get(1).getId(), bolsillo.getNombre(), Money.of(30));
+
+        AccountEntity alterada = accountRepository.findById(cuentas.get(2).getId()).orElseThrow();
+        alterada.setSaldo(alterada.getSaldo().plus(Money.of(10)));
+        accountRepository.save(alterada);
+        PocketEntity bolsilloAlterado = pocketRepository.findById(bolsillo.getId()).orElseThrow();
+        bolsilloAlterado.setSaldo(Money.of(31));
+        pocketRepository.save(bolsilloAlterado);
+
+        ReconciliationReport reporte = reconciliationService.conciliar();
+
+        assertEquals(4, reporte.getCuentas());
+        assertEquals(2, reporte.getDiscrepancias());
+        List<String> lineas = Files.readAllLines(Path.of(reporte.getArchivo()));
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.contains(cuentas.get(2).getId() + "," + ReconciliationService.LIBRO + ",1000.00,1010.00,10.00"));
+        assertTrue(lineas.contains(cuentas.get(1).getId() + "," + ReconciliationService.BOLSILLOS + ",30.00,31.00,1.00"));
+    }
+
+    /**
+     * Prueba que un bolsillo creado con saldo inicial, que no tiene movimiento
+     * en el libro contable, concilia sin discrepancias, y que un cambio a su
+     * saldo por fuera de las transferencias sí aparece.
+     */
+    @Test
+    void testConciliarBolsilloConSaldoInicial() throws IOException, EntityNotFoundException, BusinessLogicException {
+        List<AccountEntity> cuentas = crearCuentas(2);
+        PocketEntity nuevo = factory.manufacturePojo(PocketEntity.class);
+        nuevo.setSaldo(Money.of(75));
+        PocketEntity bolsillo = pocketService.createPocket(cuentas.get(0).getId(), nuevo);
+        transactionService.transferirABolsillo(cuentas.get(0).getId(), bolsillo.getNombre(), Money.of(30));
+
+        ReconciliationReport reporte = reconciliationService.conciliar();
+
+        assertEquals(2, reporte.getCuentas());
+        assertEquals(0, reporte.getDiscrepancias());
+
+        PocketEntity bolsilloAlterado = pocketRepository.findById(bolsillo.getId()).orElseThrow();
+        bolsilloAlterado.setSaldo(Money.of(106));
+        pocketRepository.save(bolsilloAlterado);
+
+        reporte = reconciliationService.conciliar();
+
+        assertEquals(1, reporte.getDiscrepancias());
+        assertTrue(Files.readAllLines(Path.of(reporte.getArchivo()))
+                .contains(cuentas.get(0).getId() + "," + ReconciliationService.BOLSILLOS + ",105.00,106.00,1.00"));
+    }
+
+    /**
+     * Prueba que las cuentas sin foto se cuentan pero no se verifican contra el libro.
+     */
+    @Test
+    void testConciliarCuentasSinFoto() throws IOException {
+        crearCuentas(3);
+
+        ReconciliationReport reporte = reconciliationService.conciliar();
+
+        assertEquals(3, reporte.getCuentas());
+        assertEquals(3, reporte.getCuentasSinFoto());
+        assertEquals(0, reporte.getDiscrepancias());
+    }
+
+    /**
+     * Prueba la conciliación sin cuentas.
+     */
+    @Test
+    void testConciliarSinCuentas() throws IOException {
+        ReconciliationReport reporte = reconciliationService.conciliar();
+
+        assertEquals(0, reporte.getCuentas());
+        assertEquals(0, reporte.getDiscrepancias());
+    }
+
+    private List<AccountEntity> crearCuentas(int cantidad) {
+        List<AccountEntity> cuentas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+            accountEntity.setEstado("ACTIVA");
+            accountEntity.setSaldo(Money.of(1000));
+            cuentas.add(accountRepository.save(accountEntity));
+        }
+        return cuentas;
+    }
+
+    private PocketEntity crearBolsillo(AccountEntity cuenta) {
+        PocketEntity pocketEntity = factory.manufacturePojo(PocketEntity.class);
+        pocketEntity.setAccount(cuenta);
+        pocketEntity.setSaldo(Money.ZERO);
+        return pocketRepository.save(pocketEntity);
+    }
+}
@@ -0,0 +1,215 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import co.edu.uniandes.dse.TallerPruebas.repositories.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de concurrencia de TransactionService. No se ejecutan dentro de la
+ * transacción de la prueba para que cada transferencia haga commit y los hilos
+ * compitan realmente por los bloqueos de las cuentas.
+ */
+@Slf4j
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ TransactionService.class, TransactionRunner.class, OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class })
+public class TransactionServiceConcurrencyTest {
+
+    private static final int HILOS = 8;
+    private static final int TRANSFERENCIAS_POR_HILO = 50;
+    private static final Money SALDO_INICIAL = Money.of(1000);
+    private static final double MEJORA_MINIMA_PARES_DISTINTOS = 1.1;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    /**
+     * Limpia las cuentas creadas por la prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    /**
+     * Prueba que transferencias concurrentes en ambos sentidos entre las mismas
+     * cuentas no pierden actualizaciones ni quedan en deadlock.
+     */
+    @Test
+    void testTransferenciasConcurrentesConservanSaldo() throws Exception {
+        List<AccountEntity> cuentas = crearCuentas(4);
+
+        ejecutarConcurrentemente(hilo -> {
+            AccountEntity origen = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+            AccountEntity destino = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+            if (!origen.getId().equals(destino.getId())) {
+                transferir(origen.getId(), destino.getId());
+            }
+        });
+
+        assertSaldoConservado(cuentas);
+    }
+
+    /**
+     * Compara el throughput cuando todos los hilos compiten por un único par de
+     * cuentas contra el caso en que cada hilo usa un par distinto. Las
+     * transferencias de pares distintos no comparten bloqueos, por lo que no se
+     * serializan entre sí y deben terminar antes. Cada caso se ejecuta una vez
+     * sin medir para que la compilación JIT no cuente en contra del primero.
+     */
+    @Test
+    void testThroughputEscalaConParesDistintos() throws Exception {
+        List<AccountEntity> parCompartido = crearCuentas(2);
+        Tarea compartida = hilo -> {
+            int sentido = ThreadLocalRandom.current().nextInt(2);
+            transferir(parCompartido.get(sentido).getId(), parCompartido.get(1 - sentido).getId());
+        };
+        List<AccountEntity> paresDistintos = crearCuentas(2 * HILOS);
+        Tarea distintas = hilo -> {
+            int sentido = ThreadLocalRandom.current().nextInt(2);
+            transferir(paresDistintos.get(2 * hilo + sentido).getId(), paresDistintos.get(2 * hilo + 1 - sentido).getId());
+        };
+        ejecutarConcurrentemente(compartida);
+        ejecutarConcurrentemente(distintas);
+
+        double throughputCompartido = medirThroughput(compartida);
+        double throughputDistintos = medirThroughput(distintas);
+
+        assertSaldoConservado(parCompartido);
+        assertSaldoConservado(paresDistintos);
+        log.info("Throughput con 1 par de cuentas: {} transferencias/s, con {} pares: {} transferencias/s",
+                Math.round(throughputCompartido), HILOS, Math.round(throughputDistintos));
+        // NOTE: El margen es amplio para que la prueba no dependa de la máquina; la medición con contención está en SkewedTransferBenchmark
+        assertTrue(throughputDistintos > throughputCompartido * MEJORA_MINIMA_PARES_DISTINTOS,
+                "Con pares distintos el throughput debería ser al menos " + MEJORA_MINIMA_PARES_DISTINTOS
+                        + " veces el de un solo par: " + Math.round(throughputDistintos) + " contra " + Math.round(throughputCompartido));
+    }
+
+    /**
+     * Prueba que peticiones concurrentes con la misma clave de idempotencia
+     * mueven el dinero una sola vez y todas reciben el resultado original.
+     */
+    @Test
+    void testMismaClaveDeIdempotenciaConcurrenteTransfiereUnaVez() throws Exception {
+        List<AccountEntity> cuentas = crearCuentas(2);
+        Long origen = cuentas.get(0).getId();
+        Long destino = cuentas.get(1).getId();
+        String clave = UUID.randomUUID().toString();
+        CountDownLatch salida = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        List<String> resultados = new ArrayList<>();
+        try {
+            List<Future<String>> futuros = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                futuros.add(executor.submit(() -> {
+                    salida.await();
+                    return transactionService.transferirACuenta(origen, destino, Money.of(100), clave);
+                }));
+            }
+            salida.countDown();
+            for (Future<String> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (String resultado : resultados) {
+            assertEquals(resultados.get(0), resultado);
+        }
+        assertEquals(SALDO_INICIAL.minus(Money.of(100)), accountRepository.findById(origen).orElseThrow().getSaldo());
+        assertEquals(SALDO_INICIAL.plus(Money.of(100)), accountRepository.findById(destino).orElseThrow().getSaldo());
+    }
+
+    private List<AccountEntity> crearCuentas(int cantidad) {
+        List<AccountEntity> cuentas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+            accountEntity.setEstado("ACTIVA");
+            accountEntity.setSaldo(SALDO_INICIAL);
+            cuentas.add(accountRepository.save(accountEntity));
+        }
+        return cuentas;
+    }
+
+    private void transferir(Long origen, Long destino) throws Exception {
+        try {
+            transactionService.transferirACuenta(origen, destino, Money.ofCents(ThreadLocalRandom.current().nextInt(1, 5000)));
+        } catch (BusinessLogicException e) {
+            // Saldo insuficiente: es un resultado válido bajo concurrencia
+        }
+    }
+
+    private void ejecutarConcurrentemente(Tarea tarea) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                final int hilo = h;
+                resultados.add(executor.submit(() -> {
+                    for (int i = 0; i < TRANSFERENCIAS_POR_HILO; i++) {
+                        tarea.ejecutar(hilo);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assertSaldoConservado(List<AccountEntity> cuentas) {
+        long total = 0;
+        for (AccountEntity cuenta : cuentas) {
+            AccountEntity actualizada = accountRepository.findById(cuenta.getId()).orElseThrow();
+            assertFalse(actualizada.getSaldo().isNegative());
+            total += actualizada.getSaldo().getCents();
+        }
+        assertEquals(SALDO_INICIAL.getCents() * cuentas.size(), total);
+    }
+
+    private double medirThroughput(Tarea tarea) throws Exception {
+        long inicio = System.nanoTime();
+        ejecutarConcurrentemente(tarea);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        return HILOS * TRANSFERENCIAS_POR_HILO / segundos;
+    }
+
+    @FunctionalInterface
+    private interface Tarea {
+        void ejecutar(int hilo) throws Exception;
+    }
+}
@@ -0,0 +1,11 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/**
+ * Ejecuta las pruebas de concurrencia de TransactionService con control de
+ * concurrencia optimista (versión de la cuenta + reintentos).
+ */
+@DataJpaTest(properties = { "transfer.lock-mode=OPTIMISTIC", "transfer.max-retries=100" })
+public class TransactionServiceOptimisticConcurrencyTest extends TransactionServiceConcurrencyTest {
+}
@@ -3,6 +3,7 @@ package co.edu.uniandes.dse.TallerPruebas.services;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import jakarta.transaction.Transactional;
@@ -14,10 +15,20 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
 
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferRequest;
+import co.edu.uniandes.dse.TallerPruebas.dto.TransferResult;
 import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.Money;
 import co.edu.uniandes.dse.TallerPruebas.entities.PocketEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.TransactionEntity;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.BusinessLogicException;
 import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.InsufficientFundsException;
+import co.edu.uniandes.dse.TallerPruebas.metrics.OperationMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
@@ -26,7 +37,8 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
  */
 @DataJpaTest
 @Transactional
-@Import(TransactionService.class)
+// NOTE: Se registra un SimpleMeterRegistry para poder verificar las métricas de las transferencias
+@Import({ TransactionService.class, TransactionRunner.class, OperationMetrics.class, AccountSnapshotCache.class, IdempotencyStore.class, BalanceStripeService.class, SimpleMeterRegistry.class })
 public class TransactionServiceTest {
 
     @Autowired
@@ -35,6 +47,9 @@ public class TransactionServiceTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private PodamFactory factory = new PodamFactoryImpl();
 
     private List<AccountEntity> accountList = new ArrayList<>();
@@ -53,8 +68,8 @@ public class TransactionServiceTest {
      * Limpia las tablas que están implicadas en la prueba.
      */
     private void clearData() {
-        entityManager.getEntityManager().createQuery("delete from PocketEntity").executeUpdate();
         entityManager.getEntityManager().createQuery("delete from TransactionEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from PocketEntity").executeUpdate();
         entityManager.getEntityManager().createQuery("delete from AccountEntity").executeUpdate();
     }
 
@@ -65,7 +80,7 @@ public class TransactionServiceTest {
         for (int i = 0; i < 3; i++) {
             AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
             accountEntity.setEstado("ACTIVA");
-            accountEntity.setSaldo(1000.0);
+            accountEntity.setSaldo(Money.of(1000));
             entityManager.persist(accountEntity);
             accountList.add(accountEntity);
         }
@@ -74,7 +89,7 @@ public class TransactionServiceTest {
             PocketEntity pocketEntity = factory.manufacturePojo(PocketEntity.class);
             pocketEntity.setAccount(accountList.get(0));
             pocketEntity.setNombre("Bolsillo " + i);
-            pocketEntity.setSaldo(0.0);
+            pocketEntity.setSaldo(Money.of(0));
             entityManager.persist(pocketEntity);
             pocketList.add(pocketEntity);
         }
@@ -88,14 +103,14 @@ public class TransactionServiceTest {
     @Test
     void testTransferirABolsillo() throws EntityNotFoundException, BusinessLogicException {
         AccountEntity account = accountList.get(0);
-        Double montoInicial = account.getSaldo();
-        Double montoTransferencia = 100.0;
+        Money montoInicial = account.getSaldo();
+        Money montoTransferencia = Money.of(100);
         
         String result = transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", montoTransferencia);
         
         assertNotNull(result);
         AccountEntity updatedAccount = entityManager.find(AccountEntity.class, account.getId());
-        assertEquals(montoInicial - montoTransferencia, updatedAccount.getSaldo());
+        assertEquals(montoInicial.minus(montoTransferencia), updatedAccount.getSaldo());
         
         PocketEntity updatedPocket = entityManager.find(PocketEntity.class, pocketList.get(0).getId());
         assertEquals(montoTransferencia, updatedPocket.getSaldo());
@@ -107,7 +122,7 @@ public class TransactionServiceTest {
     @Test
     void testTransferirABolsilloWithInvalidAccount() {
         assertThrows(EntityNotFoundException.class, () -> {
-            transactionService.transferirABolsillo(0L, "Bolsillo 0", 100.0);
+            transactionService.transferirABolsillo(0L, "Bolsillo 0", Money.of(100));
         });
     }
 
@@ -121,7 +136,7 @@ public class TransactionServiceTest {
             account.setEstado("BLOQUEADA");
             entityManager.merge(account);
             
-            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", 100.0);
+            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(100));
         });
     }
 
@@ -132,7 +147,7 @@ public class TransactionServiceTest {
     void testTransferirABolsilloWithInvalidPocket() {
         assertThrows(EntityNotFoundException.class, () -> {
             AccountEntity account = accountList.get(0);
-            transactionService.transferirABolsillo(account.getId(), "BolsilloNoExiste", 100.0);
+            transactionService.transferirABolsillo(account.getId(), "BolsilloNoExiste", Money.of(100));
         });
     }
 
@@ -143,7 +158,7 @@ public class TransactionServiceTest {
     void testTransferirABolsilloWithNegativeAmount() {
         assertThrows(BusinessLogicException.class, () -> {
             AccountEntity account = accountList.get(0);
-            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", -100.0);
+            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(-100));
         });
     }
 
@@ -154,7 +169,7 @@ public class TransactionServiceTest {
     void testTransferirABolsilloWithInsufficientBalance() {
         assertThrows(BusinessLogicException.class, () -> {
             AccountEntity account = accountList.get(0);
-            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", 2000.0);
+            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(2000));
         });
     }
 
@@ -165,18 +180,18 @@ public class TransactionServiceTest {
     void testTransferirACuenta() throws EntityNotFoundException, BusinessLogicException {
         AccountEntity accountOrigen = accountList.get(0);
         AccountEntity accountDestino = accountList.get(1);
-        Double montoInicialOrigen = accountOrigen.getSaldo();
-        Double montoInicialDestino = accountDestino.getSaldo();
-        Double montoTransferencia = 100.0;
+        Money montoInicialOrigen = accountOrigen.getSaldo();
+        Money montoInicialDestino = accountDestino.getSaldo();
+        Money montoTransferencia = Money.of(100);
         
         String result = transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), montoTransferencia);
         
         assertNotNull(result);
         AccountEntity updatedOrigen = entityManager.find(AccountEntity.class, accountOrigen.getId());
-        assertEquals(montoInicialOrigen - montoTransferencia, updatedOrigen.getSaldo());
+        assertEquals(montoInicialOrigen.minus(montoTransferencia), updatedOrigen.getSaldo());
         
         AccountEntity updatedDestino = entityManager.find(AccountEntity.class, accountDestino.getId());
-        assertEquals(montoInicialDestino + montoTransferencia, updatedDestino.getSaldo());
+        assertEquals(montoInicialDestino.plus(montoTransferencia), updatedDestino.getSaldo());
     }
 
     /**
@@ -186,7 +201,7 @@ public class TransactionServiceTest {
     void testTransferirACuentaWithInvalidOriginAccount() {
         assertThrows(EntityNotFoundException.class, () -> {
             AccountEntity accountDestino = accountList.get(1);
-            transactionService.transferirACuenta(0L, accountDestino.getId(), 100.0);
+            transactionService.transferirACuenta(0L, accountDestino.getId(), Money.of(100));
         });
     }
 
@@ -197,7 +212,7 @@ public class TransactionServiceTest {
     void testTransferirACuentaWithInvalidDestinationAccount() {
         assertThrows(EntityNotFoundException.class, () -> {
             AccountEntity accountOrigen = accountList.get(0);
-            transactionService.transferirACuenta(accountOrigen.getId(), 0L, 100.0);
+            transactionService.transferirACuenta(accountOrigen.getId(), 0L, Money.of(100));
         });
     }
 
@@ -208,7 +223,7 @@ public class TransactionServiceTest {
     void testTransferirACuentaWithSameAccount() {
         assertThrows(BusinessLogicException.class, () -> {
             AccountEntity account = accountList.get(0);
-            transactionService.transferirACuenta(account.getId(), account.getId(), 100.0);
+            transactionService.transferirACuenta(account.getId(), account.getId(), Money.of(100));
         });
     }
 
@@ -223,7 +238,7 @@ public class TransactionServiceTest {
             accountOrigen.setEstado("BLOQUEADA");
             entityManager.merge(accountOrigen);
             
-            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), 100.0);
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(100));
         });
     }
 
@@ -238,7 +253,7 @@ public class TransactionServiceTest {
             accountDestino.setEstado("BLOQUEADA");
             entityManager.merge(accountDestino);
             
-            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), 100.0);
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(100));
         });
     }
 
@@ -250,7 +265,7 @@ public class TransactionServiceTest {
         assertThrows(BusinessLogicException.class, () -> {
             AccountEntity accountOrigen = accountList.get(0);
             AccountEntity accountDestino = accountList.get(1);
-            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), -100.0);
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(-100));
         });
     }
 
@@ -262,8 +277,328 @@ public class TransactionServiceTest {
         assertThrows(BusinessLogicException.class, () -> {
             AccountEntity accountOrigen = accountList.get(0);
             AccountEntity accountDestino = accountList.get(1);
-            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), 2000.0);
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(2000));
+        });
+    }
+
+    /**
+     * Prueba para transferir un lote de transferencias entre cuentas.
+     */
+    @Test
+    void testTransferirEnLote() {
+        AccountEntity cuenta0 = accountList.get(0);
+        AccountEntity cuenta1 = accountList.get(1);
+        AccountEntity cuenta2 = accountList.get(2);
+        List<TransferRequest> lote = List.of(
+                new TransferRequest(cuenta0.getId(), cuenta1.getId(), Money.of(100)),
+                new TransferRequest(cuenta1.getId(), cuenta2.getId(), Money.of(50)),
+                new TransferRequest(cuenta0.getId(), cuenta2.getId(), Money.of(10)));
+
+        List<TransferResult> resultados = transactionService.transferirEnLote(lote);
+
+        assertEquals(3, resultados.size());
+        resultados.forEach(r -> assertTrue(r.isExitosa()));
+        assertEquals(Money.of(890), entityManager.find(AccountEntity.class, cuenta0.getId()).getSaldo());
+        assertEquals(Money.of(1050), entityManager.find(AccountEntity.class, cuenta1.getId()).getSaldo());
+        assertEquals(Money.of(1060), entityManager.find(AccountEntity.class, cuenta2.getId()).getSaldo());
+    }
+
+    /**
+     * Prueba que una transferencia inválida no detiene el resto del lote.
+     */
+    @Test
+    void testTransferirEnLoteWithInvalidItems() {
+        AccountEntity cuenta0 = accountList.get(0);
+        AccountEntity cuenta1 = accountList.get(1);
+        List<TransferRequest> lote = List.of(
+                new TransferRequest(cuenta0.getId(), cuenta1.getId(), Money.of(900)),
+                new TransferRequest(cuenta0.getId(), cuenta1.getId(), Money.of(200)),
+                new TransferRequest(0L, cuenta1.getId(), Money.of(10)),
+                new TransferRequest(cuenta1.getId(), cuenta0.getId(), Money.of(-10)),
+                new TransferRequest(cuenta1.getId(), cuenta0.getId(), Money.of(50)));
+
+        List<TransferResult> resultados = transactionService.transferirEnLote(lote);
+
+        assertTrue(resultados.get(0).isExitosa());
+        assertFalse(resultados.get(1).isExitosa());
+        assertFalse(resultados.get(2).isExitosa());
+        assertFalse(resultados.get(3).isExitosa());
+        assertTrue(resultados.get(4).isExitosa());
+        assertEquals(1, resultados.get(1).getPosicion());
+        assertEquals(Money.of(150), entityManager.find(AccountEntity.class, cuenta0.getId()).getSaldo());
+        assertEquals(Money.of(1850), entityManager.find(AccountEntity.class, cuenta1.getId()).getSaldo());
+    }
+
+    /**
+     * Prueba que una transferencia a un bolsillo deja un movimiento de salida en la cuenta.
+     */
+    @Test
+    void testTransferirABolsilloRegistraMovimiento() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity account = accountList.get(0);
+
+        transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(100));
+
+        List<TransactionEntity> movimientos = buscarMovimientos(account.getId());
+        assertEquals(1, movimientos.size());
+        assertEquals("SALIDA", movimientos.get(0).getTipo());
+        assertEquals(Money.of(100), movimientos.get(0).getMonto());
+        assertEquals(pocketList.get(0).getId(), movimientos.get(0).getPocket().getId());
+        assertNotNull(movimientos.get(0).getFecha());
+    }
+
+    /**
+     * Prueba que una transferencia entre cuentas deja un movimiento de salida en
+     * el origen y uno de entrada en el destino.
+     */
+    @Test
+    void testTransferirACuentaRegistraMovimientos() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+
+        transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(100));
+
+        List<TransactionEntity> salidas = buscarMovimientos(accountOrigen.getId());
+        assertEquals(1, salidas.size());
+        assertEquals("SALIDA", salidas.get(0).getTipo());
+        assertEquals(Money.of(100), salidas.get(0).getMonto());
+
+        List<TransactionEntity> entradas = buscarMovimientos(accountDestino.getId());
+        assertEquals(1, entradas.size());
+        assertEquals("ENTRADA", entradas.get(0).getTipo());
+        assertEquals(Money.of(100), entradas.get(0).getMonto());
+    }
+
+    /**
+     * Prueba que una transferencia rechazada no deja movimientos.
+     */
+    @Test
+    void testTransferirACuentaRechazadaNoRegistraMovimientos() {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+
+        assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(2000));
+        });
+        assertTrue(buscarMovimientos(accountOrigen.getId()).isEmpty());
+    }
+
+    /**
+     * Prueba que repetir una transferencia entre cuentas con la misma clave de
+     * idempotencia retorna el resultado original sin mover el dinero otra vez.
+     */
+    @Test
+    void testTransferirACuentaConClaveIdempotenciaRepetida() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+
+        String primera = transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(100), "clave-cuenta");
+        String repetida = transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(100), "clave-cuenta");
+
+        assertEquals(primera, repetida);
+        assertEquals(Money.of(900), entityManager.find(AccountEntity.class, accountOrigen.getId()).getSaldo());
+        assertEquals(Money.of(1100), entityManager.find(AccountEntity.class, accountDestino.getId()).getSaldo());
+        assertEquals(1, buscarMovimientos(accountOrigen.getId()).size());
+    }
+
+    /**
+     * Prueba que repetir una transferencia a un bolsillo con la misma clave de
+     * idempotencia retorna el resultado original sin mover el dinero otra vez.
+     */
+    @Test
+    void testTransferirABolsilloConClaveIdempotenciaRepetida() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity account = accountList.get(0);
+
+        String primera = transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(100), "clave-bolsillo");
+        String repetida = transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(100), "clave-bolsillo");
+
+        assertEquals(primera, repetida);
+        assertEquals(Money.of(900), entityManager.find(AccountEntity.class, account.getId()).getSaldo());
+        assertEquals(Money.of(100), entityManager.find(PocketEntity.class, pocketList.get(0).getId()).getSaldo());
+        assertEquals(1, buscarMovimientos(account.getId()).size());
+    }
+
+    /**
+     * Prueba que una clave de idempotencia no se puede usar para otra transferencia.
+     */
+    @Test
+    void testTransferirACuentaConClaveIdempotenciaDeOtraTransferencia() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+        transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(100), "clave-otra");
+
+        assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(200), "clave-otra");
         });
+        assertEquals(Money.of(900), entityManager.find(AccountEntity.class, accountOrigen.getId()).getSaldo());
     }
 
-}
\ No newline at end of file
+    /**
+     * Prueba que una transferencia rechazada no consume su clave de
+     * idempotencia, así que el cliente puede reintentarla.
+     */
+    @Test
+    void testTransferirACuentaRechazadaNoRegistraClaveIdempotencia() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+
+        assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(2000), "clave-rechazada");
+        });
+        accountOrigen.setSaldo(Money.of(3000));
+        entityManager.merge(accountOrigen);
+
+        transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(2000), "clave-rechazada");
+        assertEquals(Money.of(1000), entityManager.find(AccountEntity.class, accountOrigen.getId()).getSaldo());
+    }
+
+    /**
+     * Prueba que el extracto se recorre completo por páginas, en orden y sin repetir movimientos.
+     */
+    @Test
+    void testGetPaginasExtracto() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+        for (int i = 0; i < 5; i++) {
+            transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(10));
+        }
+
+        List<TransactionEntity> extracto = new ArrayList<>();
+        List<TransactionEntity> pagina = transactionService.getPrimeraPaginaExtracto(accountOrigen.getId(), null, null, 2);
+        while (!pagina.isEmpty()) {
+            assertTrue(pagina.size() <= 2);
+            extracto.addAll(pagina);
+            pagina = transactionService.getSiguientePaginaExtracto(accountOrigen.getId(), pagina.get(pagina.size() - 1), null, 2);
+        }
+
+        assertEquals(5, extracto.size());
+        for (int i = 1; i < extracto.size(); i++) {
+            TransactionEntity anterior = extracto.get(i - 1);
+            TransactionEntity actual = extracto.get(i);
+            assertTrue(anterior.getFecha().before(actual.getFecha())
+                    || (anterior.getFecha().equals(actual.getFecha()) && anterior.getId() < actual.getId()));
+        }
+    }
+
+    /**
+     * Prueba que las páginas profundas de un extracto largo siguen al cursor:
+     * con muchos movimientos en la misma fecha, recorrer el extracto por
+     * páginas pequeñas lo lee completo, en orden y sin repetir movimientos.
+     */
+    @Test
+    void testGetPaginasProfundasExtracto() throws EntityNotFoundException {
+        AccountEntity account = accountList.get(0);
+        long inicio = System.currentTimeMillis() - 3_600_000;
+        for (int i = 0; i < 1000; i++) {
+            TransactionEntity movimiento = new TransactionEntity();
+            movimiento.setAccount(account);
+            movimiento.setMonto(Money.of(1));
+            movimiento.setTipo("ENTRADA");
+            // NOTE: Solo 10 fechas distintas para que el cursor tenga que desempatar por id dentro de cada fecha
+            movimiento.setFecha(new Date(inicio + (i % 10) * 1000L));
+            entityManager.persist(movimiento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TransactionEntity> extracto = new ArrayList<>();
+        List<TransactionEntity> pagina = transactionService.getPrimeraPaginaExtracto(account.getId(), null, null, 7);
+        while (!pagina.isEmpty()) {
+            assertTrue(pagina.size() <= 7);
+            extracto.addAll(pagina);
+            pagina = transactionService.getSiguientePaginaExtracto(account.getId(), pagina.get(pagina.size() - 1), null, 7);
+        }
+
+        assertEquals(1000, extracto.size());
+        for (int i = 1; i < extracto.size(); i++) {
+            TransactionEntity anterior = extracto.get(i - 1);
+            TransactionEntity actual = extracto.get(i);
+            assertTrue(anterior.getFecha().before(actual.getFecha())
+                    || (anterior.getFecha().equals(actual.getFecha()) && anterior.getId() < actual.getId()));
+        }
+    }
+
+    /**
+     * Prueba que el extracto respeta el rango de fechas.
+     */
+    @Test
+    void testGetPrimeraPaginaExtractoWithDateRange() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity accountOrigen = accountList.get(0);
+        AccountEntity accountDestino = accountList.get(1);
+        transactionService.transferirACuenta(accountOrigen.getId(), accountDestino.getId(), Money.of(10));
+        Date futuro = new Date(System.currentTimeMillis() + 60_000);
+
+        assertEquals(1, transactionService.getPrimeraPaginaExtracto(accountOrigen.getId(), null, futuro, 10).size());
+        assertTrue(transactionService.getPrimeraPaginaExtracto(accountOrigen.getId(), futuro, null, 10).isEmpty());
+    }
+
+    /**
+     * Prueba para consultar el extracto de una cuenta que no existe.
+     */
+    @Test
+    void testGetPrimeraPaginaExtractoWithInvalidAccount() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            transactionService.getPrimeraPaginaExtracto(0L, null, null, 10);
+        });
+    }
+
+    /**
+     * Prueba que las transferencias se miden por resultado y que el monto
+     * transferido solo cuenta las exitosas. El registro se comparte entre las
+     * pruebas, por eso se comparan diferencias.
+     */
+    @Test
+    void testTransferirACuentaRegistraMetricas() throws EntityNotFoundException, BusinessLogicException {
+        AccountEntity origen = accountList.get(0);
+        AccountEntity destino = accountList.get(1);
+        long exitosas = contarOperaciones(OperationMetrics.TRANSFERIR_A_CUENTA, "success");
+        long sinSaldo = contarOperaciones(OperationMetrics.TRANSFERIR_A_CUENTA, "insufficient_funds");
+        long noEncontradas = contarOperaciones(OperationMetrics.TRANSFERIR_A_CUENTA, "not_found");
+        double montoTransferido = montoTransferido(OperationMetrics.TRANSFERIR_A_CUENTA);
+
+        transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(100));
+        assertThrows(InsufficientFundsException.class, () -> {
+            transactionService.transferirACuenta(origen.getId(), destino.getId(), Money.of(5000));
+        });
+        assertThrows(EntityNotFoundException.class, () -> {
+            transactionService.transferirACuenta(0L, destino.getId(), Money.of(100));
+        });
+
+        assertEquals(exitosas + 1, contarOperaciones(OperationMetrics.TRANSFERIR_A_CUENTA, "success"));
+        assertEquals(sinSaldo + 1, contarOperaciones(OperationMetrics.TRANSFERIR_A_CUENTA, "insufficient_funds"));
+        assertEquals(noEncontradas + 1, contarOperaciones(OperationMetrics.TRANSFERIR_A_CUENTA, "not_found"));
+        assertEquals(montoTransferido + Money.of(100).getCents(), montoTransferido(OperationMetrics.TRANSFERIR_A_CUENTA));
+        assertEquals(0, meterRegistry.get("bank.transfers.in_flight").gauge().value());
+    }
+
+    /**
+     * Prueba que un monto inválido se mide como error de negocio y no como
+     * saldo insuficiente.
+     */
+    @Test
+    void testTransferirABolsilloRegistraErrorDeNegocio() {
+        AccountEntity account = accountList.get(0);
+        long erroresDeNegocio = contarOperaciones(OperationMetrics.TRANSFERIR_A_BOLSILLO, "business_error");
+
+        assertThrows(BusinessLogicException.class, () -> {
+            transactionService.transferirABolsillo(account.getId(), "Bolsillo 0", Money.of(-100));
+        });
+
+        assertEquals(erroresDeNegocio + 1, contarOperaciones(OperationMetrics.TRANSFERIR_A_BOLSILLO, "business_error"));
+    }
+
+    private long contarOperaciones(String operacion, String resultado) {
+        Timer timer = meterRegistry.find("bank.operations").tag("operation", operacion).tag("outcome", resultado).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double montoTransferido(String operacion) {
+        Counter counter = meterRegistry.find("bank.transfers.amount").tag("operation", operacion).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private List<TransactionEntity> buscarMovimientos(Long accountId) {
+        return entityManager.getEntityManager()
+                .createQuery("select t from TransactionEntity t where t.account.id = :accountId", TransactionEntity.class)
+                .setParameter("accountId", accountId).getResultList();
+    }
+}
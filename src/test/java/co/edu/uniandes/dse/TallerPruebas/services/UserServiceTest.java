@@ -0,0 +1,100 @@
+package co.edu.uniandes.dse.TallerPruebas.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import co.edu.uniandes.dse.TallerPruebas.entities.AccountEntity;
+import co.edu.uniandes.dse.TallerPruebas.entities.UserEntity;
+import co.edu.uniandes.dse.TallerPruebas.exceptions.EntityNotFoundException;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de lógica de UserService
+ */
+@DataJpaTest
+@Transactional
+@Import(UserService.class)
+public class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private UserEntity user;
+    private List<AccountEntity> accountList = new ArrayList<>();
+
+    /**
+     * Configuración inicial de la prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        clearData();
+        insertData();
+    }
+
+    /**
+     * Limpia las tablas que están implicadas en la prueba.
+     */
+    private void clearData() {
+        entityManager.getEntityManager().createQuery("delete from TransactionEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from PocketEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from AccountEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from UserEntity").executeUpdate();
+    }
+
+    /**
+     * Inserta datos iniciales para el correcto funcionamiento de las pruebas.
+     */
+    private void insertData() {
+        user = factory.manufacturePojo(UserEntity.class);
+        entityManager.persist(user);
+
+        for (int i = 0; i < 3; i++) {
+            AccountEntity accountEntity = factory.manufacturePojo(AccountEntity.class);
+            accountEntity.setUser(user);
+            entityManager.persist(accountEntity);
+            accountList.add(accountEntity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Prueba para consultar un usuario con sus cuentas.
+     */
+    @Test
+    void testGetUser() throws EntityNotFoundException {
+        UserEntity result = userService.getUser(user.getId());
+
+        assertEquals(user.getId(), result.getId());
+        assertEquals(user.getName(), result.getName());
+        assertEquals(user.getEmail(), result.getEmail());
+        assertEquals(accountList.size(), result.getAccounts().size());
+    }
+
+    /**
+     * Prueba para consultar un usuario que no existe.
+     */
+    @Test
+    void testGetUserWithInvalidUser() {
+        assertThrows(EntityNotFoundException.class, () -> {
+            userService.getUser(0L);
+        });
+    }
+}